@@ -0,0 +1,430 @@
+package pdk.util;
+
+import java.text.DecimalFormat;
+import java.util.Arrays;
+
+import static pdk.util.ArgUtils.checkNonNegative;
+
+/**
+ * Thread-safe formatter of double values, writing directly into a {@link StringBuilder}, a {@code char[]} or a
+ * {@code byte[]}, without intermediate {@code String} for the values below 2^63.
+ * <p>
+ * Three modes are supported:
+ * <ul>
+ *     <li>shortest: the shortest decimal that rounds to the value, same as {@link Double#toString(double)}, which is
+ *     computed with the Schubfach algorithm by {@link StringBuilder#append(double)};</li>
+ *     <li>fixed: a fixed number of fraction digits, as pattern {@code "0.00"} of {@link DecimalFormatUtils#F2};</li>
+ *     <li>scientific: one integer digit and up to a number of fraction digits, as
+ *     {@link DecimalFormatUtils#scientific(int)}, e.g. {@code "1.23E-1"}.</li>
+ * </ul>
+ * The fixed and scientific modes give the same result as {@link DecimalFormat} with the
+ * {@link java.math.RoundingMode#HALF_EVEN} rounding, which rounds the digits of {@link Double#toString(double)}, or the
+ * digits of an integer below 2^63, so a value has at most 17 significant digits followed by zeros. A trailing 5 is
+ * rounded up or down by comparing the exact binary value with the digits, in integer arithmetic on per thread scratch
+ * arrays, and always up for an integer. Values from 2^63 are formatted by DecimalFormat, as it computes their digits
+ * differently in rare cases, except by {@code scientific(0)}: these values go through an intermediate {@code String}.
+ * As DecimalFormat, the sign of negative values rounding to zero is kept, and infinity is written as {@code "∞"}.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 17 Oct 2026, 1:40 PM
+ */
+public final class FastDecimalFormat {
+
+    private static final int SHORTEST_MODE = 0;
+    private static final int FIXED_MODE = 1;
+    private static final int SCIENTIFIC_MODE = 2;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Shortest decimal, same as {@link Double#toString(double)}.
+     */
+    public static final FastDecimalFormat SHORTEST = new FastDecimalFormat(SHORTEST_MODE, 0);
+
+    public static final FastDecimalFormat F0 = fixed(0);
+    public static final FastDecimalFormat F1 = fixed(1);
+    public static final FastDecimalFormat F2 = fixed(2);
+    public static final FastDecimalFormat F3 = fixed(3);
+    public static final FastDecimalFormat F4 = fixed(4);
+    public static final FastDecimalFormat F5 = fixed(5);
+    public static final FastDecimalFormat F6 = fixed(6);
+
+    private final int mode;
+    private final int digits;
+    /**
+     * formatter of values from 2^63, whose digits are not always the shortest in DecimalFormat
+     */
+    private final ThreadLocal<DecimalFormat> large;
+
+    private FastDecimalFormat(int mode, int digits) {
+        this.mode = mode;
+        this.digits = digits;
+        this.large = ThreadLocal.withInitial(() -> mode == FIXED_MODE ? DecimalFormatUtils.valueOf(digits)
+                : DecimalFormatUtils.scientific(digits));
+    }
+
+    /**
+     * Returns a formatter with a fixed number of fraction digits.
+     *
+     * @param fractionDigits number of fraction digits
+     * @return formatter instance
+     */
+    public static FastDecimalFormat fixed(int fractionDigits) {
+        checkNonNegative(fractionDigits, "fraction digit");
+        return new FastDecimalFormat(FIXED_MODE, fractionDigits);
+    }
+
+    /**
+     * Returns a formatter in scientific notation, with one integer digit and at most the given number of fraction
+     * digits, trailing zeros are omitted.
+     *
+     * @param maxFractionDigits the maximum number of fraction digits
+     * @return formatter instance
+     */
+    public static FastDecimalFormat scientific(int maxFractionDigits) {
+        checkNonNegative(maxFractionDigits, "fraction digit");
+        return new FastDecimalFormat(SCIENTIFIC_MODE, maxFractionDigits);
+    }
+
+    /**
+     * Formats a value.
+     *
+     * @param value value to format
+     * @return formatted value
+     */
+    public String format(double value) {
+        StringBuilder builder = SCRATCH.get().builder;
+        builder.setLength(0);
+        return format(value, builder).toString();
+    }
+
+    /**
+     * Appends a formatted value.
+     *
+     * @param value   value to format
+     * @param builder builder to append to
+     * @return the builder
+     */
+    public StringBuilder format(double value, StringBuilder builder) {
+        if (mode == SHORTEST_MODE) return builder.append(value);
+        if (Double.isNaN(value)) return builder.append("NaN");
+        if (Double.doubleToRawLongBits(value) < 0) builder.append('-');
+        double abs = Math.abs(value);
+        if (abs == Double.POSITIVE_INFINITY) return builder.append('∞');
+        if (abs >= 0x1p63 && (mode == FIXED_MODE || digits > 0)) return builder.append(large.get().format(abs));
+        if (mode == FIXED_MODE) appendFixed(abs, builder);
+        else appendScientific(abs, builder);
+        return builder;
+    }
+
+    /**
+     * Writes a formatted value into a char array.
+     *
+     * @param value  value to format
+     * @param dest   destination array
+     * @param offset offset of the first char
+     * @return offset after the last char
+     * @throws IndexOutOfBoundsException if the array is too small
+     */
+    public int format(double value, char[] dest, int offset) {
+        StringBuilder builder = SCRATCH.get().builder;
+        builder.setLength(0);
+        format(value, builder);
+        int length = builder.length();
+        builder.getChars(0, length, dest, offset);
+        return offset + length;
+    }
+
+    /**
+     * Writes a formatted value into a byte array, in UTF-8, which is ASCII except for {@code "∞"}.
+     *
+     * @param value  value to format
+     * @param dest   destination array
+     * @param offset offset of the first byte
+     * @return offset after the last byte
+     * @throws IndexOutOfBoundsException if the array is too small
+     */
+    public int format(double value, byte[] dest, int offset) {
+        StringBuilder builder = SCRATCH.get().builder;
+        builder.setLength(0);
+        format(value, builder);
+        int length = builder.length();
+        for (int i = 0; i < length; i++) {
+            char c = builder.charAt(i);
+            if (c == '∞') {
+                dest[offset++] = (byte) 0xE2;
+                dest[offset++] = (byte) 0x88;
+                dest[offset++] = (byte) 0x9E;
+            } else {
+                dest[offset++] = (byte) c;
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Per thread buffers.
+     */
+    private static final class Scratch {
+        final StringBuilder builder = new StringBuilder(64);
+        final StringBuilder shortest = new StringBuilder(32);
+        /**
+         * significant digits of the value, without leading and trailing zeros
+         */
+        final char[] digits = new char[32];
+        int count;
+        /**
+         * number of integer digits: the value is 0.d1d2...dn * 10^point
+         */
+        int point;
+        /**
+         * little endian 32-bit limbs of the two sides of an exact comparison, up to 1280 bits
+         */
+        final int[] left = new int[40];
+        final int[] right = new int[40];
+    }
+
+    private void appendFixed(double abs, StringBuilder builder) {
+        Scratch scratch = SCRATCH.get();
+        shortestDigits(abs, scratch);
+        round(abs, scratch, scratch.point + digits);
+        char[] d = scratch.digits;
+        int count = scratch.count;
+        int point = scratch.point;
+        if (point <= 0) {
+            builder.append('0');
+        } else {
+            builder.append(d, 0, Math.min(point, count));
+            for (int i = count; i < point; i++)
+                builder.append('0');
+        }
+        if (digits > 0) {
+            builder.append('.');
+            for (int i = point; i < point + digits; i++)
+                builder.append(i >= 0 && i < count ? d[i] : '0');
+        }
+    }
+
+    private void appendScientific(double abs, StringBuilder builder) {
+        if (abs == 0) {
+            builder.append("0E0");
+            return;
+        }
+        Scratch scratch = SCRATCH.get();
+        shortestDigits(abs, scratch);
+        round(abs, scratch, digits + 1);
+        builder.append(scratch.digits[0]);
+        if (scratch.count > 1) builder.append('.').append(scratch.digits, 1, scratch.count - 1);
+        builder.append('E').append(scratch.point - 1);
+    }
+
+    /**
+     * Extracts the digits of the shortest decimal of a positive value, as written by {@link StringBuilder#append(double)},
+     * such as {@code "123.45"} or {@code "1.2345E-5"}.
+     */
+    private static void shortestDigits(double abs, Scratch scratch) {
+        StringBuilder text = scratch.shortest;
+        text.setLength(0);
+        if (abs >= 0x1p53 && abs < 0x1p63) {
+            appendLongDigits(abs, text);
+        } else {
+            text.append(abs);
+        }
+        char[] d = scratch.digits;
+        int count = 0;
+        int point = 0;
+        boolean fraction = false;
+        int length = text.length();
+        int i = 0;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '.') {
+                point = count;
+                fraction = true;
+            } else if (c == 'E') {
+                break;
+            } else if (c != '0' || count > 0) {
+                d[count++] = c;
+            } else if (fraction) {
+                // a leading zero after the point
+                point--;
+            }
+        }
+        if (i < length) point += Integer.parseInt(text, i + 1, length, 10);
+        while (count > 0 && d[count - 1] == '0') count--;
+        scratch.count = count;
+        scratch.point = point;
+    }
+
+    /**
+     * Number of low decimal digits dropped from an integer value, by the number of bits below its significand.
+     */
+    private static final int[] INSIGNIFICANT_DIGITS = {0, 0, 0, 0, 1, 1, 1, 2, 2, 2, 3, 3, 3, 3, 4, 4, 4, 5, 5, 5, 6, 6,
+            6, 6, 7, 7, 7, 8, 8, 8, 9, 9, 9, 9, 10, 10, 10, 11, 11, 11, 12, 12, 12, 12, 13, 13, 13, 14, 14, 14, 15, 15, 15,
+            15, 16, 16, 16, 17, 17, 17, 18, 18, 18, 19};
+
+    /**
+     * Appends the digits of an integer value which fits in a long, as the digits rounded by DecimalFormat: the exact
+     * integer, with the digits below the precision of the value rounded half-up, e.g. 282879384806159008 instead of
+     * the shortest 2.82879384806159E17.
+     */
+    private static void appendLongDigits(double abs, StringBuilder text) {
+        long value = (long) abs;
+        // the bits below the 53-bit significand
+        int zeroBits = Math.getExponent(abs) - 54;
+        int insignificant = zeroBits > 1 && zeroBits < INSIGNIFICANT_DIGITS.length ? INSIGNIFICANT_DIGITS[zeroBits] : 0;
+        if (insignificant > 0) {
+            long power = 1;
+            for (int i = 0; i < insignificant; i++)
+                power *= 10;
+            long residue = value % power;
+            value /= power;
+            if (residue >= power >> 1) value++;
+        }
+        text.append(value).append(".0");
+        if (insignificant > 0) text.append('E').append(insignificant);
+    }
+
+    /**
+     * Rounds the digits half-even to the given number of digits, as {@link java.text.DecimalFormat}: the shortest
+     * digits are rounded, and a trailing 5 is broken by the exact binary value.
+     *
+     * @param keep number of digits to keep, may be negative or larger than the number of digits
+     */
+    private static void round(double abs, Scratch scratch, int keep) {
+        char[] d = scratch.digits;
+        int count = scratch.count;
+        if (keep >= count) return;
+        if (keep < 0) {
+            // below the rounding digit
+            scratch.count = 0;
+            return;
+        }
+        boolean up;
+        if (d[keep] != '5') {
+            up = d[keep] > '5';
+        } else if (keep < count - 1) {
+            up = true;
+        } else if (abs < 0x1p63 && abs == Math.rint(abs)) {
+            // DecimalFormat does not know whether the digits of such an integer are exact, and rounds up
+            up = true;
+        } else {
+            // the shortest digits are a tie, the binary value decides
+            long decimal = 0;
+            for (int i = 0; i < count; i++)
+                decimal = decimal * 10 + (d[i] - '0');
+            int compare = compareExact(abs, decimal, scratch.point - count, scratch);
+            up = compare > 0 || compare == 0 && keep > 0 && (d[keep - 1] - '0') % 2 != 0;
+        }
+        count = keep;
+        if (up) {
+            int i = count - 1;
+            while (i >= 0 && d[i] == '9') i--;
+            if (i < 0) {
+                // 99.9 to 100
+                d[0] = '1';
+                count = 1;
+                scratch.point++;
+            } else {
+                d[i]++;
+                count = i + 1;
+            }
+        }
+        while (count > 0 && d[count - 1] == '0') count--;
+        scratch.count = count;
+    }
+
+    /**
+     * powers of 5 which fit in an int
+     */
+    private static final int[] POW5 = {1, 5, 25, 125, 625, 3125, 15625, 78125, 390625, 1953125, 9765625, 48828125,
+            244140625, 1220703125};
+
+    /**
+     * Compares the exact value of a positive double, m * 2^e, with decimal * 10^exp10. The powers of 5 and 2 with a
+     * negative exponent are moved to the other side, so both sides are integers.
+     *
+     * @return negative, zero or positive as the double is less than, equal to or greater than the decimal
+     */
+    private static int compareExact(double abs, long decimal, int exp10, Scratch scratch) {
+        long bits = Double.doubleToRawLongBits(abs);
+        int biased = (int) (bits >>> 52);
+        long m = bits & (1L << 52) - 1;
+        int exp2;
+        if (biased == 0) {
+            exp2 = -1074;
+        } else {
+            m |= 1L << 52;
+            exp2 = biased - 1075;
+        }
+        int[] left = scratch.left;
+        int[] right = scratch.right;
+        int leftLength = set(left, m);
+        int rightLength = set(right, decimal);
+        if (exp10 < 0) leftLength = multiplyPow5(left, leftLength, -exp10);
+        else rightLength = multiplyPow5(right, rightLength, exp10);
+        int twos = Math.min(exp2, exp10);
+        leftLength = shiftLeft(left, leftLength, exp2 - twos);
+        rightLength = shiftLeft(right, rightLength, exp10 - twos);
+        if (leftLength != rightLength) return leftLength - rightLength;
+        for (int i = leftLength - 1; i >= 0; i--) {
+            if (left[i] != right[i]) return Integer.compareUnsigned(left[i], right[i]);
+        }
+        return 0;
+    }
+
+    /**
+     * Sets the limbs to a positive long.
+     *
+     * @return number of limbs
+     */
+    private static int set(int[] limbs, long value) {
+        limbs[0] = (int) value;
+        limbs[1] = (int) (value >>> 32);
+        return limbs[1] == 0 ? 1 : 2;
+    }
+
+    /**
+     * Multiplies the limbs by 5^exponent.
+     *
+     * @return number of limbs
+     */
+    private static int multiplyPow5(int[] limbs, int length, int exponent) {
+        while (exponent > 0) {
+            int n = Math.min(exponent, POW5.length - 1);
+            long factor = POW5[n];
+            long carry = 0;
+            for (int i = 0; i < length; i++) {
+                long product = (limbs[i] & 0xFFFFFFFFL) * factor + carry;
+                limbs[i] = (int) product;
+                carry = product >>> 32;
+            }
+            if (carry != 0) limbs[length++] = (int) carry;
+            exponent -= n;
+        }
+        return length;
+    }
+
+    /**
+     * Multiplies the limbs by 2^bits.
+     *
+     * @return number of limbs
+     */
+    private static int shiftLeft(int[] limbs, int length, int bits) {
+        if (bits == 0) return length;
+        int words = bits >>> 5;
+        int shift = bits & 31;
+        if (shift == 0) {
+            System.arraycopy(limbs, 0, limbs, words, length);
+        } else {
+            int high = limbs[length - 1] >>> 32 - shift;
+            for (int i = length - 1; i > 0; i--)
+                limbs[i + words] = limbs[i] << shift | limbs[i - 1] >>> 32 - shift;
+            limbs[words] = limbs[0] << shift;
+            if (high != 0) limbs[length++ + words] = high;
+        }
+        Arrays.fill(limbs, 0, words, 0);
+        return length + words;
+    }
+}
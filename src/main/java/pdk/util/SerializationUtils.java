@@ -1,5 +1,7 @@
 package pdk.util;
 
+import pdk.util.io.SerializerRegistry;
+
 import java.io.*;
 
 import static java.util.Objects.requireNonNull;
@@ -115,14 +117,24 @@ public class SerializationUtils {
     /**
      * Serializes an object, and deserializes it, return the deserialized version.
      * <p>
-     * Used to test whether the object is serialized correctly
+     * Used to test whether the object is serialized correctly, or to make a deep copy. Objects supported by
+     * {@link SerializerRegistry#getDefault()}, such as records, tuples and primitive arrays, are copied through it, which
+     * is much faster than Java serialization, when {@link SerializerRegistry#isCopyable(Object)} finds no cycle and no
+     * shared reference; others fall back to Java serialization, which keeps the identity of shared objects.
      *
      * @param serializable {@link Serializable} object
      * @param <T>          type to return
      * @return obj
      */
+    @SuppressWarnings("unchecked")
     public static <T> T round(Serializable serializable) {
         requireNonNull(serializable);
+        SerializerRegistry registry = SerializerRegistry.getDefault();
+        try {
+            if (registry.isCopyable(serializable)) return (T) registry.copy(serializable);
+        } catch (IllegalArgumentException ignored) {
+            // rejected by a constructor, let Java serialization report it
+        }
         byte[] bytes = serialize(serializable);
         return deserialize(bytes);
     }
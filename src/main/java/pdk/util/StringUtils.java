@@ -372,14 +372,31 @@ public final class StringUtils {
      * argument
      */
     public static String join(String delimiter, double[] elements) {
+        return join(delimiter, elements, FastDecimalFormat.SHORTEST);
+    }
+
+    /**
+     * join double array with given delimiter, the values are formatted into the result without intermediate
+     * {@code String}.
+     *
+     * @param delimiter a sequence of characters that is used to separate each
+     *                  of the {@code elements} in the resulting {@code String}
+     * @param elements  values to join
+     * @param format    format of the values, e.g. {@link FastDecimalFormat#F4}
+     * @return a new {@code String} that is composed from the {@code elements}
+     * argument
+     */
+    public static String join(String delimiter, double[] elements, FastDecimalFormat format) {
         requireNonNull(delimiter);
         requireNonNull(elements);
+        requireNonNull(format);
 
-        StringJoiner joiner = new StringJoiner(delimiter);
-        for (double element : elements) {
-            joiner.add(String.valueOf(element));
+        StringBuilder builder = new StringBuilder(elements.length * 8);
+        for (int i = 0; i < elements.length; i++) {
+            if (i > 0) builder.append(delimiter);
+            format.format(elements[i], builder);
         }
-        return joiner.toString();
+        return builder.toString();
     }
 
     /**
@@ -0,0 +1,183 @@
+package pdk.util.io;
+
+import pdk.util.exception.PDKRuntimeException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * An {@link Output} that writes to the stream from a background virtual thread.
+ * <p>
+ * When the buffer is full, it is queued for the writer thread and serialization goes on in another buffer, so encoding
+ * does not wait for the disk. At most {@code maxPending} full buffers are queued; when the queue is full, the caller
+ * waits for the writer.
+ * <p>
+ * A write error of the writer thread is thrown by the next {@link #flush()}, including the one made when the buffer
+ * is full, by {@link #finish()} or by {@link #close()}.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 5:45 PM
+ */
+public class AsyncOutput extends Output {
+
+    /**
+     * A buffer to write, followed by an optional stream flush.
+     *
+     * @param done counted down after the data is written and the stream is flushed, null for no flush
+     * @param last true to stop the writer thread
+     */
+    private record Chunk(byte[] data, int length, CountDownLatch done, boolean last) {}
+
+    private final BlockingQueue<Chunk> queue;
+    /**
+     * written buffers, reused for new data
+     */
+    private final BlockingQueue<byte[]> free = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile Throwable error;
+    private boolean closed;
+
+    /**
+     * Creates an Output with a buffer size of 64 KB and 2 pending buffers.
+     *
+     * @param outputStream stream to write
+     */
+    public AsyncOutput(OutputStream outputStream) {
+        this(outputStream, 1 << 16, 2);
+    }
+
+    /**
+     * Creates an Output.
+     *
+     * @param outputStream stream to write
+     * @param bufferSize   size of each buffer
+     * @param maxPending   maximum number of full buffers waiting for the writer thread
+     */
+    public AsyncOutput(OutputStream outputStream, int bufferSize, int maxPending) {
+        super(outputStream, bufferSize);
+        if (maxPending < 1) throw new IllegalArgumentException("maxPending must be >= 1: " + maxPending);
+        this.queue = new ArrayBlockingQueue<>(maxPending);
+        this.writer = Thread.ofVirtual().name("AsyncOutput").start(this::run);
+    }
+
+    /**
+     * Not supported, the buffers are managed by this Output.
+     */
+    @Override
+    public void setBuffer(byte[] buffer, int maxBufferSize) {
+        throw new UnsupportedOperationException("AsyncOutput does not support setBuffer.");
+    }
+
+    /**
+     * Not supported, this Output writes to the stream given in the constructor.
+     */
+    @Override
+    public void setOutputStream(OutputStream outputStream) {
+        throw new UnsupportedOperationException("AsyncOutput does not support setOutputStream.");
+    }
+
+    private void run() {
+        while (true) {
+            Chunk chunk;
+            try {
+                chunk = queue.take();
+            } catch (InterruptedException ex) {
+                error = ex;
+                return;
+            }
+            if (chunk.data() != null) {
+                if (error == null) {
+                    try {
+                        outputStream.write(chunk.data(), 0, chunk.length());
+                    } catch (IOException | RuntimeException ex) {
+                        error = ex;
+                    }
+                }
+                free.add(chunk.data());
+            }
+            if (chunk.done() != null) {
+                if (error == null) {
+                    try {
+                        outputStream.flush();
+                    } catch (IOException | RuntimeException ex) {
+                        error = ex;
+                    }
+                }
+                chunk.done().countDown();
+            }
+            if (chunk.last()) return;
+        }
+    }
+
+    private void checkError() {
+        Throwable ex = error;
+        if (ex != null) throw new PDKRuntimeException(ex);
+    }
+
+    private void put(Chunk chunk) {
+        try {
+            queue.put(chunk);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new PDKRuntimeException(ex);
+        }
+    }
+
+    /**
+     * Queues the buffer for the writer thread and continues in another buffer. The data are not written yet when this
+     * method returns, use {@link #finish()} for that.
+     */
+    @Override
+    public void flush() throws PDKRuntimeException {
+        checkError();
+        if (position == 0) return;
+        put(new Chunk(buffer, position, null, false));
+        byte[] next = free.poll();
+        buffer = next != null ? next : new byte[capacity];
+        total += position;
+        position = 0;
+    }
+
+    /**
+     * Waits until all buffered data are written and the stream is flushed.
+     */
+    public void finish() throws PDKRuntimeException {
+        end(false);
+    }
+
+    private void end(boolean last) {
+        flush();
+        CountDownLatch done = new CountDownLatch(1);
+        put(new Chunk(null, 0, done, last));
+        try {
+            done.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new PDKRuntimeException(ex);
+        }
+        checkError();
+    }
+
+    /**
+     * Writes all buffered data, stops the writer thread and closes the stream.
+     */
+    @Override
+    public void close() throws PDKRuntimeException {
+        if (closed) return;
+        closed = true;
+        try {
+            end(true);
+        } finally {
+            if (writer.isAlive()) put(new Chunk(null, 0, null, true));
+            try {
+                outputStream.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package pdk.util.io;
+
+import pdk.util.exception.PDKRuntimeException;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * An {@link Input} decoding the base64 text of an XML element, optionally zlib compressed, such as the
+ * {@code <binary>} element of a mzML binary data array.
+ * <p>
+ * The characters are pulled from the {@link XMLStreamReader} with
+ * {@link XMLStreamReader#getTextCharacters(int, char[], int, int)} into a reusable buffer, decoded in place into a
+ * reusable byte buffer, and inflated directly into the buffer of this Input, so that
+ * {@link #readDoubles(double[], int, int)} and {@link #readFloats(float[], int, int)} fill the caller's array without
+ * any intermediate {@code String} or {@code byte[]} per element. Values are little endian, as in mzML.
+ * <p>
+ * An instance can be reused for any number of elements, see {@link #setReader(XMLStreamReader, boolean)}. The reader is
+ * dropped by {@link #finish()} or {@link #clearReader()}, so that an instance kept by a thread does not retain the
+ * document.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 17 Oct 2026, 10:40 AM
+ */
+public class BinaryDataInput extends Input {
+
+    private static final int[] BASE64 = new int[128];
+
+    static {
+        Arrays.fill(BASE64, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++)
+            BASE64[alphabet.charAt(i)] = i;
+        BASE64['='] = -2;
+        BASE64[' '] = -3;
+        BASE64['\n'] = -3;
+        BASE64['\r'] = -3;
+        BASE64['\t'] = -3;
+    }
+
+    private final Inflater inflater = new Inflater();
+    private final char[] text;
+    private final byte[] decoded;
+    private int decodedPosition;
+    private int decodedLength;
+
+    private XMLStreamReader reader;
+    private boolean zlib;
+    /**
+     * offset in the text of the current character event
+     */
+    private int textOffset;
+    /**
+     * true when the end tag of the element is reached
+     */
+    private boolean textEnd;
+    /**
+     * base64 bits not yet decoded, and their number of characters
+     */
+    private int bits;
+    private int bitCount;
+    private boolean padded;
+
+    /**
+     * Creates an Input decoding 8192 characters at a time, with a buffer size of 4096.
+     */
+    public BinaryDataInput() {
+        this(8192, 4096);
+    }
+
+    /**
+     * Creates an Input.
+     *
+     * @param textSize   number of characters decoded at a time
+     * @param bufferSize size of the buffer used to read primitive values
+     */
+    public BinaryDataInput(int textSize, int bufferSize) {
+        super(bufferSize);
+        if (textSize < 4) throw new IllegalArgumentException("textSize must be >= 4: " + textSize);
+        this.text = new char[textSize];
+        this.decoded = new byte[textSize / 4 * 3 + 3];
+    }
+
+    /**
+     * Starts decoding an element. The reader must be at the start tag of the element, it is moved to the end tag as the
+     * values are read, or by {@link #finish()}.
+     *
+     * @param reader reader at the start tag of the element
+     * @param zlib   true if the decoded bytes are zlib compressed
+     */
+    public void setReader(XMLStreamReader reader, boolean zlib) {
+        if (reader.getEventType() != XMLStreamConstants.START_ELEMENT)
+            throw new IllegalStateException("The reader must be at a start element.");
+        this.reader = reader;
+        this.zlib = zlib;
+        inflater.reset();
+        textOffset = -1;
+        textEnd = false;
+        bits = 0;
+        bitCount = 0;
+        padded = false;
+        decodedPosition = 0;
+        decodedLength = 0;
+        position = 0;
+        limit = 0;
+        total = 0;
+    }
+
+    /**
+     * Not supported, the buffer is managed by this Input.
+     */
+    @Override
+    public void setBuffer(byte[] bytes, int offset, int count) {
+        throw new UnsupportedOperationException("BinaryDataInput does not support setBuffer.");
+    }
+
+    /**
+     * Not supported, this Input reads from an {@link XMLStreamReader}.
+     */
+    @Override
+    public void setInputStream(InputStream inputStream) {
+        throw new UnsupportedOperationException("BinaryDataInput does not support setInputStream.");
+    }
+
+    /**
+     * Skips the undecoded text, moves the reader to the end tag of the element and drops the reader.
+     */
+    public void finish() throws PDKRuntimeException {
+        if (reader == null) return;
+        try {
+            while (!textEnd) {
+                if (reader.next() == XMLStreamConstants.END_ELEMENT) textEnd = true;
+            }
+        } catch (XMLStreamException ex) {
+            throw new PDKRuntimeException(ex);
+        } finally {
+            clearReader();
+        }
+    }
+
+    /**
+     * Drops the reader without moving it, e.g. after an error, the remaining bytes are discarded.
+     */
+    public void clearReader() {
+        reader = null;
+        textEnd = true;
+        position = limit;
+        decodedLength = decodedPosition;
+    }
+
+    @Override
+    protected int fill(byte[] buffer, int offset, int count) throws PDKRuntimeException {
+        if (reader == null) return -1;
+        if (!zlib) {
+            if (decodedPosition == decodedLength && !decode()) return -1;
+            int n = Math.min(count, decodedLength - decodedPosition);
+            System.arraycopy(decoded, decodedPosition, buffer, offset, n);
+            decodedPosition += n;
+            return n;
+        }
+        try {
+            while (true) {
+                int n = inflater.inflate(buffer, offset, count);
+                if (n > 0) return n;
+                if (inflater.finished()) return -1;
+                if (inflater.needsDictionary()) throw new PDKRuntimeException("zlib data needs a preset dictionary.");
+                if (!decode()) return -1;
+                inflater.setInput(decoded, 0, decodedLength);
+            }
+        } catch (DataFormatException ex) {
+            throw new PDKRuntimeException(ex);
+        }
+    }
+
+    /**
+     * Decodes the next characters of the element.
+     *
+     * @return false at the end of the element
+     */
+    private boolean decode() {
+        decodedPosition = 0;
+        decodedLength = 0;
+        try {
+            while (decodedLength == 0) {
+                if (textEnd) return false;
+                if (textOffset < 0) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.END_ELEMENT) {
+                        textEnd = true;
+                        // the padding is optional
+                        if (bitCount != 0) endQuantum();
+                        return decodedLength > 0;
+                    }
+                    if (event != XMLStreamConstants.CHARACTERS && event != XMLStreamConstants.CDATA
+                            && event != XMLStreamConstants.SPACE) continue;
+                    textOffset = 0;
+                }
+                int n = reader.getTextCharacters(textOffset, text, 0, text.length);
+                if (n == 0) {
+                    textOffset = -1;
+                    continue;
+                }
+                textOffset += n;
+                decodeChars(n);
+            }
+            return true;
+        } catch (XMLStreamException ex) {
+            throw new PDKRuntimeException(ex);
+        }
+    }
+
+    private void decodeChars(int count) {
+        for (int i = 0; i < count; i++) {
+            char c = text[i];
+            int value = c < 128 ? BASE64[c] : -1;
+            if (value >= 0) {
+                if (padded) throw new PDKRuntimeException("Invalid base64 text, data after padding.");
+                bits = bits << 6 | value;
+                if (++bitCount == 4) {
+                    decoded[decodedLength++] = (byte) (bits >> 16);
+                    decoded[decodedLength++] = (byte) (bits >> 8);
+                    decoded[decodedLength++] = (byte) bits;
+                    bits = 0;
+                    bitCount = 0;
+                }
+            } else if (value == -2) {
+                // '=' ends the text
+                if (!padded) {
+                    endQuantum();
+                    padded = true;
+                }
+            } else if (value == -1) {
+                throw new PDKRuntimeException("Invalid base64 character: " + c);
+            }
+        }
+    }
+
+    /**
+     * Decodes the last quantum, which has 2 or 3 characters.
+     */
+    private void endQuantum() {
+        if (bitCount == 2) {
+            decoded[decodedLength++] = (byte) (bits >> 4);
+        } else if (bitCount == 3) {
+            decoded[decodedLength++] = (byte) (bits >> 10);
+            decoded[decodedLength++] = (byte) (bits >> 2);
+        } else {
+            throw new PDKRuntimeException("Invalid base64 text, " + bitCount + " characters in the last quantum.");
+        }
+        bits = 0;
+        bitCount = 0;
+    }
+
+    /**
+     * Releases the inflater.
+     */
+    @Override
+    public void close() throws PDKRuntimeException {
+        inflater.end();
+        reader = null;
+        super.close();
+    }
+}
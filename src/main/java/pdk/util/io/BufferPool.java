@@ -0,0 +1,191 @@
+package pdk.util.io;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pool of byte[] buffers in power of two size classes, used by {@link Output#borrow()} and
+ * {@link Input#borrow(java.io.InputStream)}.
+ * <p>
+ * Each size class is a fixed array of slots, claimed and filled with atomic operations. A thread starts probing at a
+ * slot derived from its id, so threads rarely contend, and no lock is held, so virtual threads are never pinned and
+ * share the pooled buffers whatever carrier thread they run on. Buffers are retained up to
+ * {@link #maxRetainedBytes()} in total; above that, released buffers are left to the garbage collector.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 7:20 PM
+ */
+public final class BufferPool {
+
+    /**
+     * smallest pooled buffer, 1 KB.
+     */
+    public static final int MIN_SIZE = 1 << 10;
+    /**
+     * largest pooled buffer, 16 MB.
+     */
+    public static final int MAX_SIZE = 1 << 24;
+
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_SIZE);
+    private static final int CLASS_COUNT = Integer.numberOfTrailingZeros(MAX_SIZE) - MIN_SHIFT + 1;
+
+    private static final BufferPool DEFAULT = new BufferPool(64L << 20, Runtime.getRuntime().availableProcessors() * 2);
+
+    private final AtomicReferenceArray<byte[]>[] classes;
+    private final int slots;
+    private final long maxRetainedBytes;
+    private final AtomicLong retainedBytes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a pool.
+     *
+     * @param maxRetainedBytes maximum number of bytes of the buffers kept in the pool
+     * @param slots            maximum number of buffers kept for each size class
+     */
+    @SuppressWarnings("unchecked")
+    public BufferPool(long maxRetainedBytes, int slots) {
+        if (maxRetainedBytes < 0)
+            throw new IllegalArgumentException("maxRetainedBytes must be >= 0: " + maxRetainedBytes);
+        if (slots < 1) throw new IllegalArgumentException("slots must be >= 1: " + slots);
+        this.maxRetainedBytes = maxRetainedBytes;
+        this.slots = slots;
+        this.classes = new AtomicReferenceArray[CLASS_COUNT];
+        for (int i = 0; i < CLASS_COUNT; i++)
+            classes[i] = new AtomicReferenceArray<>(slots);
+    }
+
+    /**
+     * Returns the pool shared by {@link Output#borrow()} and {@link Input#borrow(java.io.InputStream)}, which retains
+     * up to 64 MB.
+     *
+     * @return the default pool
+     */
+    public static BufferPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns a buffer of at least the given size. Sizes larger than {@link #MAX_SIZE} are not pooled.
+     *
+     * @param size minimum buffer size
+     * @return a buffer from the pool, or a new one
+     */
+    public byte[] acquire(int size) {
+        if (size > MAX_SIZE) {
+            misses.increment();
+            return new byte[size];
+        }
+        int index = classOf(size);
+        AtomicReferenceArray<byte[]> bucket = classes[index];
+        int start = probe();
+        for (int i = 0; i < slots; i++) {
+            int slot = (start + i) % slots;
+            if (bucket.getPlain(slot) == null) continue;
+            byte[] buffer = bucket.getAndSet(slot, null);
+            if (buffer != null) {
+                retainedBytes.addAndGet(-buffer.length);
+                hits.increment();
+                return buffer;
+            }
+        }
+        misses.increment();
+        return new byte[MIN_SIZE << index];
+    }
+
+    /**
+     * Returns a buffer to the pool. It is dropped if it is smaller than {@link #MIN_SIZE}, larger than
+     * {@link #MAX_SIZE} or if the pool is full. The buffer must not be used after it is released.
+     *
+     * @param buffer buffer to release
+     */
+    public void release(byte[] buffer) {
+        int length = buffer.length;
+        if (length < MIN_SIZE || length > MAX_SIZE) return;
+        if (retainedBytes.addAndGet(length) > maxRetainedBytes) {
+            retainedBytes.addAndGet(-length);
+            return;
+        }
+        // a buffer serves the largest class not greater than its length
+        int index = 31 - Integer.numberOfLeadingZeros(length) - MIN_SHIFT;
+        AtomicReferenceArray<byte[]> bucket = classes[index];
+        int start = probe();
+        for (int i = 0; i < slots; i++) {
+            int slot = (start + i) % slots;
+            if (bucket.getPlain(slot) == null && bucket.compareAndSet(slot, null, buffer)) return;
+        }
+        retainedBytes.addAndGet(-length);
+    }
+
+    private static int classOf(int size) {
+        if (size <= MIN_SIZE) return 0;
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+    }
+
+    private int probe() {
+        long id = Thread.currentThread().threadId();
+        return (int) ((id ^ (id >>> 16)) & 0x7FFFFFFF) % slots;
+    }
+
+    /**
+     * Returns the number of bytes of the buffers kept in the pool.
+     *
+     * @return retained bytes
+     */
+    public long retainedBytes() {
+        return retainedBytes.get();
+    }
+
+    /**
+     * Returns the maximum number of bytes of the buffers kept in the pool.
+     *
+     * @return maximum retained bytes
+     */
+    public long maxRetainedBytes() {
+        return maxRetainedBytes;
+    }
+
+    /**
+     * Returns the number of {@link #acquire(int)} served from the pool.
+     *
+     * @return number of hits
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of {@link #acquire(int)} which allocated a new buffer.
+     *
+     * @return number of misses
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the fraction of {@link #acquire(int)} served from the pool, 0 if nothing has been acquired.
+     *
+     * @return hit rate
+     */
+    public double hitRate() {
+        long hits = hits();
+        long total = hits + misses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Drops all pooled buffers.
+     */
+    public void clear() {
+        for (AtomicReferenceArray<byte[]> bucket : classes) {
+            for (int i = 0; i < slots; i++) {
+                byte[] buffer = bucket.getAndSet(i, null);
+                if (buffer != null) retainedBytes.addAndGet(-buffer.length);
+            }
+        }
+    }
+}
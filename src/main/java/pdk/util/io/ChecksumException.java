@@ -0,0 +1,35 @@
+package pdk.util.io;
+
+import pdk.util.exception.PDKRuntimeException;
+
+/**
+ * Thrown by {@link ChecksumInput} when a block does not match its checksum.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 10:50 PM
+ */
+public class ChecksumException extends PDKRuntimeException {
+
+    private final long blockOffset;
+
+    /**
+     * Constructor for ChecksumException.
+     *
+     * @param msg         message
+     * @param blockOffset offset of the corrupted block frame in the stream
+     */
+    public ChecksumException(String msg, long blockOffset) {
+        super(msg);
+        this.blockOffset = blockOffset;
+    }
+
+    /**
+     * Returns the offset of the corrupted block frame in the stream.
+     *
+     * @return block offset
+     */
+    public long getBlockOffset() {
+        return blockOffset;
+    }
+}
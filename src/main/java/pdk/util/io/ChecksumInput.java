@@ -0,0 +1,124 @@
+package pdk.util.io;
+
+import pdk.util.exception.PDKRuntimeException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32C;
+
+/**
+ * An {@link Input} reading the block frames written by {@link ChecksumOutput}.
+ * <p>
+ * Each block is verified against its CRC32C before any of its bytes is returned, so a corrupted file fails with a
+ * {@link ChecksumException} at the start of the bad block, instead of garbage values or a late
+ * {@link BufferUnderflowException}. The exception gives the offset of the block frame in the stream, e.g. to fetch the
+ * data again.
+ * <p>
+ * The block length is read before the block can be verified, so it is bounded by the block size of the
+ * {@link ChecksumOutput}, 64 KB by default: a corrupted length fails with a {@link ChecksumException} instead of
+ * allocating up to 2 GB.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 11:05 PM
+ */
+public class ChecksumInput extends Input {
+
+    private final CRC32C crc = new CRC32C();
+    private final int maxBlockSize;
+    private final byte[] header = new byte[8];
+    private byte[] block = new byte[0];
+    private int blockPosition;
+    private int blockLength;
+    /**
+     * offset in the stream of the next frame
+     */
+    private long frameOffset;
+
+    /**
+     * Creates an Input with a buffer size of 4096, reading blocks of at most 64 KB.
+     *
+     * @param inputStream stream of block frames
+     */
+    public ChecksumInput(InputStream inputStream) {
+        this(inputStream, 4096);
+    }
+
+    /**
+     * Creates an Input reading blocks of at most 64 KB, the default block size of {@link ChecksumOutput}.
+     *
+     * @param inputStream stream of block frames
+     * @param bufferSize  size of the buffer used to read primitive values and strings
+     */
+    public ChecksumInput(InputStream inputStream, int bufferSize) {
+        this(inputStream, bufferSize, 1 << 16);
+    }
+
+    /**
+     * Creates an Input.
+     *
+     * @param inputStream  stream of block frames
+     * @param bufferSize   size of the buffer used to read primitive values and strings
+     * @param maxBlockSize block size of the {@link ChecksumOutput}, larger blocks are rejected
+     */
+    public ChecksumInput(InputStream inputStream, int bufferSize, int maxBlockSize) {
+        super(inputStream, bufferSize);
+        if (maxBlockSize < 1) throw new IllegalArgumentException("maxBlockSize must be >= 1: " + maxBlockSize);
+        this.maxBlockSize = maxBlockSize;
+    }
+
+    /**
+     * Not supported, the buffer is managed by this Input.
+     */
+    @Override
+    public void setBuffer(byte[] bytes, int offset, int count) {
+        throw new UnsupportedOperationException("ChecksumInput does not support setBuffer.");
+    }
+
+    @Override
+    public void setInputStream(InputStream inputStream) {
+        super.setInputStream(inputStream);
+        blockPosition = 0;
+        blockLength = 0;
+        frameOffset = 0;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return limit - position + blockLength - blockPosition;
+    }
+
+    @Override
+    protected int fill(byte[] buffer, int offset, int count) throws PDKRuntimeException {
+        if (blockPosition == blockLength && !nextBlock()) return -1;
+        int n = Math.min(count, blockLength - blockPosition);
+        System.arraycopy(block, blockPosition, buffer, offset, n);
+        blockPosition += n;
+        return n;
+    }
+
+    private boolean nextBlock() {
+        try {
+            int n = inputStream.readNBytes(header, 0, 8);
+            if (n == 0) return false;
+            if (n < 8) throw new ChecksumException("Truncated block header at offset " + frameOffset, frameOffset);
+            int length = (int) INT_VIEW.get(header, 0);
+            int checksum = (int) INT_VIEW.get(header, 4);
+            if (length <= 0 || length > maxBlockSize)
+                throw new ChecksumException("Invalid block length " + length + " at offset " + frameOffset, frameOffset);
+            if (block.length < length) block = new byte[length];
+            if (inputStream.readNBytes(block, 0, length) < length)
+                throw new ChecksumException("Truncated block at offset " + frameOffset, frameOffset);
+            crc.reset();
+            crc.update(block, 0, length);
+            if ((int) crc.getValue() != checksum)
+                throw new ChecksumException("Checksum mismatch in block at offset " + frameOffset, frameOffset);
+            blockPosition = 0;
+            blockLength = length;
+            frameOffset += 8 + length;
+            return true;
+        } catch (IOException ex) {
+            throw new PDKRuntimeException(ex);
+        }
+    }
+}
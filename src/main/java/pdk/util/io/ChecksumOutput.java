@@ -0,0 +1,82 @@
+package pdk.util.io;
+
+import pdk.util.exception.PDKRuntimeException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32C;
+
+import static pdk.util.io.Input.INT_VIEW;
+
+/**
+ * An {@link Output} that writes each flushed block with a CRC32C checksum, verified by {@link ChecksumInput}.
+ * <p>
+ * Each flush of the buffer writes a frame:
+ * <pre>
+ * int    block length, little endian
+ * int    CRC32C of the block, little endian
+ * byte[] block
+ * </pre>
+ * {@link CRC32C} is computed with the CPU instructions where available, so the checksum costs little compared with
+ * serialization. A {@link ChecksumInput} rejects blocks larger than its maximum block size, so a block size other than
+ * the default must be given to the reader as well.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 10:55 PM
+ */
+public class ChecksumOutput extends Output {
+
+    private final CRC32C crc = new CRC32C();
+    private final byte[] header = new byte[8];
+
+    /**
+     * Creates an Output with blocks of 64 KB.
+     *
+     * @param outputStream stream to write the frames
+     */
+    public ChecksumOutput(OutputStream outputStream) {
+        this(outputStream, 1 << 16);
+    }
+
+    /**
+     * Creates an Output.
+     *
+     * @param outputStream stream to write the frames
+     * @param blockSize    size of the buffer, the maximum size of a block
+     */
+    public ChecksumOutput(OutputStream outputStream, int blockSize) {
+        super(outputStream, blockSize);
+    }
+
+    /**
+     * Not supported, the buffer is managed by this Output.
+     */
+    @Override
+    public void setBuffer(byte[] buffer, int maxBufferSize) {
+        throw new UnsupportedOperationException("ChecksumOutput does not support setBuffer.");
+    }
+
+    /**
+     * Writes the buffered bytes as a block frame and flushes the stream.
+     */
+    @Override
+    public void flush() throws PDKRuntimeException {
+        if (outputStream == null) return;
+        try {
+            if (position > 0) {
+                crc.reset();
+                crc.update(buffer, 0, position);
+                INT_VIEW.set(header, 0, position);
+                INT_VIEW.set(header, 4, (int) crc.getValue());
+                outputStream.write(header);
+                outputStream.write(buffer, 0, position);
+            }
+            outputStream.flush();
+        } catch (IOException ex) {
+            throw new PDKRuntimeException(ex);
+        }
+        total += position;
+        position = 0;
+    }
+}
@@ -0,0 +1,67 @@
+package pdk.util.io;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A column of a file written by {@link ColumnarWriter}.
+ *
+ * @param name     column name
+ * @param type     type of the values
+ * @param encoding encoding of the column chunks
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 9:10 PM
+ */
+public record Column(String name, Type type, Encoding encoding) {
+
+    /**
+     * Type of the values of a column.
+     */
+    public enum Type {
+        INT, LONG, DOUBLE, STRING
+    }
+
+    /**
+     * Encoding of the values of a column chunk.
+     */
+    public enum Encoding {
+        /**
+         * fixed size little endian values, or inline strings
+         */
+        PLAIN,
+        /**
+         * zigzag variable length values, for INT and LONG
+         */
+        VARINT,
+        /**
+         * zigzag variable length differences to the previous value, for INT and LONG
+         */
+        DELTA,
+        /**
+         * distinct values of the chunk followed by their ids, for STRING
+         */
+        DICTIONARY
+    }
+
+    public Column {
+        requireNonNull(name);
+        requireNonNull(type);
+        requireNonNull(encoding);
+        boolean valid = switch (encoding) {
+            case PLAIN -> true;
+            case VARINT, DELTA -> type == Type.INT || type == Type.LONG;
+            case DICTIONARY -> type == Type.STRING;
+        };
+        if (!valid) throw new IllegalArgumentException(encoding + " encoding is not supported for " + type + " column.");
+    }
+
+    /**
+     * Creates a column with PLAIN encoding.
+     *
+     * @param name column name
+     * @param type type of the values
+     */
+    public Column(String name, Type type) {
+        this(name, type, Encoding.PLAIN);
+    }
+}
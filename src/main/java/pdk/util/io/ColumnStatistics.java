@@ -0,0 +1,60 @@
+package pdk.util.io;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Minimum and maximum of the values of a column chunk, used to skip the row groups which cannot match a query.
+ * <p>
+ * The bounds are {@link Integer}, {@link Long}, {@link Double} or {@link String} according to the column type. NaN
+ * doubles and null strings are not counted; the bounds are NaN or null if the chunk has no other value.
+ *
+ * @param min smallest value of the chunk
+ * @param max largest value of the chunk
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 9:15 PM
+ */
+public record ColumnStatistics(@Nullable Object min, @Nullable Object max) {
+
+    /**
+     * Returns true if the chunk may contain a value between from and to, inclusive. For a DOUBLE column, this is
+     * {@link #overlaps(double, double)}.
+     *
+     * @param from lower bound
+     * @param to   upper bound
+     * @return false if no value of the chunk is in the range
+     */
+    public boolean overlaps(long from, long to) {
+        if (min instanceof Double) return overlaps((double) from, (double) to);
+        if (!(min instanceof Number lo) || !(max instanceof Number hi))
+            throw new IllegalStateException("Not a numeric column.");
+        return lo.longValue() <= to && hi.longValue() >= from;
+    }
+
+    /**
+     * Returns true if the chunk may contain a DOUBLE value between from and to, inclusive.
+     *
+     * @param from lower bound
+     * @param to   upper bound
+     * @return false if no value of the chunk is in the range
+     */
+    public boolean overlaps(double from, double to) {
+        if (!(min instanceof Double lo) || !(max instanceof Double hi))
+            throw new IllegalStateException("Not a DOUBLE column.");
+        return lo <= to && hi >= from;
+    }
+
+    /**
+     * Returns true if the chunk may contain a STRING value between from and to, inclusive.
+     *
+     * @param from lower bound
+     * @param to   upper bound
+     * @return false if no value of the chunk is in the range
+     */
+    public boolean overlaps(String from, String to) {
+        if (min == null) return false;
+        if (!(min instanceof String lo) || !(max instanceof String hi))
+            throw new IllegalStateException("Not a STRING column.");
+        return lo.compareTo(to) <= 0 && hi.compareTo(from) >= 0;
+    }
+}
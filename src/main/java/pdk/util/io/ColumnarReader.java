@@ -0,0 +1,288 @@
+package pdk.util.io;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import pdk.util.exception.PDKRuntimeException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Reads a file written by {@link ColumnarWriter}.
+ * <p>
+ * The file is memory-mapped and only the footer is read when the reader is opened. Each column chunk is read directly
+ * from its offset, so the columns which are not read are never touched. Row groups can be skipped with
+ * {@link #filterRowGroups(int, Predicate)} on the chunk statistics, e.g. to read the scores of the PSMs in a mass
+ * range:
+ * <pre>{@code
+ * int mass = reader.columnIndex("mass");
+ * int score = reader.columnIndex("score");
+ * for (int group : reader.filterRowGroups(mass, s -> s.overlaps(1000.0, 1010.0))) {
+ *     double[] masses = reader.readDoubles(group, mass);
+ *     double[] scores = reader.readDoubles(group, score);
+ *     ...
+ * }
+ * }</pre>
+ * A reader is not thread-safe, as the chunks are decoded from a single {@link MappedInput}.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 9:45 PM
+ */
+public class ColumnarReader implements AutoCloseable {
+
+    private final MappedInput input;
+    private final List<Column> columns;
+    private final int[] rowCounts;
+    /**
+     * chunk offsets by row group and column
+     */
+    private final long[][] offsets;
+    private final ColumnStatistics[][] statistics;
+
+    /**
+     * Opens a columnar file with a buffer size of 4096.
+     *
+     * @param file file to read
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public ColumnarReader(Path file) throws IOException {
+        this(file, 4096);
+    }
+
+    /**
+     * Opens a columnar file.
+     *
+     * @param file       file to read
+     * @param bufferSize size of the buffer used to read primitive values and strings
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public ColumnarReader(Path file, int bufferSize) throws IOException {
+        this.input = new MappedInput(file, bufferSize);
+        try {
+            long size = input.size();
+            if (size < 4 + ColumnarWriter.TRAILER_SIZE || input.readInt() != ColumnarWriter.MAGIC)
+                throw new PDKRuntimeException("Not a columnar file: " + file);
+            input.seek(size - ColumnarWriter.TRAILER_SIZE);
+            long footerOffset = input.readLong();
+            if (input.readInt() != ColumnarWriter.MAGIC || footerOffset < 4
+                    || footerOffset > size - ColumnarWriter.TRAILER_SIZE)
+                throw new PDKRuntimeException("Corrupt columnar file footer: " + file);
+
+            input.seek(footerOffset);
+            Column.Type[] types = Column.Type.values();
+            Column.Encoding[] encodings = Column.Encoding.values();
+            Column[] columns = new Column[input.readVarInt(true)];
+            for (int i = 0; i < columns.length; i++) {
+                String name = input.readString();
+                columns[i] = new Column(name, types[input.readByte()], encodings[input.readByte()]);
+            }
+            this.columns = List.of(columns);
+
+            int groups = input.readVarInt(true);
+            this.rowCounts = new int[groups];
+            this.offsets = new long[groups][columns.length];
+            this.statistics = new ColumnStatistics[groups][columns.length];
+            for (int g = 0; g < groups; g++) {
+                rowCounts[g] = input.readVarInt(true);
+                for (int i = 0; i < columns.length; i++) {
+                    offsets[g][i] = input.readVarLong(true);
+                    Object min = readBound(columns[i].type());
+                    Object max = readBound(columns[i].type());
+                    statistics[g][i] = new ColumnStatistics(min, max);
+                }
+            }
+        } catch (RuntimeException ex) {
+            input.close();
+            throw ex;
+        }
+    }
+
+    private Object readBound(Column.Type type) {
+        return switch (type) {
+            case INT -> input.readVarInt(false);
+            case LONG -> input.readVarLong(false);
+            case DOUBLE -> input.readDouble();
+            case STRING -> input.readString();
+        };
+    }
+
+    /**
+     * Returns the columns of the file.
+     *
+     * @return the columns
+     */
+    public List<Column> columns() {
+        return columns;
+    }
+
+    /**
+     * Returns the index of the column with the given name.
+     *
+     * @param name column name
+     * @return column index
+     * @throws IllegalArgumentException if there is no such column
+     */
+    public int columnIndex(String name) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).name().equals(name)) return i;
+        }
+        throw new IllegalArgumentException("No column named " + name + ".");
+    }
+
+    /**
+     * Returns the number of row groups.
+     *
+     * @return number of row groups
+     */
+    public int rowGroupCount() {
+        return rowCounts.length;
+    }
+
+    /**
+     * Returns the number of rows of the given row group.
+     *
+     * @param group row group index
+     * @return number of rows
+     */
+    public int rowCount(int group) {
+        return rowCounts[group];
+    }
+
+    /**
+     * Returns the number of rows of the file.
+     *
+     * @return number of rows
+     */
+    public long rowCount() {
+        long count = 0;
+        for (int rows : rowCounts)
+            count += rows;
+        return count;
+    }
+
+    /**
+     * Returns the statistics of a column chunk.
+     *
+     * @param group  row group index
+     * @param column column index
+     * @return the chunk statistics
+     */
+    public ColumnStatistics statistics(int group, int column) {
+        return statistics[group][column];
+    }
+
+    /**
+     * Returns the row groups whose chunk of the given column matches the predicate. The other row groups need not be
+     * read.
+     *
+     * @param column    column index
+     * @param predicate predicate on the chunk statistics, false if the chunk has no matching value
+     * @return indexes of the matching row groups
+     */
+    public int[] filterRowGroups(int column, Predicate<ColumnStatistics> predicate) {
+        IntArrayList groups = new IntArrayList();
+        for (int g = 0; g < rowCounts.length; g++) {
+            if (predicate.test(statistics[g][column])) groups.add(g);
+        }
+        return groups.toIntArray();
+    }
+
+    private Column.Encoding seek(int group, int column, Column.Type type) {
+        Column c = columns.get(column);
+        if (c.type() != type) throw new IllegalArgumentException("Column " + c.name() + " is not " + type + ".");
+        input.seek(offsets[group][column]);
+        return c.encoding();
+    }
+
+    /**
+     * Reads the chunk of an INT column.
+     *
+     * @param group  row group index
+     * @param column column index
+     * @return the values of the row group
+     */
+    public int[] readInts(int group, int column) throws PDKRuntimeException {
+        Column.Encoding encoding = seek(group, column, Column.Type.INT);
+        int rows = rowCounts[group];
+        return switch (encoding) {
+            case VARINT -> input.readInts(rows, false);
+            case DELTA -> input.readDeltaInts(rows);
+            default -> input.readInts(rows);
+        };
+    }
+
+    /**
+     * Reads the chunk of a LONG column.
+     *
+     * @param group  row group index
+     * @param column column index
+     * @return the values of the row group
+     */
+    public long[] readLongs(int group, int column) throws PDKRuntimeException {
+        Column.Encoding encoding = seek(group, column, Column.Type.LONG);
+        int rows = rowCounts[group];
+        return switch (encoding) {
+            case VARINT -> input.readLongs(rows, false);
+            case DELTA -> {
+                long[] array = new long[rows];
+                long previous = 0;
+                for (int i = 0; i < rows; i++) {
+                    previous += input.readVarLong(false);
+                    array[i] = previous;
+                }
+                yield array;
+            }
+            default -> input.readLongs(rows);
+        };
+    }
+
+    /**
+     * Reads the chunk of a DOUBLE column.
+     *
+     * @param group  row group index
+     * @param column column index
+     * @return the values of the row group
+     */
+    public double[] readDoubles(int group, int column) throws PDKRuntimeException {
+        seek(group, column, Column.Type.DOUBLE);
+        return input.readDoubles(rowCounts[group]);
+    }
+
+    /**
+     * Reads the chunk of a STRING column.
+     *
+     * @param group  row group index
+     * @param column column index
+     * @return the values of the row group
+     */
+    public String[] readStrings(int group, int column) throws PDKRuntimeException {
+        Column.Encoding encoding = seek(group, column, Column.Type.STRING);
+        String[] array = new String[rowCounts[group]];
+        if (encoding == Column.Encoding.DICTIONARY) {
+            String[] dictionary = new String[input.readVarInt(true) + 1];
+            for (int i = 1; i < dictionary.length; i++)
+                dictionary[i] = input.readString();
+            int[] ids = input.readVByteInts(array.length, true);
+            for (int i = 0; i < array.length; i++) {
+                int id = ids[i];
+                if (id < 0 || id >= dictionary.length)
+                    throw new PDKRuntimeException("Invalid dictionary id " + id + " in column " + columns.get(column).name());
+                array[i] = dictionary[id];
+            }
+        } else {
+            for (int i = 0; i < array.length; i++)
+                array[i] = input.readString();
+        }
+        return array;
+    }
+
+    /**
+     * Unmaps and closes the file.
+     */
+    @Override
+    public void close() throws PDKRuntimeException {
+        input.close();
+    }
+}
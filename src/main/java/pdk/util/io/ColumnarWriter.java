@@ -0,0 +1,321 @@
+package pdk.util.io;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import pdk.util.exception.PDKRuntimeException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes rows to a columnar file, read by {@link ColumnarReader}.
+ * <p>
+ * Rows are buffered and written in row groups: each column of a row group is written as a contiguous chunk with the
+ * encoding of the column, so a reader reads only the columns it needs. The footer holds the schema, the offset of each
+ * chunk and its {@link ColumnStatistics}. The file layout is:
+ * <pre>
+ * int    magic
+ * row groups, each a chunk per column
+ * footer:
+ *   varint  column count
+ *   columns: string name, byte type, byte encoding
+ *   varint  row group count
+ *   row groups: varint row count, then for each column varlong chunk offset, min and max
+ * long   footer offset
+ * int    magic
+ * </pre>
+ * A row is set with the {@code set} methods and ended with {@link #endRow()}; columns not set are 0 or null. The footer
+ * is written by {@link #close()}.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 9:20 PM
+ */
+public class ColumnarWriter implements AutoCloseable {
+
+    /**
+     * default number of rows of a row group
+     */
+    public static final int DEFAULT_ROW_GROUP_SIZE = 1 << 16;
+    /**
+     * magic number at the start and at the end of a columnar file, "PDKC"
+     */
+    static final int MAGIC = 0x434B4450;
+    /**
+     * size of the trailer: footer offset and magic
+     */
+    static final int TRAILER_SIZE = 12;
+
+    /**
+     * offsets and statistics of the chunks of a row group
+     */
+    private record RowGroup(int rows, long[] offsets, ColumnStatistics[] statistics) {}
+
+    private final Output output;
+    private final Column[] columns;
+    private final int rowGroupSize;
+    /**
+     * buffered values of each column, an int[], long[], double[] or String[]
+     */
+    private final Object[] values;
+    private final List<RowGroup> rowGroups = new ArrayList<>();
+    private final Object2IntOpenHashMap<String> dictionary = new Object2IntOpenHashMap<>();
+    private final ObjectArrayList<String> dictionaryValues = new ObjectArrayList<>();
+    private int[] ids;
+    private int rows;
+    private boolean closed;
+
+    /**
+     * Creates a writer with row groups of {@link #DEFAULT_ROW_GROUP_SIZE} rows.
+     *
+     * @param file    file to write, replaced if it exists
+     * @param columns columns of the file
+     * @throws IOException if the file cannot be created
+     */
+    public ColumnarWriter(Path file, List<Column> columns) throws IOException {
+        this(file, columns, DEFAULT_ROW_GROUP_SIZE);
+    }
+
+    /**
+     * Creates a writer.
+     *
+     * @param file         file to write, replaced if it exists
+     * @param columns      columns of the file
+     * @param rowGroupSize number of rows of a row group
+     * @throws IOException if the file cannot be created
+     */
+    public ColumnarWriter(Path file, List<Column> columns, int rowGroupSize) throws IOException {
+        if (columns.isEmpty()) throw new IllegalArgumentException("columns cannot be empty.");
+        if (rowGroupSize < 1) throw new IllegalArgumentException("rowGroupSize must be >= 1: " + rowGroupSize);
+        this.columns = columns.toArray(new Column[0]);
+        this.rowGroupSize = rowGroupSize;
+        this.values = new Object[this.columns.length];
+        for (int i = 0; i < this.columns.length; i++) {
+            values[i] = switch (this.columns[i].type()) {
+                case INT -> new int[rowGroupSize];
+                case LONG -> new long[rowGroupSize];
+                case DOUBLE -> new double[rowGroupSize];
+                case STRING -> new String[rowGroupSize];
+            };
+        }
+        dictionary.defaultReturnValue(-1);
+        this.output = new Output(Files.newOutputStream(file), 1 << 16);
+        output.writeInt(MAGIC);
+    }
+
+    /**
+     * Returns the columns of the file.
+     *
+     * @return the columns
+     */
+    public List<Column> columns() {
+        return List.of(columns);
+    }
+
+    private Object values(int column, Column.Type type) {
+        if (closed) throw new IllegalStateException("ColumnarWriter is closed.");
+        if (columns[column].type() != type)
+            throw new IllegalArgumentException("Column " + columns[column].name() + " is not " + type + ".");
+        return values[column];
+    }
+
+    /**
+     * Sets the value of an INT column of the current row.
+     *
+     * @param column column index
+     * @param value  value
+     */
+    public void setInt(int column, int value) {
+        ((int[]) values(column, Column.Type.INT))[rows] = value;
+    }
+
+    /**
+     * Sets the value of a LONG column of the current row.
+     *
+     * @param column column index
+     * @param value  value
+     */
+    public void setLong(int column, long value) {
+        ((long[]) values(column, Column.Type.LONG))[rows] = value;
+    }
+
+    /**
+     * Sets the value of a DOUBLE column of the current row.
+     *
+     * @param column column index
+     * @param value  value
+     */
+    public void setDouble(int column, double value) {
+        ((double[]) values(column, Column.Type.DOUBLE))[rows] = value;
+    }
+
+    /**
+     * Sets the value of a STRING column of the current row.
+     *
+     * @param column column index
+     * @param value  value, may be null
+     */
+    public void setString(int column, String value) {
+        ((String[]) values(column, Column.Type.STRING))[rows] = value;
+    }
+
+    /**
+     * Ends the current row. The row group is written when it is full.
+     */
+    public void endRow() throws PDKRuntimeException {
+        if (closed) throw new IllegalStateException("ColumnarWriter is closed.");
+        rows++;
+        if (rows == rowGroupSize) writeRowGroup();
+    }
+
+    private void writeRowGroup() {
+        long[] offsets = new long[columns.length];
+        ColumnStatistics[] statistics = new ColumnStatistics[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            offsets[i] = output.total();
+            statistics[i] = switch (columns[i].type()) {
+                case INT -> writeInts(columns[i].encoding(), (int[]) values[i]);
+                case LONG -> writeLongs(columns[i].encoding(), (long[]) values[i]);
+                case DOUBLE -> writeDoubles((double[]) values[i]);
+                case STRING -> writeStrings(columns[i].encoding(), (String[]) values[i]);
+            };
+        }
+        rowGroups.add(new RowGroup(rows, offsets, statistics));
+        rows = 0;
+    }
+
+    private ColumnStatistics writeInts(Column.Encoding encoding, int[] array) {
+        switch (encoding) {
+            case PLAIN -> output.writeInts(array, 0, rows);
+            case VARINT -> output.writeInts(array, 0, rows, false);
+            case DELTA -> output.writeDeltaInts(array, 0, rows);
+        }
+        int min = array[0], max = array[0];
+        for (int i = 1; i < rows; i++) {
+            min = Math.min(min, array[i]);
+            max = Math.max(max, array[i]);
+        }
+        Arrays.fill(array, 0, rows, 0);
+        return new ColumnStatistics(min, max);
+    }
+
+    private ColumnStatistics writeLongs(Column.Encoding encoding, long[] array) {
+        switch (encoding) {
+            case PLAIN -> output.writeLongs(array, 0, rows);
+            case VARINT -> output.writeLongs(array, 0, rows, false);
+            case DELTA -> {
+                long previous = 0;
+                for (int i = 0; i < rows; i++) {
+                    output.writeVarLong(array[i] - previous, false);
+                    previous = array[i];
+                }
+            }
+        }
+        long min = array[0], max = array[0];
+        for (int i = 1; i < rows; i++) {
+            min = Math.min(min, array[i]);
+            max = Math.max(max, array[i]);
+        }
+        Arrays.fill(array, 0, rows, 0);
+        return new ColumnStatistics(min, max);
+    }
+
+    private ColumnStatistics writeDoubles(double[] array) {
+        output.writeDoubles(array, 0, rows);
+        double min = Double.NaN, max = Double.NaN;
+        for (int i = 0; i < rows; i++) {
+            double value = array[i];
+            if (Double.isNaN(value)) continue;
+            // also true while the bound is still NaN
+            if (!(value >= min)) min = value;
+            if (!(value <= max)) max = value;
+        }
+        Arrays.fill(array, 0, rows, 0);
+        return new ColumnStatistics(min, max);
+    }
+
+    private ColumnStatistics writeStrings(Column.Encoding encoding, String[] array) {
+        if (encoding == Column.Encoding.DICTIONARY) {
+            // id 0 is null, the dictionary values are numbered from 1
+            if (ids == null) ids = new int[rowGroupSize];
+            for (int i = 0; i < rows; i++) {
+                String value = array[i];
+                if (value == null) {
+                    ids[i] = 0;
+                    continue;
+                }
+                int id = dictionary.getInt(value);
+                if (id < 0) {
+                    id = dictionaryValues.size() + 1;
+                    dictionary.put(value, id);
+                    dictionaryValues.add(value);
+                }
+                ids[i] = id;
+            }
+            output.writeVarInt(dictionaryValues.size(), true);
+            for (String value : dictionaryValues)
+                output.writeString(value);
+            output.writeVByteInts(ids, 0, rows, true);
+            dictionary.clear();
+            dictionaryValues.clear();
+        } else {
+            for (int i = 0; i < rows; i++)
+                output.writeString(array[i]);
+        }
+        String min = null, max = null;
+        for (int i = 0; i < rows; i++) {
+            String value = array[i];
+            if (value == null) continue;
+            if (min == null || value.compareTo(min) < 0) min = value;
+            if (max == null || value.compareTo(max) > 0) max = value;
+        }
+        Arrays.fill(array, 0, rows, null);
+        return new ColumnStatistics(min, max);
+    }
+
+    private void writeBound(Column.Type type, Object value) {
+        switch (type) {
+            case INT -> output.writeVarInt((Integer) value, false);
+            case LONG -> output.writeVarLong((Long) value, false);
+            case DOUBLE -> output.writeDouble((Double) value);
+            case STRING -> output.writeString((String) value);
+        }
+    }
+
+    /**
+     * Writes the last row group and the footer, and closes the file.
+     */
+    @Override
+    public void close() throws PDKRuntimeException {
+        if (closed) return;
+        try {
+            if (rows > 0) writeRowGroup();
+            closed = true;
+            long footerOffset = output.total();
+            output.writeVarInt(columns.length, true);
+            for (Column column : columns) {
+                output.writeString(column.name());
+                output.writeByte(column.type().ordinal());
+                output.writeByte(column.encoding().ordinal());
+            }
+            output.writeVarInt(rowGroups.size(), true);
+            for (RowGroup rowGroup : rowGroups) {
+                output.writeVarInt(rowGroup.rows(), true);
+                for (int i = 0; i < columns.length; i++) {
+                    output.writeVarLong(rowGroup.offsets()[i], true);
+                    writeBound(columns[i].type(), rowGroup.statistics()[i].min());
+                    writeBound(columns[i].type(), rowGroup.statistics()[i].max());
+                }
+            }
+            output.writeLong(footerOffset);
+            output.writeInt(MAGIC);
+        } finally {
+            closed = true;
+            output.close();
+        }
+    }
+}
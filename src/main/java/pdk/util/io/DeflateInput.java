@@ -0,0 +1,211 @@
+package pdk.util.io;
+
+import pdk.util.exception.PDKRuntimeException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * An {@link Input} reading the block frames written by {@link DeflateOutput}.
+ * <p>
+ * Frames are read ahead of the reader and inflated concurrently on the executor, so decompression overlaps with
+ * deserialization. At most {@code maxPending} blocks are read ahead.
+ * <p>
+ * The lengths of a frame are checked against the block size of the {@link DeflateOutput}, 256 KB by default, before
+ * anything is allocated, so a corrupt header fails instead of allocating up to 2 GB.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 4:55 PM
+ */
+public class DeflateInput extends Input {
+
+    private final Executor executor;
+    private final int maxPending;
+    private final int maxBlockSize;
+    private final ArrayDeque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+    private final Queue<Inflater> inflaters = new ConcurrentLinkedQueue<>();
+    /**
+     * buffers of consumed blocks, reused for new blocks
+     */
+    private final ArrayDeque<byte[]> free = new ArrayDeque<>();
+    private final byte[] header = new byte[8];
+    private boolean eof;
+    /**
+     * set on close, the blocks not yet inflated are skipped
+     */
+    private volatile boolean closed;
+    private byte[] block;
+    private int blockPosition;
+    private int blockLength;
+
+    /**
+     * Creates an Input with a buffer size of 4096, inflating on the common pool.
+     *
+     * @param inputStream stream of compressed frames
+     */
+    public DeflateInput(InputStream inputStream) {
+        this(inputStream, 4096, ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors() + 1);
+    }
+
+    /**
+     * Creates an Input reading blocks of at most {@link DeflateOutput#DEFAULT_BLOCK_SIZE}.
+     *
+     * @param inputStream stream of compressed frames
+     * @param bufferSize  size of the buffer used to read primitive values and strings
+     * @param executor    executor to inflate the blocks
+     * @param maxPending  maximum number of blocks read ahead
+     */
+    public DeflateInput(InputStream inputStream, int bufferSize, Executor executor, int maxPending) {
+        this(inputStream, bufferSize, DeflateOutput.DEFAULT_BLOCK_SIZE, executor, maxPending);
+    }
+
+    /**
+     * Creates an Input.
+     *
+     * @param inputStream  stream of compressed frames
+     * @param bufferSize   size of the buffer used to read primitive values and strings
+     * @param maxBlockSize block size of the {@link DeflateOutput}, larger blocks are rejected
+     * @param executor     executor to inflate the blocks
+     * @param maxPending   maximum number of blocks read ahead
+     */
+    public DeflateInput(InputStream inputStream, int bufferSize, int maxBlockSize, Executor executor, int maxPending) {
+        super(inputStream, bufferSize);
+        if (maxBlockSize < 1) throw new IllegalArgumentException("maxBlockSize must be >= 1: " + maxBlockSize);
+        if (maxPending < 1) throw new IllegalArgumentException("maxPending must be >= 1: " + maxPending);
+        if (executor == null) throw new IllegalArgumentException("executor cannot be null.");
+        this.executor = executor;
+        this.maxPending = maxPending;
+        this.maxBlockSize = maxBlockSize;
+    }
+
+    /**
+     * Not supported, the buffer is managed by this Input.
+     */
+    @Override
+    public void setBuffer(byte[] bytes, int offset, int count) {
+        throw new UnsupportedOperationException("DeflateInput does not support setBuffer.");
+    }
+
+    /**
+     * Not supported, this Input reads from the stream given in the constructor.
+     */
+    @Override
+    public void setInputStream(InputStream inputStream) {
+        throw new UnsupportedOperationException("DeflateInput does not support setInputStream.");
+    }
+
+    @Override
+    public int available() throws IOException {
+        return limit - position + blockLength - blockPosition;
+    }
+
+    @Override
+    protected int fill(byte[] buffer, int offset, int count) throws PDKRuntimeException {
+        while (blockPosition == blockLength) {
+            if (!nextBlock()) return -1;
+        }
+        int n = Math.min(count, blockLength - blockPosition);
+        System.arraycopy(block, blockPosition, buffer, offset, n);
+        blockPosition += n;
+        return n;
+    }
+
+    private boolean nextBlock() {
+        readAhead();
+        CompletableFuture<byte[]> future = pending.poll();
+        if (future == null) return false;
+        if (block != null) free.add(block);
+        try {
+            block = future.join();
+        } catch (CompletionException ex) {
+            throw new PDKRuntimeException(ex.getCause());
+        }
+        blockPosition = 0;
+        blockLength = block.length;
+        return true;
+    }
+
+    /**
+     * Reads frames and submits them to the executor until maxPending blocks are pending or the stream ends.
+     */
+    private void readAhead() {
+        try {
+            while (!eof && pending.size() < maxPending) {
+                int n = inputStream.readNBytes(header, 0, 8);
+                if (n == 0) {
+                    eof = true;
+                    break;
+                }
+                if (n < 8) throw new PDKRuntimeException("Corrupt block frame, truncated header.");
+                int compressedLength = (int) INT_VIEW.get(header, 0);
+                int length = (int) INT_VIEW.get(header, 4);
+                // the initial buffer of DeflateOutput.deflate, above the deflate worst case
+                if (length < 0 || length > maxBlockSize || compressedLength < 0
+                        || compressedLength > length + (length >> 4) + 64)
+                    throw new PDKRuntimeException("Corrupt block frame, length: " + compressedLength + ", " + length);
+                byte[] compressed = new byte[compressedLength];
+                if (inputStream.readNBytes(compressed, 0, compressedLength) < compressedLength)
+                    throw new PDKRuntimeException("Corrupt block frame, truncated data.");
+                byte[] target = free.poll();
+                if (target == null || target.length != length) target = new byte[length];
+                byte[] data = target;
+                pending.add(CompletableFuture.supplyAsync(() -> inflate(compressed, data), executor));
+            }
+        } catch (IOException ex) {
+            throw new PDKRuntimeException(ex);
+        }
+    }
+
+    private byte[] inflate(byte[] compressed, byte[] data) {
+        if (closed) throw new CancellationException("DeflateInput is closed.");
+        Inflater inflater = inflaters.poll();
+        if (inflater == null) inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed);
+            int count = 0;
+            while (count < data.length) {
+                int n = inflater.inflate(data, count, data.length - count);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) break;
+                count += n;
+            }
+            if (count != data.length)
+                throw new PDKRuntimeException("Corrupt block, expected " + data.length + " bytes: " + count);
+            return data;
+        } catch (DataFormatException ex) {
+            throw new PDKRuntimeException(ex);
+        } finally {
+            inflater.reset();
+            inflaters.add(inflater);
+        }
+    }
+
+    /**
+     * Closes the stream and releases the inflaters, after waiting for the blocks being inflated.
+     */
+    @Override
+    public void close() throws PDKRuntimeException {
+        closed = true;
+        for (CompletableFuture<byte[]> future : pending) {
+            try {
+                future.join();
+            } catch (CompletionException | CancellationException ignored) {
+            }
+        }
+        pending.clear();
+        Inflater inflater;
+        while ((inflater = inflaters.poll()) != null)
+            inflater.end();
+        super.close();
+    }
+}
@@ -0,0 +1,216 @@
+package pdk.util.io;
+
+import pdk.util.exception.PDKRuntimeException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+
+import static pdk.util.io.Input.INT_VIEW;
+
+/**
+ * An {@link Output} that compresses the data in blocks which are deflated concurrently.
+ * <p>
+ * The buffer is a block: when it is full, it is handed to the executor to be deflated and a new buffer is used, so
+ * serialization is not blocked by compression. Compressed blocks are written to the stream in order, each as a frame:
+ * <pre>
+ * int   compressed length, little endian
+ * int   uncompressed length, little endian
+ * byte[] raw deflate data
+ * </pre>
+ * Each block is deflated independently, so frames can be decoded on their own, e.g. to seek by block. The frames are
+ * read by {@link DeflateInput}.
+ * <p>
+ * At most {@code maxPending} blocks are compressed at a time; when more are submitted, the caller waits for the oldest
+ * block and writes it.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 4:20 PM
+ */
+public class DeflateOutput extends Output {
+
+    /**
+     * default block size, 256 KB.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 18;
+
+    private record Block(byte[] data, int length, byte[] compressed, int compressedLength) {}
+
+    private final Executor executor;
+    private final int level;
+    private final int maxPending;
+    private final ArrayDeque<CompletableFuture<Block>> pending = new ArrayDeque<>();
+    /**
+     * buffers of written blocks, reused for new blocks
+     */
+    private final ArrayDeque<byte[]> free = new ArrayDeque<>();
+    private final Queue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+    private final byte[] header = new byte[8];
+    private boolean closed;
+    /**
+     * set when closing after an error, the blocks not yet compressed are skipped
+     */
+    private volatile boolean aborted;
+
+    /**
+     * Creates an Output with default block size and compression level, compressing on the common pool.
+     *
+     * @param outputStream stream to write the compressed frames
+     */
+    public DeflateOutput(OutputStream outputStream) {
+        this(outputStream, DEFAULT_BLOCK_SIZE, Deflater.DEFAULT_COMPRESSION, ForkJoinPool.commonPool(),
+                Runtime.getRuntime().availableProcessors() + 1);
+    }
+
+    /**
+     * Creates an Output.
+     *
+     * @param outputStream stream to write the compressed frames
+     * @param blockSize    number of uncompressed bytes of a block
+     * @param level        compression level, 0-9 or {@link Deflater#DEFAULT_COMPRESSION}
+     * @param executor     executor to deflate the blocks
+     * @param maxPending   maximum number of blocks being compressed
+     */
+    public DeflateOutput(OutputStream outputStream, int blockSize, int level, Executor executor, int maxPending) {
+        super(outputStream, blockSize);
+        if (blockSize < 16) throw new IllegalArgumentException("blockSize must be >= 16: " + blockSize);
+        if (maxPending < 1) throw new IllegalArgumentException("maxPending must be >= 1: " + maxPending);
+        if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION)
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        if (executor == null) throw new IllegalArgumentException("executor cannot be null.");
+        this.level = level;
+        this.executor = executor;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Not supported, the buffer is managed by this Output.
+     */
+    @Override
+    public void setBuffer(byte[] buffer, int maxBufferSize) {
+        throw new UnsupportedOperationException("DeflateOutput does not support setBuffer.");
+    }
+
+    /**
+     * Not supported, this Output writes to the stream given in the constructor.
+     */
+    @Override
+    public void setOutputStream(OutputStream outputStream) {
+        throw new UnsupportedOperationException("DeflateOutput does not support setOutputStream.");
+    }
+
+    /**
+     * Ends the current block and hands it to the executor. Blocks already compressed are written to the stream, but
+     * the blocks still being compressed are not waited for, use {@link #finish()} for that.
+     */
+    @Override
+    public void flush() throws PDKRuntimeException {
+        if (position > 0) submit();
+        while (!pending.isEmpty() && pending.peek().isDone())
+            write(pending.poll());
+    }
+
+    /**
+     * Ends the current block, waits for all blocks to be compressed and writes them to the stream, without closing
+     * it.
+     */
+    public void finish() throws PDKRuntimeException {
+        if (position > 0) submit();
+        while (!pending.isEmpty())
+            write(pending.poll());
+        try {
+            outputStream.flush();
+        } catch (IOException ex) {
+            throw new PDKRuntimeException(ex);
+        }
+    }
+
+    /**
+     * Writes all blocks and closes the stream. If writing fails, the blocks being compressed are waited for, so that
+     * their {@link Deflater}s are ended with the others.
+     */
+    @Override
+    public void close() throws PDKRuntimeException {
+        if (closed) return;
+        closed = true;
+        try {
+            finish();
+        } finally {
+            aborted = true;
+            for (CompletableFuture<Block> future : pending) {
+                try {
+                    future.join();
+                } catch (CompletionException | CancellationException ignored) {
+                }
+            }
+            pending.clear();
+            Deflater deflater;
+            while ((deflater = deflaters.poll()) != null)
+                deflater.end();
+            try {
+                outputStream.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void submit() {
+        byte[] data = buffer;
+        int length = position;
+        byte[] next = free.poll();
+        buffer = next != null ? next : new byte[capacity];
+        total += position;
+        position = 0;
+        pending.add(CompletableFuture.supplyAsync(() -> deflate(data, length), executor));
+        while (pending.size() > maxPending)
+            write(pending.poll());
+    }
+
+    private Block deflate(byte[] data, int length) {
+        if (aborted) throw new CancellationException("DeflateOutput is closed.");
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+            byte[] compressed = new byte[length + (length >> 4) + 64];
+            int count = 0;
+            while (!deflater.finished()) {
+                if (count == compressed.length) compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                count += deflater.deflate(compressed, count, compressed.length - count);
+            }
+            return new Block(data, length, compressed, count);
+        } finally {
+            deflater.reset();
+            deflaters.add(deflater);
+        }
+    }
+
+    private void write(CompletableFuture<Block> future) {
+        Block block;
+        try {
+            block = future.join();
+        } catch (CompletionException ex) {
+            throw new PDKRuntimeException(ex.getCause());
+        }
+        INT_VIEW.set(header, 0, block.compressedLength());
+        INT_VIEW.set(header, 4, block.length());
+        try {
+            outputStream.write(header);
+            outputStream.write(block.compressed(), 0, block.compressedLength());
+        } catch (IOException ex) {
+            throw new PDKRuntimeException(ex);
+        }
+        free.add(block.data());
+    }
+}
@@ -0,0 +1,269 @@
+package pdk.util.io;
+
+import java.math.BigInteger;
+
+/**
+ * Parses decimal numbers from a {@link CharSequence} range, without creating a {@code String}.
+ * <p>
+ * Decimal numbers with at most 19 significant digits are converted with the Clinger fast path when the result is
+ * exact, and with the Eisel-Lemire algorithm otherwise, which gives the correctly rounded value from a 128-bit
+ * approximation of the power of ten. Other inputs, such as longer mantissas, hexadecimal numbers, {@code NaN} or
+ * {@code Infinity}, are delegated to {@link Double#parseDouble(String)}, so the results are always bit-exact with
+ * {@link Double#parseDouble(String)} and {@link Float#parseFloat(String)}, including the
+ * {@link NumberFormatException} for invalid text.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 17 Oct 2026, 11:10 AM
+ */
+public final class DoubleParser {
+
+    private DoubleParser() {}
+
+    private static final int SMALLEST_POWER_OF_FIVE = -342;
+    private static final int LARGEST_POWER_OF_FIVE = 308;
+    /**
+     * 128-bit approximations of 5^q, high and low 64 bits, for q from {@link #SMALLEST_POWER_OF_FIVE}.
+     */
+    private static final long[] POWERS_OF_FIVE = new long[2 * (LARGEST_POWER_OF_FIVE - SMALLEST_POWER_OF_FIVE + 1)];
+    private static final double[] DOUBLE_POWERS_OF_TEN = new double[23];
+    private static final float[] FLOAT_POWERS_OF_TEN = new float[11];
+
+    static {
+        BigInteger two128 = BigInteger.ONE.shiftLeft(128);
+        for (int q = SMALLEST_POWER_OF_FIVE; q <= LARGEST_POWER_OF_FIVE; q++) {
+            BigInteger value;
+            if (q >= 0) {
+                // the most significant bit at position 127, truncated
+                value = BigInteger.valueOf(5).pow(q);
+                int shift = 128 - value.bitLength();
+                value = shift >= 0 ? value.shiftLeft(shift) : value.shiftRight(-shift);
+            } else {
+                // truncated reciprocal, rounded up
+                BigInteger power5 = BigInteger.valueOf(5).pow(-q);
+                int z = power5.subtract(BigInteger.ONE).bitLength();
+                int b = q >= -27 ? z + 127 : 2 * z + 128;
+                value = BigInteger.ONE.shiftLeft(b).divide(power5).add(BigInteger.ONE);
+                while (value.compareTo(two128) >= 0) value = value.shiftRight(1);
+            }
+            int index = 2 * (q - SMALLEST_POWER_OF_FIVE);
+            POWERS_OF_FIVE[index] = value.shiftRight(64).longValue();
+            POWERS_OF_FIVE[index + 1] = value.longValue();
+        }
+        double d = 1;
+        for (int i = 0; i < DOUBLE_POWERS_OF_TEN.length; i++, d *= 10)
+            DOUBLE_POWERS_OF_TEN[i] = d;
+        float f = 1;
+        for (int i = 0; i < FLOAT_POWERS_OF_TEN.length; i++, f *= 10)
+            FLOAT_POWERS_OF_TEN[i] = f;
+    }
+
+    /**
+     * Binary floating point format parameters.
+     */
+    private record Format(int mantissaBits, int minimumExponent, int infinitePower, int minFastPath, int maxFastPath,
+                          long maxFastPathMantissa, int minRoundToEven, int maxRoundToEven, int smallestPowerOfTen,
+                          int largestPowerOfTen) {}
+
+    private static final Format BINARY64 = new Format(52, -1023, 0x7FF, -22, 22, 1L << 53, -4, 23, -342, 308);
+    private static final Format BINARY32 = new Format(23, -127, 0xFF, -10, 10, 1L << 24, -17, 10, -65, 38);
+
+    /**
+     * Parses a double.
+     *
+     * @param text text of the number
+     * @return the double value, same as {@link Double#parseDouble(String)}
+     * @throws NumberFormatException if the text is not a number
+     */
+    public static double parseDouble(CharSequence text) {
+        return parseDouble(text, 0, text.length());
+    }
+
+    /**
+     * Parses a double from a range of characters.
+     *
+     * @param text text containing the number
+     * @param from index of the first character
+     * @param to   index after the last character
+     * @return the double value, same as {@link Double#parseDouble(String)}
+     * @throws NumberFormatException if the range is not a number
+     */
+    public static double parseDouble(CharSequence text, int from, int to) {
+        long bits = parse(text, from, to, BINARY64);
+        if (bits == -1) return Double.parseDouble(text.subSequence(from, to).toString());
+        return Double.longBitsToDouble(bits);
+    }
+
+    /**
+     * Parses a float.
+     *
+     * @param text text of the number
+     * @return the float value, same as {@link Float#parseFloat(String)}
+     * @throws NumberFormatException if the text is not a number
+     */
+    public static float parseFloat(CharSequence text) {
+        return parseFloat(text, 0, text.length());
+    }
+
+    /**
+     * Parses a float from a range of characters.
+     *
+     * @param text text containing the number
+     * @param from index of the first character
+     * @param to   index after the last character
+     * @return the float value, same as {@link Float#parseFloat(String)}
+     * @throws NumberFormatException if the range is not a number
+     */
+    public static float parseFloat(CharSequence text, int from, int to) {
+        long bits = parse(text, from, to, BINARY32);
+        if (bits == -1) return Float.parseFloat(text.subSequence(from, to).toString());
+        return Float.intBitsToFloat((int) bits);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Parses a decimal number.
+     *
+     * @return the bits of the value, -1 if the text is not handled here
+     */
+    private static long parse(CharSequence text, int from, int to, Format format) {
+        // same whitespace as String.trim(), as Double.parseDouble
+        while (from < to && text.charAt(from) <= ' ') from++;
+        while (to > from && text.charAt(to - 1) <= ' ') to--;
+        if (from == to) return -1;
+
+        int i = from;
+        boolean negative = false;
+        char c = text.charAt(i);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean any = false;
+        // leading zeros are not significant
+        while (i < to && text.charAt(i) == '0') {
+            i++;
+            any = true;
+        }
+        while (i < to && isDigit(c = text.charAt(i))) {
+            if (digits == 19) return -1;
+            mantissa = mantissa * 10 + (c - '0');
+            digits++;
+            i++;
+            any = true;
+        }
+        if (i < to && text.charAt(i) == '.') {
+            i++;
+            if (digits == 0) {
+                while (i < to && text.charAt(i) == '0') {
+                    i++;
+                    exponent--;
+                    any = true;
+                }
+            }
+            while (i < to && isDigit(c = text.charAt(i))) {
+                if (digits == 19) return -1;
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                exponent--;
+                i++;
+                any = true;
+            }
+        }
+        if (!any) return -1;
+        if (i < to && ((c = text.charAt(i)) == 'e' || c == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < to && ((c = text.charAt(i)) == '-' || c == '+')) {
+                negativeExponent = c == '-';
+                i++;
+            }
+            if (i == to || !isDigit(text.charAt(i))) return -1;
+            int e = 0;
+            while (i < to && isDigit(c = text.charAt(i))) {
+                // large exponents only need to stay out of range
+                if (e < 100_000) e = e * 10 + (c - '0');
+                i++;
+            }
+            exponent += negativeExponent ? -e : e;
+        }
+        // the type suffix accepted by Double.parseDouble
+        if (i < to && ((c = text.charAt(i)) == 'd' || c == 'D' || c == 'f' || c == 'F')) i++;
+        if (i != to) return -1;
+
+        long bits = toBits(mantissa, exponent, format);
+        if (negative) bits |= 1L << (format == BINARY64 ? 63 : 31);
+        return bits;
+    }
+
+    /**
+     * Converts mantissa * 10^exponent to the bits of the closest binary floating point, ties to even. The mantissa is
+     * unsigned, 19 digits may exceed {@link Long#MAX_VALUE}.
+     */
+    private static long toBits(long mantissa, int exponent, Format format) {
+        if (mantissa == 0 || exponent < format.smallestPowerOfTen()) return 0;
+        if (exponent > format.largestPowerOfTen()) return (long) format.infinitePower() << format.mantissaBits();
+
+        // Clinger: both values are exact, so one correctly rounded operation
+        if (exponent >= format.minFastPath() && exponent <= format.maxFastPath()
+                && Long.compareUnsigned(mantissa, format.maxFastPathMantissa()) <= 0) {
+            if (format == BINARY64) {
+                double value = mantissa;
+                value = exponent < 0 ? value / DOUBLE_POWERS_OF_TEN[-exponent] : value * DOUBLE_POWERS_OF_TEN[exponent];
+                return Double.doubleToRawLongBits(value);
+            }
+            float value = mantissa;
+            value = exponent < 0 ? value / FLOAT_POWERS_OF_TEN[-exponent] : value * FLOAT_POWERS_OF_TEN[exponent];
+            return Float.floatToRawIntBits(value);
+        }
+
+        // Eisel-Lemire
+        int leadingZeros = Long.numberOfLeadingZeros(mantissa);
+        long w = mantissa << leadingZeros;
+        int index = 2 * (exponent - SMALLEST_POWER_OF_FIVE);
+        long high = Math.unsignedMultiplyHigh(w, POWERS_OF_FIVE[index]);
+        long low = w * POWERS_OF_FIVE[index];
+        long precisionMask = -1L >>> (format.mantissaBits() + 3);
+        if ((high & precisionMask) == precisionMask) {
+            // the truncated product may be too small, add the next 64 bits
+            long secondHigh = Math.unsignedMultiplyHigh(w, POWERS_OF_FIVE[index + 1]);
+            low += secondHigh;
+            if (Long.compareUnsigned(secondHigh, low) > 0) high++;
+        }
+
+        int upperBit = (int) (high >>> 63);
+        int shift = upperBit + 64 - format.mantissaBits() - 3;
+        long m = high >>> shift;
+        int power2 = (((152170 + 65536) * exponent) >> 16) + 63 + upperBit - leadingZeros - format.minimumExponent();
+        if (power2 <= 0) {
+            // subnormal
+            if (-power2 + 1 >= 64) return 0;
+            m >>>= -power2 + 1;
+            m += m & 1;
+            m >>>= 1;
+            power2 = m < 1L << format.mantissaBits() ? 0 : 1;
+            return (long) power2 << format.mantissaBits() | m & ((1L << format.mantissaBits()) - 1);
+        }
+        // exactly halfway between two values, round to even
+        if (Long.compareUnsigned(low, 1) <= 0 && exponent >= format.minRoundToEven()
+                && exponent <= format.maxRoundToEven() && (m & 3) == 1 && m << shift == high) {
+            m &= ~1L;
+        }
+        m += m & 1;
+        m >>>= 1;
+        if (m >= 2L << format.mantissaBits()) {
+            m = 1L << format.mantissaBits();
+            power2++;
+        }
+        m &= ~(1L << format.mantissaBits());
+        if (power2 >= format.infinitePower()) return (long) format.infinitePower() << format.mantissaBits();
+        return (long) power2 << format.mantissaBits() | m;
+    }
+}
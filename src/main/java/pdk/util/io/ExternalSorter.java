@@ -0,0 +1,510 @@
+package pdk.util.io;
+
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import pdk.util.exception.PDKRuntimeException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Sorts more records than fit in memory by a primitive key, with an external merge sort.
+ * <p>
+ * The records added are serialized into a run buffer, together with their keys. When the serialized bytes of a run
+ * reach its share of the memory budget, the run is handed to a background thread, which sorts the keys with a stable
+ * radix sort and writes the record bytes in key order to a temporary file, while the next run is filled. At most
+ * {@code parallelism} runs are sorted at a time, so the memory used is about {@code memoryBudget} plus 20 bytes per
+ * record in the buffers for the keys and offsets. The sorted runs are merged with a loser tree, reading each run with
+ * an {@link Input} of 64 KB. The number of runs merged at a time is bounded by {@code memoryBudget / 64 KB}, and by
+ * 256 open files: beyond that, consecutive runs are first merged into larger runs, in as many passes as needed.
+ * <p>
+ * Keys are {@code long}, see {@link #doubleKey(ToDoubleFunction)} and {@link #doubleKeyDescending(ToDoubleFunction)} to
+ * sort by a double, such as a score or a m/z. The sort is stable: records with equal keys are returned in the order
+ * they were added.
+ * <pre>{@code
+ * try (ExternalSorter<Psm> sorter = new ExternalSorter<>(serializer, ExternalSorter.doubleKeyDescending(Psm::score),
+ *         tempDir, 1L << 30, 4)) {
+ *     for (Psm psm : psms)
+ *         sorter.add(psm);
+ *     try (IterateReader<Psm> sorted = sorter.sort()) {
+ *         while (sorted.hasNext()) process(sorted.next());
+ *     }
+ * }
+ * }</pre>
+ * The serializer should not use the string dictionary of the {@link Output}, as each record is read back
+ * independently of the records before it in the run buffer.
+ *
+ * @param <T> type of the records
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 17 Oct 2026, 3:40 PM
+ */
+public class ExternalSorter<T> implements AutoCloseable {
+
+    private static final int MERGE_BUFFER_SIZE = 1 << 16;
+    /**
+     * maximum number of run files open at a time
+     */
+    private static final int MAX_FAN_IN = 256;
+
+    /**
+     * Records of a run not yet sorted, serialized one after another in the output buffer.
+     */
+    private static final class RunBuffer {
+        final Output output = new Output(1 << 16, -1);
+        long[] keys = new long[1024];
+        int[] offsets = new int[1025];
+        int size;
+
+        void clear() {
+            output.reset();
+            size = 0;
+        }
+    }
+
+    /**
+     * A sorted run, a sequence of a key, the length of the record and the record.
+     *
+     * @param file  temporary file
+     * @param count number of records
+     */
+    private record Run(Path file, long count) {}
+
+    private final Serializer<T> serializer;
+    private final ToLongFunction<? super T> key;
+    private final Path tempDir;
+    private final int runBytes;
+    private final int parallelism;
+    private final int fanIn;
+
+    private ExecutorService executor;
+    private final ArrayDeque<Future<RunBuffer>> pending = new ArrayDeque<>();
+    private final ArrayDeque<RunBuffer> free = new ArrayDeque<>();
+    private final List<Run> runs = new ArrayList<>();
+    private RunBuffer current;
+    private long size;
+    private boolean sorted;
+
+    /**
+     * Creates a sorter with a memory budget of 256 MB, spilling to the temporary directory of the system, and sorting
+     * runs on up to half the available processors.
+     *
+     * @param serializer serializer of the records
+     * @param key        key of the records
+     */
+    public ExternalSorter(Serializer<T> serializer, ToLongFunction<? super T> key) {
+        this(serializer, key, Path.of(System.getProperty("java.io.tmpdir")), 1L << 28,
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * Creates a sorter.
+     *
+     * @param serializer   serializer of the records
+     * @param key          key of the records
+     * @param tempDir      directory of the temporary run files
+     * @param memoryBudget number of bytes of the serialized records held in memory
+     * @param parallelism  maximum number of runs sorted and written at a time
+     */
+    public ExternalSorter(Serializer<T> serializer, ToLongFunction<? super T> key, Path tempDir, long memoryBudget,
+                          int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be >= 1: " + parallelism);
+        if (memoryBudget < 1) throw new IllegalArgumentException("memoryBudget must be >= 1: " + memoryBudget);
+        this.serializer = Objects.requireNonNull(serializer);
+        this.key = Objects.requireNonNull(key);
+        this.tempDir = Objects.requireNonNull(tempDir);
+        this.parallelism = parallelism;
+        // the run being filled and the runs being sorted
+        this.runBytes = (int) Math.min(memoryBudget / (parallelism + 1), Integer.MAX_VALUE - 8);
+        this.fanIn = Math.clamp(memoryBudget / MERGE_BUFFER_SIZE, 2, MAX_FAN_IN);
+        this.current = new RunBuffer();
+    }
+
+    /**
+     * Returns a key sorting a double in ascending order, with {@code -0.0} before {@code 0.0} and NaN last, as
+     * {@link Double#compare(double, double)}.
+     *
+     * @param key double key of the records
+     * @param <T> type of the records
+     * @return long key of the records
+     */
+    public static <T> ToLongFunction<T> doubleKey(ToDoubleFunction<? super T> key) {
+        return value -> sortableBits(key.applyAsDouble(value));
+    }
+
+    /**
+     * Returns a key sorting a double in descending order, the reverse of {@link #doubleKey(ToDoubleFunction)}.
+     *
+     * @param key double key of the records
+     * @param <T> type of the records
+     * @return long key of the records
+     */
+    public static <T> ToLongFunction<T> doubleKeyDescending(ToDoubleFunction<? super T> key) {
+        return value -> ~sortableBits(key.applyAsDouble(value));
+    }
+
+    /**
+     * Returns the bits of a double as a long of the same order.
+     */
+    private static long sortableBits(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ (bits >> 63 & Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the number of records added.
+     *
+     * @return number of records
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of runs written to temporary files so far, or left to merge after {@link #sort()}.
+     *
+     * @return number of run files
+     */
+    public int runCount() {
+        return runs.size();
+    }
+
+    /**
+     * Adds a record.
+     *
+     * @param record record to add
+     */
+    public void add(T record) throws PDKRuntimeException {
+        if (sorted) throw new IllegalStateException("The records are already sorted.");
+        RunBuffer buffer = current;
+        if (buffer.size == buffer.keys.length) {
+            buffer.keys = Arrays.copyOf(buffer.keys, buffer.size * 2);
+            buffer.offsets = Arrays.copyOf(buffer.offsets, buffer.size * 2 + 1);
+        }
+        buffer.keys[buffer.size] = key.applyAsLong(record);
+        serializer.write(buffer.output, record);
+        buffer.offsets[++buffer.size] = buffer.output.position();
+        size++;
+        if (buffer.output.position() >= runBytes) spill();
+    }
+
+    /**
+     * Adds records.
+     *
+     * @param records records to add
+     */
+    public void addAll(Iterable<? extends T> records) throws PDKRuntimeException {
+        for (T record : records)
+            add(record);
+    }
+
+    /**
+     * Sorts the current run and writes it to a temporary file in the background.
+     */
+    private void spill() {
+        if (pending.size() >= parallelism) free.add(await(pending.poll()));
+        RunBuffer buffer = current;
+        Path file;
+        try {
+            file = Files.createTempFile(tempDir, "run", ".tmp");
+        } catch (IOException ex) {
+            throw new PDKRuntimeException(ex);
+        }
+        runs.add(new Run(file, buffer.size));
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(parallelism,
+                    Thread.ofPlatform().name("ExternalSorter-", 0).daemon().factory());
+        }
+        pending.add(executor.submit(() -> {
+            writeRun(buffer, file);
+            return buffer;
+        }));
+        current = free.isEmpty() ? new RunBuffer() : free.poll();
+    }
+
+    private static RunBuffer await(Future<RunBuffer> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new PDKRuntimeException(ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof PDKRuntimeException e) throw e;
+            throw new PDKRuntimeException(cause);
+        }
+    }
+
+    /**
+     * Sorts the keys of a run.
+     *
+     * @return record indices in key order, stored as long
+     */
+    private static long[] sort(RunBuffer buffer) {
+        long[] indices = new long[buffer.size];
+        for (int i = 0; i < indices.length; i++)
+            indices[i] = i;
+        // sorting the indices as secondary key keeps the sort stable
+        LongArrays.radixSort(buffer.keys, indices, 0, buffer.size);
+        return indices;
+    }
+
+    private static void writeRun(RunBuffer buffer, Path file) throws IOException {
+        try (Output output = new Output(Files.newOutputStream(file), MERGE_BUFFER_SIZE)) {
+            writeRun(buffer, output);
+        }
+    }
+
+    private static void writeRun(RunBuffer buffer, Output output) {
+        long[] indices = sort(buffer);
+        byte[] bytes = buffer.output.getBuffer();
+        for (int i = 0; i < indices.length; i++) {
+            int index = (int) indices[i];
+            int length = buffer.offsets[index + 1] - buffer.offsets[index];
+            output.writeLong(buffer.keys[i]);
+            output.writeVarInt(length, true);
+            output.writeBytes(bytes, buffer.offsets[index], length);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Sorts the records added, and returns a reader of the records in key order. If all the records fit in one run,
+     * they are sorted in memory, otherwise the last run is written to a temporary file as well, and the runs are merged
+     * in passes until at most {@code memoryBudget / 64 KB} are left. Records cannot be added after this call.
+     *
+     * @return reader of the sorted records, closing it does not delete the run files, see {@link #close()}
+     */
+    public IterateReader<T> sort() throws PDKRuntimeException {
+        if (sorted) throw new IllegalStateException("The records are already sorted.");
+        sorted = true;
+        while (!pending.isEmpty())
+            free.add(await(pending.poll()));
+        free.clear();
+        RunBuffer last = current;
+        current = null;
+        if (runs.isEmpty()) {
+            Output output = new Output(last.output.position() + last.size * 13 + 8, -1);
+            long count = last.size;
+            writeRun(last, output);
+            return new MergeReader<>(serializer, new Input[]{new Input(output.getBuffer(), 0, output.position())},
+                    new long[]{count});
+        }
+        try {
+            if (last.size > 0) {
+                // after the other runs to keep the sort stable
+                Path file = Files.createTempFile(tempDir, "run", ".tmp");
+                runs.add(new Run(file, last.size));
+                writeRun(last, file);
+            }
+            while (runs.size() > fanIn)
+                mergePass();
+        } catch (IOException ex) {
+            throw new PDKRuntimeException(ex);
+        }
+        return new MergeReader<>(serializer, open(runs), counts(runs));
+    }
+
+    /**
+     * Merges each group of {@code fanIn} consecutive runs into one run.
+     */
+    private void mergePass() throws IOException {
+        List<Run> merged = new ArrayList<>();
+        int n = runs.size();
+        int next = 0;
+        while (next < n) {
+            List<Run> group = List.copyOf(runs.subList(next, Math.min(next + fanIn, n)));
+            next += group.size();
+            if (group.size() == 1) {
+                merged.add(group.getFirst());
+                continue;
+            }
+            Path file = Files.createTempFile(tempDir, "run", ".tmp");
+            long[] counts = counts(group);
+            Run run = new Run(file, Arrays.stream(counts).sum());
+            // deleted by close() if the pass fails
+            runs.add(run);
+            merged.add(run);
+            try (MergeReader<T> reader = new MergeReader<>(serializer, open(group), counts);
+                 Output output = new Output(Files.newOutputStream(file), MERGE_BUFFER_SIZE)) {
+                while (reader.hasNext())
+                    reader.copyNext(output);
+            }
+            for (Run done : group)
+                Files.deleteIfExists(done.file());
+        }
+        runs.clear();
+        runs.addAll(merged);
+    }
+
+    private static Input[] open(List<Run> runs) {
+        Input[] inputs = new Input[runs.size()];
+        try {
+            for (int i = 0; i < inputs.length; i++)
+                inputs[i] = new Input(Files.newInputStream(runs.get(i).file()), MERGE_BUFFER_SIZE);
+        } catch (IOException ex) {
+            for (Input input : inputs) {
+                if (input != null) input.close();
+            }
+            throw new PDKRuntimeException(ex);
+        }
+        return inputs;
+    }
+
+    private static long[] counts(List<Run> runs) {
+        long[] counts = new long[runs.size()];
+        for (int i = 0; i < counts.length; i++)
+            counts[i] = runs.get(i).count();
+        return counts;
+    }
+
+    /**
+     * Stops the background threads, waiting for the runs being written, and deletes the run files.
+     */
+    @Override
+    public void close() throws PDKRuntimeException {
+        if (executor != null) {
+            // close() waits for the running tasks, the queued ones are dropped by shutdownNow()
+            executor.shutdownNow();
+            executor.close();
+            pending.clear();
+        }
+        IOException error = null;
+        for (Run run : runs) {
+            try {
+                Files.deleteIfExists(run.file());
+            } catch (IOException ex) {
+                error = ex;
+            }
+        }
+        runs.clear();
+        if (error != null) throw new PDKRuntimeException(error);
+    }
+
+    /**
+     * Merges sorted runs with a loser tree. Each run is a sequence of a key, the length of the record and the record.
+     */
+    private static final class MergeReader<T> implements IterateReader<T> {
+
+        private final Serializer<T> serializer;
+        private final Input[] inputs;
+        private final long[] remaining;
+        private final long[] keys;
+        private final boolean[] done;
+        /**
+         * tree[0] is the winner, the other nodes hold the loser of their match
+         */
+        private final int[] tree;
+        private final int k;
+
+        private byte[] bytes = new byte[256];
+
+        MergeReader(Serializer<T> serializer, Input[] inputs, long[] counts) {
+            this.serializer = serializer;
+            this.inputs = inputs;
+            this.k = inputs.length;
+            this.remaining = counts;
+            this.keys = new long[k];
+            this.done = new boolean[k];
+            this.tree = new int[k];
+            for (int i = 0; i < k; i++)
+                advance(i);
+            // k is a virtual run beating all others
+            Arrays.fill(tree, k);
+            for (int i = k - 1; i >= 0; i--)
+                adjust(i);
+        }
+
+        private void advance(int run) {
+            if (remaining[run] == 0) {
+                done[run] = true;
+                inputs[run].close();
+            } else {
+                remaining[run]--;
+                keys[run] = inputs[run].readLong();
+            }
+        }
+
+        /**
+         * Returns true if run a comes before run b, equal keys are ordered by run.
+         */
+        private boolean beats(int a, int b) {
+            if (a == k) return true;
+            if (b == k) return false;
+            if (done[a]) return false;
+            if (done[b]) return true;
+            int c = Long.compare(keys[a], keys[b]);
+            return c < 0 || c == 0 && a < b;
+        }
+
+        /**
+         * Replays the matches from a leaf to the root.
+         */
+        private void adjust(int run) {
+            int winner = run;
+            for (int node = (run + k) >> 1; node > 0; node >>= 1) {
+                if (beats(tree[node], winner)) {
+                    int loser = winner;
+                    winner = tree[node];
+                    tree[node] = loser;
+                }
+            }
+            tree[0] = winner;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !done[tree[0]];
+        }
+
+        @Override
+        public T next() {
+            int run = tree[0];
+            if (done[run]) throw new NoSuchElementException();
+            inputs[run].readVarInt(true);
+            T record = serializer.read(inputs[run]);
+            advance(run);
+            adjust(run);
+            return record;
+        }
+
+        /**
+         * Copies the next key and record bytes to an output, without deserializing the record.
+         */
+        void copyNext(Output output) {
+            int run = tree[0];
+            if (done[run]) throw new NoSuchElementException();
+            Input input = inputs[run];
+            int length = input.readVarInt(true);
+            if (length > bytes.length) bytes = new byte[Math.max(length, bytes.length * 2)];
+            input.readBytes(bytes, 0, length);
+            output.writeLong(keys[run]);
+            output.writeVarInt(length, true);
+            output.writeBytes(bytes, 0, length);
+            advance(run);
+            adjust(run);
+        }
+
+        @Override
+        public void close() {
+            for (int i = 0; i < k; i++) {
+                if (!done[i]) {
+                    done[i] = true;
+                    inputs[i].close();
+                }
+            }
+        }
+    }
+}
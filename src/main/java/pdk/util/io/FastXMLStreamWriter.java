@@ -0,0 +1,582 @@
+package pdk.util.io;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import pdk.util.exception.PDKRuntimeException;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * An indenting {@link XMLStreamWriter} encoding UTF-8 directly into the buffer of an {@link Output}, writing the same
+ * bytes as {@link PrettyXMLStreamWriter} over the JDK writer.
+ * <p>
+ * Characters are escaped with a precomputed table, and the line break with its indentation is one precomputed byte
+ * run. {@link #writeAttribute(String, long)} and {@link #writeCharacters(long)} write integers without creating a
+ * {@code String}. Namespaces are not repaired: prefixes must be bound by {@link #writeNamespace(String, String)},
+ * {@link #setPrefix(String, String)} or the {@link NamespaceContext}, as with the JDK writer.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 17 Oct 2026, 12:05 PM
+ */
+public class FastXMLStreamWriter implements XMLStreamWriter {
+
+    private static final int SEEN_NOTHING = 0;
+    private static final int SEEN_ELEMENT = 1;
+    private static final int SEEN_DATA = 2;
+
+    /**
+     * escapes of ASCII characters in text and attribute values, null for none
+     */
+    private static final byte[][] TEXT_ESCAPES = new byte[128][];
+    private static final byte[][] ATTRIBUTE_ESCAPES = new byte[128][];
+
+    static {
+        TEXT_ESCAPES['<'] = ascii("&lt;");
+        TEXT_ESCAPES['>'] = ascii("&gt;");
+        TEXT_ESCAPES['&'] = ascii("&amp;");
+        System.arraycopy(TEXT_ESCAPES, 0, ATTRIBUTE_ESCAPES, 0, 128);
+        ATTRIBUTE_ESCAPES['"'] = ascii("&quot;");
+    }
+
+    private static final byte[] COMMENT_START = ascii("<!--");
+    private static final byte[] COMMENT_END = ascii("-->");
+    private static final byte[] CDATA_START = ascii("<![CDATA[");
+    private static final byte[] CDATA_END = ascii("]]>");
+    private static final byte[] DECLARATION = ascii("<?xml version=\"1.0\" ?>\n");
+    private static final byte[] VERSION = ascii("<?xml version=\"");
+    private static final byte[] ENCODING = ascii("\" encoding=\"");
+    private static final byte[] DECLARATION_END = ascii("\"?>\n");
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private final Output output;
+    private final boolean closeStream;
+    private int state = SEEN_NOTHING;
+    private int depth;
+    private String[] prefixes = new String[16];
+    private String[] localNames = new String[16];
+    /**
+     * number of namespace bindings when each element was started
+     */
+    private int[] bindingMarks = new int[16];
+    private final ObjectArrayList<String> bindingPrefixes = new ObjectArrayList<>();
+    private final ObjectArrayList<String> bindingUris = new ObjectArrayList<>();
+    private NamespaceContext rootContext;
+    /**
+     * true if a start tag is open for attributes
+     */
+    private boolean startTagOpen;
+    private boolean emptyElement;
+    private int emptyBindingMark;
+    private byte[] indentStep = {' ', ' '};
+    /**
+     * line break followed by indentation steps
+     */
+    private byte[] indent = new byte[0];
+
+    /**
+     * Create a writer to a file, closed with the writer.
+     *
+     * @param file output {@link File}
+     * @throws IOException if the file cannot be opened
+     */
+    public FastXMLStreamWriter(File file) throws IOException {
+        this(new FileOutputStream(file), 1 << 16, true);
+    }
+
+    /**
+     * Create a writer to a stream, which is flushed but not closed by {@link #close()}.
+     *
+     * @param outputStream output stream
+     */
+    public FastXMLStreamWriter(OutputStream outputStream) {
+        this(outputStream, 1 << 16, false);
+    }
+
+    /**
+     * Create a writer to a stream.
+     *
+     * @param outputStream output stream
+     * @param bufferSize   size of the buffer
+     * @param closeStream  true to close the stream in {@link #close()}
+     */
+    public FastXMLStreamWriter(OutputStream outputStream, int bufferSize, boolean closeStream) {
+        this.output = new Output(Objects.requireNonNull(outputStream), bufferSize);
+        this.closeStream = closeStream;
+        setIndentStep("  ");
+    }
+
+    /**
+     * Set the indentation of one level.
+     *
+     * @param s indentation step
+     */
+    public void setIndentStep(String s) {
+        this.indentStep = s.getBytes(StandardCharsets.UTF_8);
+        this.indent = new byte[]{'\n'};
+    }
+
+    // writing primitives:
+
+    private void writeIndent(boolean lineBreak) {
+        int length = 1 + depth * indentStep.length;
+        if (indent.length < length) {
+            int levels = Math.max(depth, 8) * 2;
+            indent = new byte[1 + levels * indentStep.length];
+            indent[0] = '\n';
+            for (int i = 0; i < levels; i++)
+                System.arraycopy(indentStep, 0, indent, 1 + i * indentStep.length, indentStep.length);
+        }
+        if (lineBreak) output.writeBytes(indent, 0, length);
+        else output.writeBytes(indent, 1, length - 1);
+    }
+
+    /**
+     * Writes a string in UTF-8, escaping ASCII characters with the given table. Unpaired surrogates are written as '?'.
+     */
+    private void writeText(String text, byte[][] escapes) {
+        Output output = this.output;
+        byte[] buffer = output.buffer;
+        int position = output.position;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (output.capacity - position < 6) {
+                output.position = position;
+                output.require(6);
+                buffer = output.buffer;
+                position = output.position;
+            }
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                byte[] escape = escapes == null ? null : escapes[c];
+                if (escape == null) {
+                    buffer[position++] = (byte) c;
+                } else {
+                    System.arraycopy(escape, 0, buffer, position, escape.length);
+                    position += escape.length;
+                }
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | c >> 6);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                    buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+                    buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                    buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                    buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+                } else {
+                    buffer[position++] = '?';
+                }
+            } else {
+                buffer[position++] = (byte) (0xE0 | c >> 12);
+                buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        output.position = position;
+    }
+
+    private void writeName(String prefix, String localName) {
+        if (prefix != null && !prefix.isEmpty()) {
+            writeText(prefix, null);
+            output.write(':');
+        }
+        writeText(localName, null);
+    }
+
+    private void writeDecimal(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeText("-9223372036854775808", null);
+            return;
+        }
+        output.require(20);
+        byte[] buffer = output.buffer;
+        int position = output.position;
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) digits++;
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        output.position = position + digits;
+    }
+
+    private void closeStartTag() {
+        if (!startTagOpen) return;
+        if (emptyElement) {
+            output.write('/');
+            // bindings declared on an empty element end with it
+            bindingPrefixes.size(emptyBindingMark);
+            bindingUris.size(emptyBindingMark);
+        }
+        output.write('>');
+        startTagOpen = false;
+        emptyElement = false;
+    }
+
+    private void checkStartTag() throws XMLStreamException {
+        if (!startTagOpen) throw new XMLStreamException("Attribute not associated with any element");
+    }
+
+    // indentation, same as PrettyXMLStreamWriter:
+
+    private void startTag(String prefix, String localName, boolean empty) {
+        closeStartTag();
+        if (empty) {
+            state = SEEN_ELEMENT;
+            emptyBindingMark = bindingPrefixes.size();
+        } else {
+            state = SEEN_NOTHING;
+        }
+        writeIndent(depth > 0);
+        output.write('<');
+        writeName(prefix, localName);
+        startTagOpen = true;
+        emptyElement = empty;
+        if (!empty) {
+            if (depth == localNames.length) {
+                prefixes = Arrays.copyOf(prefixes, depth * 2);
+                localNames = Arrays.copyOf(localNames, depth * 2);
+                bindingMarks = Arrays.copyOf(bindingMarks, depth * 2);
+            }
+            prefixes[depth] = prefix;
+            localNames[depth] = localName;
+            bindingMarks[depth] = bindingPrefixes.size();
+            depth++;
+        }
+    }
+
+    private String requirePrefix(String namespaceURI) throws XMLStreamException {
+        String prefix = getPrefix(namespaceURI);
+        if (prefix == null) throw new XMLStreamException("Prefix cannot be null");
+        return prefix;
+    }
+
+    public void writeStartElement(String localName) throws XMLStreamException {
+        startTag(null, localName, false);
+    }
+
+    public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException {
+        startTag(requirePrefix(namespaceURI), localName, false);
+    }
+
+    public void writeStartElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        startTag(prefix, localName, false);
+    }
+
+    public void writeEmptyElement(String namespaceURI, String localName) throws XMLStreamException {
+        startTag(requirePrefix(namespaceURI), localName, true);
+    }
+
+    public void writeEmptyElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        startTag(prefix, localName, true);
+    }
+
+    public void writeEmptyElement(String localName) throws XMLStreamException {
+        startTag(null, localName, true);
+    }
+
+    public void writeEndElement() throws XMLStreamException {
+        if (depth == 0) throw new XMLStreamException("No element was found to write");
+        closeStartTag();
+        depth--;
+        if (state == SEEN_ELEMENT) writeIndent(true);
+        state = SEEN_ELEMENT;
+        writeEndTag();
+    }
+
+    private void writeEndTag() {
+        output.write('<');
+        output.write('/');
+        writeName(prefixes[depth], localNames[depth]);
+        output.write('>');
+        bindingPrefixes.size(bindingMarks[depth]);
+        bindingUris.size(bindingMarks[depth]);
+        prefixes[depth] = null;
+        localNames[depth] = null;
+    }
+
+    public void writeEndDocument() throws XMLStreamException {
+        closeStartTag();
+        while (depth > 0) {
+            depth--;
+            writeEndTag();
+        }
+    }
+
+    /**
+     * Flushes the writer, and closes the file if this writer was created for a file.
+     */
+    public void close() throws XMLStreamException {
+        try {
+            if (closeStream) output.close();
+            else output.flush();
+        } catch (PDKRuntimeException ex) {
+            throw new XMLStreamException(ex);
+        }
+    }
+
+    public void flush() throws XMLStreamException {
+        try {
+            output.flush();
+        } catch (PDKRuntimeException ex) {
+            throw new XMLStreamException(ex);
+        }
+    }
+
+    public void writeAttribute(String localName, String value) throws XMLStreamException {
+        writeAttribute(null, localName, value, true);
+    }
+
+    private void writeAttribute(String prefix, String localName, String value, boolean escape)
+            throws XMLStreamException {
+        checkStartTag();
+        output.write(' ');
+        writeName(prefix, localName);
+        output.write('=');
+        output.write('"');
+        writeText(value, escape ? ATTRIBUTE_ESCAPES : null);
+        output.write('"');
+    }
+
+    public void writeAttribute(String prefix, String namespaceURI, String localName,
+            String value) throws XMLStreamException {
+        writeAttribute(prefix, localName, value, true);
+    }
+
+    public void writeAttribute(String namespaceURI, String localName, String value) throws XMLStreamException {
+        writeAttribute(requirePrefix(namespaceURI), localName, value, true);
+    }
+
+    /**
+     * Writes an integer attribute, without creating a {@code String}.
+     *
+     * @param localName attribute local name
+     * @param value     attribute value
+     */
+    public void writeAttribute(String localName, long value) throws XMLStreamException {
+        checkStartTag();
+        output.write(' ');
+        writeText(localName, null);
+        output.write('=');
+        output.write('"');
+        writeDecimal(value);
+        output.write('"');
+    }
+
+    /**
+     * Writes a double attribute, formatted as {@link Double#toString(double)}.
+     *
+     * @param localName attribute local name
+     * @param value     attribute value
+     */
+    public void writeAttribute(String localName, double value) throws XMLStreamException {
+        writeAttribute(null, localName, Double.toString(value), false);
+    }
+
+    public void writeNamespace(String prefix, String namespaceURI) throws XMLStreamException {
+        if (prefix == null || prefix.isEmpty() || prefix.equals(XMLConstants.XMLNS_ATTRIBUTE)) {
+            writeDefaultNamespace(namespaceURI);
+            return;
+        }
+        checkStartTag();
+        writeAttribute(XMLConstants.XMLNS_ATTRIBUTE, prefix, namespaceURI, true);
+        setPrefix(prefix, namespaceURI);
+    }
+
+    public void writeDefaultNamespace(String namespaceURI) throws XMLStreamException {
+        checkStartTag();
+        writeAttribute(null, XMLConstants.XMLNS_ATTRIBUTE, namespaceURI, true);
+        setDefaultNamespace(namespaceURI);
+    }
+
+    public void writeComment(String data) throws XMLStreamException {
+        closeStartTag();
+        output.writeBytes(COMMENT_START);
+        if (data != null) writeText(data, null);
+        output.writeBytes(COMMENT_END);
+    }
+
+    public void writeProcessingInstruction(String target) throws XMLStreamException {
+        writeProcessingInstruction(target, null);
+    }
+
+    public void writeProcessingInstruction(String target, String data) throws XMLStreamException {
+        closeStartTag();
+        output.write('<');
+        output.write('?');
+        writeText(target, null);
+        if (data != null) {
+            output.write(' ');
+            writeText(data, null);
+        }
+        output.write('?');
+        output.write('>');
+    }
+
+    public void writeCData(String data) throws XMLStreamException {
+        state = SEEN_DATA;
+        closeStartTag();
+        output.writeBytes(CDATA_START);
+        writeText(data, null);
+        output.writeBytes(CDATA_END);
+    }
+
+    public void writeDTD(String dtd) throws XMLStreamException {
+        closeStartTag();
+        writeText(dtd, null);
+    }
+
+    public void writeEntityRef(String name) throws XMLStreamException {
+        closeStartTag();
+        output.write('&');
+        writeText(name, null);
+        output.write(';');
+    }
+
+    public void writeStartDocument() throws XMLStreamException {
+        output.writeBytes(DECLARATION);
+    }
+
+    public void writeStartDocument(String version) throws XMLStreamException {
+        writeStartDocument(null, version);
+    }
+
+    /**
+     * Writes the XML declaration, as the JDK writer does.
+     *
+     * @param encoding encoding of the document, must be UTF-8 as the bytes are always encoded in UTF-8, null or empty
+     *                 to leave the encoding out of the declaration
+     * @param version  version of the XML document, null or empty for 1.0
+     * @throws XMLStreamException if the encoding is not UTF-8
+     */
+    public void writeStartDocument(String encoding, String version) throws XMLStreamException {
+        boolean noEncoding = encoding == null || encoding.isEmpty();
+        boolean noVersion = version == null || version.isEmpty();
+        if (noEncoding && noVersion) {
+            output.writeBytes(DECLARATION);
+            return;
+        }
+        if (!noEncoding && !encoding.equalsIgnoreCase("UTF-8"))
+            throw new XMLStreamException("Underlying stream encoding 'UTF-8' and input parameter for "
+                    + "writeStartDocument() method '" + encoding + "' do not match.");
+        output.writeBytes(VERSION);
+        writeText(noVersion ? "1.0" : version, null);
+        if (!noEncoding) {
+            output.writeBytes(ENCODING);
+            writeText(encoding, null);
+        }
+        output.writeBytes(DECLARATION_END);
+    }
+
+    public void writeCharacters(String text) throws XMLStreamException {
+        state = SEEN_DATA;
+        closeStartTag();
+        writeText(text, TEXT_ESCAPES);
+    }
+
+    public void writeCharacters(char[] text, int start, int len) throws XMLStreamException {
+        writeCharacters(new String(text, start, len));
+    }
+
+    /**
+     * Writes an integer as text, without creating a {@code String}.
+     *
+     * @param value value to write
+     */
+    public void writeCharacters(long value) throws XMLStreamException {
+        state = SEEN_DATA;
+        closeStartTag();
+        writeDecimal(value);
+    }
+
+    /**
+     * Writes a double as text, formatted as {@link Double#toString(double)}.
+     *
+     * @param value value to write
+     */
+    public void writeCharacters(double value) throws XMLStreamException {
+        state = SEEN_DATA;
+        closeStartTag();
+        writeText(Double.toString(value), null);
+    }
+
+    // namespaces:
+
+    public String getPrefix(String uri) throws XMLStreamException {
+        for (int i = bindingUris.size() - 1; i >= 0; i--) {
+            if (bindingUris.get(i).equals(uri)) {
+                String prefix = bindingPrefixes.get(i);
+                // the prefix may be bound again later
+                if (Objects.equals(getNamespaceURI(prefix), uri)) return prefix;
+            }
+        }
+        return rootContext == null ? null : rootContext.getPrefix(uri);
+    }
+
+    private String getNamespaceURI(String prefix) {
+        for (int i = bindingPrefixes.size() - 1; i >= 0; i--) {
+            if (bindingPrefixes.get(i).equals(prefix)) return bindingUris.get(i);
+        }
+        return rootContext == null ? null : rootContext.getNamespaceURI(prefix);
+    }
+
+    public void setPrefix(String prefix, String uri) throws XMLStreamException {
+        if (prefix == null) throw new XMLStreamException("Prefix cannot be null");
+        if (uri == null) throw new XMLStreamException("URI cannot be null");
+        bindingPrefixes.add(prefix);
+        bindingUris.add(uri);
+    }
+
+    public void setDefaultNamespace(String uri) throws XMLStreamException {
+        setPrefix(XMLConstants.DEFAULT_NS_PREFIX, uri);
+    }
+
+    public NamespaceContext getNamespaceContext() {
+        return new NamespaceContext() {
+            @Override
+            public String getNamespaceURI(String prefix) {
+                String uri = FastXMLStreamWriter.this.getNamespaceURI(prefix);
+                return uri == null ? XMLConstants.NULL_NS_URI : uri;
+            }
+
+            @Override
+            public String getPrefix(String namespaceURI) {
+                try {
+                    return FastXMLStreamWriter.this.getPrefix(namespaceURI);
+                } catch (XMLStreamException ex) {
+                    return null;
+                }
+            }
+
+            @Override
+            public Iterator<String> getPrefixes(String namespaceURI) {
+                String prefix = getPrefix(namespaceURI);
+                return prefix == null ? Collections.emptyIterator() : List.of(prefix).iterator();
+            }
+        };
+    }
+
+    public void setNamespaceContext(NamespaceContext context) throws XMLStreamException {
+        this.rootContext = context;
+    }
+
+    public Object getProperty(String name) throws IllegalArgumentException {
+        if (XMLOutputFactory.IS_REPAIRING_NAMESPACES.equals(name)) return Boolean.FALSE;
+        throw new IllegalArgumentException("Property " + name + " is not supported");
+    }
+}
@@ -0,0 +1,305 @@
+package pdk.util.io;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.jspecify.annotations.Nullable;
+import pdk.util.exception.PDKRuntimeException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Random access to the spectra and chromatograms of an indexedmzML file, through its offset index.
+ * <p>
+ * Only the end of the file is read when the reader is opened: the {@code <indexListOffset>} gives the position of the
+ * {@code <indexList>}, which maps the id of each spectrum and chromatogram to the byte offset of its element. An
+ * element is then parsed by an {@link XMLStreamReader} over positional reads of the file channel, bounded by the next
+ * offset of the index, so the cost of a lookup does not depend on the file size. Positional reads do not change the
+ * channel position, so elements can be read from several threads.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 17 Oct 2026, 10:15 AM
+ */
+public class IndexedMzMLReader implements AutoCloseable {
+
+    /**
+     * name of the spectrum index
+     */
+    public static final String SPECTRUM = "spectrum";
+    /**
+     * name of the chromatogram index
+     */
+    public static final String CHROMATOGRAM = "chromatogram";
+
+    private static final Pattern INDEX_LIST_OFFSET = Pattern.compile("<indexListOffset>\\s*(\\d+)\\s*</indexListOffset>");
+    private static final int TAIL_SIZE = 4096;
+
+    private static final ThreadLocal<XMLInputFactory> FACTORY = ThreadLocal.withInitial(() -> {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        return factory;
+    });
+
+    /**
+     * The entries of an index, in document order.
+     */
+    private record Index(String[] ids, long[] offsets, Object2IntOpenHashMap<String> ordinals) {}
+
+    private final FileChannel channel;
+    private final long size;
+    private final Map<String, Index> indexes = new LinkedHashMap<>();
+    /**
+     * offsets of all indexed elements and of the index list, sorted, to bound the elements
+     */
+    private final long[] bounds;
+
+    /**
+     * Opens an indexedmzML file and reads its index.
+     *
+     * @param file indexedmzML file
+     * @throws IOException if the file cannot be read
+     */
+    public IndexedMzMLReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            this.size = channel.size();
+            long indexListOffset = readIndexListOffset();
+            readIndexList(indexListOffset);
+            LongArrayList all = new LongArrayList();
+            for (Index index : indexes.values())
+                all.addElements(all.size(), index.offsets());
+            all.add(indexListOffset);
+            this.bounds = all.toLongArray();
+            Arrays.sort(bounds);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    private long readIndexListOffset() throws IOException {
+        int length = (int) Math.min(size, TAIL_SIZE);
+        ByteBuffer tail = ByteBuffer.allocate(length);
+        long position = size - length;
+        while (tail.hasRemaining()) {
+            if (channel.read(tail, position + tail.position()) < 0) break;
+        }
+        Matcher matcher = INDEX_LIST_OFFSET.matcher(new String(tail.array(), 0, tail.position(), StandardCharsets.US_ASCII));
+        if (!matcher.find()) throw new PDKRuntimeException("Not an indexedmzML file, <indexListOffset> not found.");
+        long offset = Long.parseLong(matcher.group(1));
+        if (offset < 0 || offset >= size) throw new PDKRuntimeException("Invalid <indexListOffset>: " + offset);
+        return offset;
+    }
+
+    private void readIndexList(long offset) throws IOException {
+        try {
+            XMLStreamReader reader = createReader(offset, size);
+            try {
+                if (reader.nextTag() != XMLStreamConstants.START_ELEMENT || !reader.getLocalName().equals("indexList"))
+                    throw new PDKRuntimeException("<indexListOffset> does not point to <indexList>: " + offset);
+                String name = null;
+                ObjectArrayList<String> ids = new ObjectArrayList<>();
+                LongArrayList offsets = new LongArrayList();
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        switch (reader.getLocalName()) {
+                            case "index" -> name = XMLUtils.requiredAttr(reader, "name");
+                            case "offset" -> {
+                                ids.add(XMLUtils.requiredAttr(reader, "idRef"));
+                                offsets.add(Long.parseLong(reader.getElementText().trim()));
+                            }
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        String localName = reader.getLocalName();
+                        if (localName.equals("index")) {
+                            addIndex(name, ids, offsets);
+                            ids.clear();
+                            offsets.clear();
+                        } else if (localName.equals("indexList")) {
+                            break;
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | NumberFormatException ex) {
+            throw new PDKRuntimeException(ex);
+        }
+    }
+
+    private void addIndex(String name, ObjectArrayList<String> ids, LongArrayList offsets) {
+        Object2IntOpenHashMap<String> ordinals = new Object2IntOpenHashMap<>(ids.size());
+        ordinals.defaultReturnValue(-1);
+        for (int i = 0; i < ids.size(); i++) {
+            long offset = offsets.getLong(i);
+            if (offset < 0 || offset >= size)
+                throw new PDKRuntimeException("Invalid offset of " + name + " " + ids.get(i) + ": " + offset);
+            ordinals.put(ids.get(i), i);
+        }
+        indexes.put(name, new Index(ids.toArray(new String[0]), offsets.toLongArray(), ordinals));
+    }
+
+    private XMLStreamReader createReader(long from, long to) throws XMLStreamException {
+        return FACTORY.get().createXMLStreamReader(new BufferedInputStream(new ChannelInputStream(from, to), 8192),
+                "UTF-8");
+    }
+
+    /**
+     * Returns the names of the indexes, usually {@link #SPECTRUM} and {@link #CHROMATOGRAM}.
+     *
+     * @return index names
+     */
+    public Set<String> indexNames() {
+        return Collections.unmodifiableSet(indexes.keySet());
+    }
+
+    private Index index(String indexName) {
+        Index index = indexes.get(indexName);
+        if (index == null) throw new IllegalArgumentException("No index named " + indexName + ".");
+        return index;
+    }
+
+    /**
+     * Returns the ids of an index, in document order.
+     *
+     * @param indexName index name
+     * @return ids of the indexed elements
+     */
+    public List<String> ids(String indexName) {
+        return List.of(index(indexName).ids());
+    }
+
+    /**
+     * Returns the ids of the spectra, in document order.
+     *
+     * @return spectrum ids
+     */
+    public List<String> spectrumIds() {
+        return indexes.containsKey(SPECTRUM) ? ids(SPECTRUM) : List.of();
+    }
+
+    /**
+     * Returns the byte offset of an element.
+     *
+     * @param indexName index name
+     * @param id        element id
+     * @return offset of the element, -1 if the id is not in the index
+     */
+    public long offset(String indexName, String id) {
+        Index index = index(indexName);
+        int ordinal = index.ordinals().getInt(id);
+        return ordinal < 0 ? -1 : index.offsets()[ordinal];
+    }
+
+    /**
+     * Opens a reader on an element. The reader is at the start tag of the element, and ends after the element.
+     *
+     * @param indexName index name, also the local name of the element
+     * @param id        element id
+     * @return a reader at the start tag of the element, null if the id is not in the index
+     */
+    public @Nullable XMLStreamReader open(String indexName, String id) throws XMLStreamException {
+        long offset = offset(indexName, id);
+        if (offset < 0) return null;
+        int next = Arrays.binarySearch(bounds, offset) + 1;
+        while (next < bounds.length && bounds[next] == offset) next++;
+        long end = next < bounds.length ? bounds[next] : size;
+        XMLStreamReader reader = createReader(offset, end);
+        if (reader.nextTag() != XMLStreamConstants.START_ELEMENT || !reader.getLocalName().equals(indexName)) {
+            reader.close();
+            throw new PDKRuntimeException("Offset " + offset + " of " + indexName + " " + id + " does not point to <"
+                    + indexName + ">.");
+        }
+        return reader;
+    }
+
+    /**
+     * Parses an element.
+     *
+     * @param indexName index name, also the local name of the element
+     * @param id        element id
+     * @param parser    parser of the element
+     * @return the parsed element, null if the id is not in the index
+     */
+    public <T> @Nullable T read(String indexName, String id, ParallelXMLReader.ElementParser<T> parser)
+            throws PDKRuntimeException {
+        try {
+            XMLStreamReader reader = open(indexName, id);
+            if (reader == null) return null;
+            try {
+                return parser.parse(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException ex) {
+            throw new PDKRuntimeException(ex);
+        }
+    }
+
+    /**
+     * Parses a spectrum.
+     *
+     * @param id     spectrum id
+     * @param parser parser of the spectrum element
+     * @return the parsed spectrum, null if the id is not in the index
+     */
+    public <T> @Nullable T readSpectrum(String id, ParallelXMLReader.ElementParser<T> parser) throws PDKRuntimeException {
+        return read(SPECTRUM, id, parser);
+    }
+
+    /**
+     * Closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads a range of the file with positional reads.
+     */
+    private final class ChannelInputStream extends InputStream {
+
+        private long position;
+        private final long end;
+
+        ChannelInputStream(long position, long end) {
+            this.position = position;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, b.length);
+            if (position >= end) return -1;
+            if (len == 0) return 0;
+            int n = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, end - position)), position);
+            if (n < 0) return -1;
+            position += n;
+            return n;
+        }
+    }
+}
@@ -4,6 +4,12 @@ import pdk.util.exception.PDKRuntimeException;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
 
 import static java.util.Objects.requireNonNull;
 
@@ -22,6 +28,17 @@ public class Input extends InputStream {
      */
     public static final int maxArraySize = Integer.MAX_VALUE - 8;
 
+    static final VarHandle SHORT_VIEW = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+    static final VarHandle INT_VIEW = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    static final ValueLayout.OfShort SHORT_LE = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    static final ValueLayout.OfChar CHAR_LE = ValueLayout.JAVA_CHAR_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    static final ValueLayout.OfInt INT_LE = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    static final ValueLayout.OfLong LONG_LE = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    static final ValueLayout.OfFloat FLOAT_LE = ValueLayout.JAVA_FLOAT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    static final ValueLayout.OfDouble DOUBLE_LE = ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
     /**
      * buffer to hold data
      */
@@ -44,10 +61,19 @@ public class Input extends InputStream {
     protected long total;
     protected char[] chars = new char[32];
     protected InputStream inputStream;
+    /**
+     * strings read in this session, null if string dictionary is disabled
+     */
+    protected ArrayList<String> strings;
     /**
      * true if enable variable encoding
      */
     protected boolean varEncoding = true;
+    /**
+     * scratch arrays of the StreamVByte decoders, grown on demand
+     */
+    private byte[] vbyteControl;
+    private byte[] vbyteBlock;
 
     /**
      * Creates an uninitialized Input, {@link #setBuffer(byte[])} must be called before the Input is used.
@@ -112,6 +138,29 @@ public class Input extends InputStream {
         this.inputStream = inputStream;
     }
 
+    /**
+     * Returns an Input reading from the stream with a 4096 byte buffer borrowed from the
+     * {@link BufferPool#getDefault() default pool}. The buffer is returned to the pool by {@link PooledInput#close()}.
+     *
+     * @param inputStream stream to read
+     * @return a pooled Input
+     */
+    public static PooledInput borrow(InputStream inputStream) {
+        return new PooledInput(BufferPool.getDefault(), inputStream, 4096);
+    }
+
+    /**
+     * Returns an Input reading from the stream with a buffer borrowed from the
+     * {@link BufferPool#getDefault() default pool}. The buffer is returned to the pool by {@link PooledInput#close()}.
+     *
+     * @param inputStream stream to read
+     * @param bufferSize  minimum buffer size
+     * @return a pooled Input
+     */
+    public static PooledInput borrow(InputStream inputStream, int bufferSize) {
+        return new PooledInput(BufferPool.getDefault(), inputStream, bufferSize);
+    }
+
     /**
      * Sets a new buffer. The offset is 0 and the count is the buffer's length.
      *
@@ -139,6 +188,7 @@ public class Input extends InputStream {
         capacity = bytes.length;
         total = 0;
         inputStream = null;
+        clearStrings();
     }
 
     /**
@@ -190,6 +240,28 @@ public class Input extends InputStream {
         this.varEncoding = varEncoding;
     }
 
+    /**
+     * Returns true if string dictionary is enabled.
+     *
+     * @return true if string dictionary is enabled
+     * @see #setStringDictionary(boolean)
+     */
+    public boolean getStringDictionary() {
+        return strings != null;
+    }
+
+    /**
+     * If true, {@link #readString()} reads strings written by an {@link Output} with
+     * {@link Output#setStringDictionary(boolean)} enabled, and a repeated string is returned as the instance read at its
+     * first occurrence. The dictionary lasts until {@link #reset()}. Default is false.
+     *
+     * @param stringDictionary true to enable string dictionary
+     */
+    public void setStringDictionary(boolean stringDictionary) {
+        if (!stringDictionary) strings = null;
+        else if (strings == null) strings = new ArrayList<>();
+    }
+
     /**
      * Returns the total number of bytes read.
      *
@@ -251,6 +323,14 @@ public class Input extends InputStream {
     public void reset() {
         position = 0;
         total = 0;
+        clearStrings();
+    }
+
+    /**
+     * Forgets the strings read, so that the string dictionary starts over as for a new {@link Output}.
+     */
+    protected void clearStrings() {
+        if (strings != null) strings.clear();
     }
 
     /**
@@ -580,13 +660,9 @@ public class Input extends InputStream {
      */
     public int readInt() throws PDKRuntimeException {
         require(4);
-        byte[] buffer = this.buffer;
         int p = this.position;
         this.position = p + 4;
-        return buffer[p] & 0xFF //
-                | (buffer[p + 1] & 0xFF) << 8 //
-                | (buffer[p + 2] & 0xFF) << 16 //
-                | (buffer[p + 3] & 0xFF) << 24;
+        return (int) INT_VIEW.get(buffer, p);
     }
 
     /**
@@ -777,17 +853,9 @@ public class Input extends InputStream {
      */
     public long readLong() throws PDKRuntimeException {
         require(8);
-        byte[] buffer = this.buffer;
         int p = position;
         position = p + 8;
-        return buffer[p] & 0xFF //
-                | (buffer[p + 1] & 0xFF) << 8 //
-                | (buffer[p + 2] & 0xFF) << 16 //
-                | (long) (buffer[p + 3] & 0xFF) << 24 //
-                | (long) (buffer[p + 4] & 0xFF) << 32 //
-                | (long) (buffer[p + 5] & 0xFF) << 40 //
-                | (long) (buffer[p + 6] & 0xFF) << 48 //
-                | (long) buffer[p + 7] << 56;
+        return (long) LONG_VIEW.get(buffer, p);
     }
 
     /**
@@ -944,13 +1012,9 @@ public class Input extends InputStream {
      */
     public float readFloat() throws PDKRuntimeException {
         require(4);
-        byte[] buffer = this.buffer;
         int p = this.position;
         this.position = p + 4;
-        return Float.intBitsToFloat(buffer[p] & 0xFF //
-                | (buffer[p + 1] & 0xFF) << 8 //
-                | (buffer[p + 2] & 0xFF) << 16 //
-                | (buffer[p + 3] & 0xFF) << 24);
+        return Float.intBitsToFloat((int) INT_VIEW.get(buffer, p));
     }
 
     /**
@@ -967,17 +1031,9 @@ public class Input extends InputStream {
      */
     public double readDouble() throws PDKRuntimeException {
         require(8);
-        byte[] buffer = this.buffer;
         int p = position;
         position = p + 8;
-        return Double.longBitsToDouble(buffer[p] & 0xFF //
-                | (buffer[p + 1] & 0xFF) << 8 //
-                | (buffer[p + 2] & 0xFF) << 16 //
-                | (long) (buffer[p + 3] & 0xFF) << 24 //
-                | (long) (buffer[p + 4] & 0xFF) << 32 //
-                | (long) (buffer[p + 5] & 0xFF) << 40 //
-                | (long) (buffer[p + 6] & 0xFF) << 48 //
-                | (long) buffer[p + 7] << 56);
+        return Double.longBitsToDouble((long) LONG_VIEW.get(buffer, p));
     }
 
     /**
@@ -996,7 +1052,7 @@ public class Input extends InputStream {
         require(2);
         int p = position;
         position = p + 2;
-        return (short) ((buffer[p] & 0xFF) | ((buffer[p + 1] & 0xFF)) << 8);
+        return (short) SHORT_VIEW.get(buffer, p);
     }
 
     /**
@@ -1018,7 +1074,7 @@ public class Input extends InputStream {
         require(2);
         int p = position;
         position = p + 2;
-        return (char) ((buffer[p] & 0xFF) | ((buffer[p + 1] & 0xFF)) << 8);
+        return (char) (short) SHORT_VIEW.get(buffer, p);
     }
 
     // boolean:
@@ -1035,11 +1091,29 @@ public class Input extends InputStream {
 
     /**
      * Reads the length and string of UTF8 characters, or null. This can read strings written by
-     * {@link Output#writeString(String)} and {@link Output#writeAscii(String)}.
+     * {@link Output#writeString(String)} and {@link Output#writeAscii(String)}. With
+     * {@link #setStringDictionary(boolean) string dictionary} enabled, a repeated string is returned as the cached
+     * instance.
      *
      * @return May be null.
      */
     public String readString() {
+        if (strings != null) {
+            int tag = readVarInt(true);
+            if (tag == 0) return null;
+            if (tag > 1) {
+                if (tag - 2 >= strings.size())
+                    throw new PDKRuntimeException("Invalid string reference: " + (tag - 2) + ", strings: " + strings.size());
+                return strings.get(tag - 2);
+            }
+            String value = readStringValue();
+            strings.add(value);
+            return value;
+        }
+        return readStringValue();
+    }
+
+    private String readStringValue() {
         if (!readVarIntFlag()) return readAsciiString(); // ASCII.
         // Null, empty, or UTF8.
         int charCount = readVarIntFlag(true);
@@ -1062,6 +1136,10 @@ public class Input extends InputStream {
      * @return May be null.
      */
     public StringBuilder readStringBuilder() {
+        if (strings != null) {
+            String value = readString();
+            return value == null ? null : new StringBuilder(value);
+        }
         if (!readVarIntFlag()) return new StringBuilder(readAsciiString()); // ASCII.
         // Null, empty, or UTF8.
         int charCount = readVarIntFlag(true);
@@ -1172,28 +1250,53 @@ public class Input extends InputStream {
 
     // Primitive arrays:
 
+    /**
+     * Ensures at least one element of {@code 1 << shift} bytes is buffered and returns the number of elements, up to
+     * count, which can be copied from the buffer.
+     */
+    private int requireElements(int count, int shift) {
+        int available = (limit - position) >> shift;
+        if (available == 0) {
+            require((int) Math.min((long) count << shift, capacity));
+            available = (limit - position) >> shift;
+        }
+        return Math.min(count, available);
+    }
+
+    /**
+     * Copies count little endian elements from the buffer to a primitive array, refilling the buffer as needed.
+     */
+    private void readArray(Object array, int offset, int count, ValueLayout layout, int shift) {
+        while (count > 0) {
+            int n = requireElements(count, shift);
+            MemorySegment.copy(MemorySegment.ofArray(buffer), layout, position, array, offset, n);
+            position += n << shift;
+            offset += n;
+            count -= n;
+        }
+    }
+
     /**
      * Reads an int array in bulk. This may be more efficient than reading them individually.
      */
     public int[] readInts(int length) throws PDKRuntimeException {
         int[] array = new int[length];
-        if (optional(length << 2) == length << 2) {
-            byte[] buffer = this.buffer;
-            int p = this.position;
-            for (int i = 0; i < length; i++, p += 4) {
-                array[i] = buffer[p] & 0xFF //
-                        | (buffer[p + 1] & 0xFF) << 8 //
-                        | (buffer[p + 2] & 0xFF) << 16 //
-                        | (buffer[p + 3] & 0xFF) << 24;
-            }
-            position = p;
-        } else {
-            for (int i = 0; i < length; i++)
-                array[i] = readInt();
-        }
+        readInts(array, 0, length);
         return array;
     }
 
+    /**
+     * Reads count ints into the given array, starting at offset.
+     *
+     * @param array  array to store the values
+     * @param offset offset in the array
+     * @param count  number of int to read
+     * @throws PDKRuntimeException for reading error
+     */
+    public void readInts(int[] array, int offset, int count) throws PDKRuntimeException {
+        readArray(array, offset, count, INT_LE, 2);
+    }
+
     /**
      * Reads an int array in bulk using fixed or variable length encoding, depending on
      * {@link #setVariableLengthEncoding(boolean)}. This may be more efficient than reading them individually.
@@ -1213,27 +1316,22 @@ public class Input extends InputStream {
      */
     public long[] readLongs(int length) throws PDKRuntimeException {
         long[] array = new long[length];
-        if (optional(length << 3) == length << 3) {
-            byte[] buffer = this.buffer;
-            int p = this.position;
-            for (int i = 0; i < length; i++, p += 8) {
-                array[i] = buffer[p] & 0xFF //
-                        | (buffer[p + 1] & 0xFF) << 8 //
-                        | (buffer[p + 2] & 0xFF) << 16 //
-                        | (long) (buffer[p + 3] & 0xFF) << 24 //
-                        | (long) (buffer[p + 4] & 0xFF) << 32 //
-                        | (long) (buffer[p + 5] & 0xFF) << 40 //
-                        | (long) (buffer[p + 6] & 0xFF) << 48 //
-                        | (long) buffer[p + 7] << 56;
-            }
-            position = p;
-        } else {
-            for (int i = 0; i < length; i++)
-                array[i] = readLong();
-        }
+        readLongs(array, 0, length);
         return array;
     }
 
+    /**
+     * Reads count longs into the given array, starting at offset.
+     *
+     * @param array  array to store the values
+     * @param offset offset in the array
+     * @param count  number of long to read
+     * @throws PDKRuntimeException for reading error
+     */
+    public void readLongs(long[] array, int offset, int count) throws PDKRuntimeException {
+        readArray(array, offset, count, LONG_LE, 3);
+    }
+
     /**
      * Reads an int array in bulk using fixed or variable length encoding, depending on
      * {@link #setVariableLengthEncoding(boolean)}. This may be more efficient than reading them individually.
@@ -1248,28 +1346,234 @@ public class Input extends InputStream {
         return readLongs(length);
     }
 
+    /**
+     * Reads count int values written by {@link Output#writeVByteInts(int[], int, int, boolean)} into the given array.
+     *
+     * @param array            array to store the values
+     * @param offset           offset in the array
+     * @param count            number of values to read
+     * @param optimizePositive must be the same value used for writing
+     * @throws PDKRuntimeException for reading error
+     */
+    public void readVByteInts(int[] array, int offset, int count, boolean optimizePositive) throws PDKRuntimeException {
+        byte[] control = vbyteControl(StreamVByte.intControlLength(StreamVByte.BLOCK_SIZE));
+        byte[] block = null;
+        while (count > 0) {
+            int n = Math.min(count, StreamVByte.BLOCK_SIZE);
+            readBytes(control, 0, StreamVByte.intControlLength(n));
+            int length = StreamVByte.intDataLength(control, n);
+            if (length <= capacity) {
+                require(length);
+                int p = position;
+                position += length;
+                if (p + length + 3 <= buffer.length) {
+                    StreamVByte.decodeInts(control, n, optimizePositive, buffer, p, array, offset);
+                    offset += n;
+                    count -= n;
+                    continue;
+                }
+                if (block == null) block = vbyteBlock(StreamVByte.maxIntBlockLength(StreamVByte.BLOCK_SIZE));
+                System.arraycopy(buffer, p, block, 0, length);
+            } else {
+                if (block == null) block = vbyteBlock(StreamVByte.maxIntBlockLength(StreamVByte.BLOCK_SIZE));
+                readBytes(block, 0, length);
+            }
+            StreamVByte.decodeInts(control, n, optimizePositive, block, 0, array, offset);
+            offset += n;
+            count -= n;
+        }
+    }
+
+    private byte[] vbyteControl(int length) {
+        byte[] control = vbyteControl;
+        if (control == null || control.length < length) vbyteControl = control = new byte[length];
+        return control;
+    }
+
+    private byte[] vbyteBlock(int length) {
+        byte[] block = vbyteBlock;
+        if (block == null || block.length < length) vbyteBlock = block = new byte[length];
+        return block;
+    }
+
+    /**
+     * Reads an int array written by {@link Output#writeVByteInts(int[], int, int, boolean)}.
+     *
+     * @param length           number of values to read
+     * @param optimizePositive must be the same value used for writing
+     * @return read int values
+     * @throws PDKRuntimeException for reading error
+     */
+    public int[] readVByteInts(int length, boolean optimizePositive) throws PDKRuntimeException {
+        int[] array = new int[length];
+        readVByteInts(array, 0, length, optimizePositive);
+        return array;
+    }
+
+    /**
+     * Reads count long values written by {@link Output#writeVByteLongs(long[], int, int, boolean)} into the given
+     * array.
+     *
+     * @param array            array to store the values
+     * @param offset           offset in the array
+     * @param count            number of values to read
+     * @param optimizePositive must be the same value used for writing
+     * @throws PDKRuntimeException for reading error
+     */
+    public void readVByteLongs(long[] array, int offset, int count, boolean optimizePositive) throws PDKRuntimeException {
+        byte[] control = vbyteControl(StreamVByte.longControlLength(StreamVByte.BLOCK_SIZE));
+        byte[] block = null;
+        while (count > 0) {
+            int n = Math.min(count, StreamVByte.BLOCK_SIZE);
+            readBytes(control, 0, StreamVByte.longControlLength(n));
+            int length = StreamVByte.longDataLength(control, n);
+            if (length <= capacity) {
+                require(length);
+                int p = position;
+                position += length;
+                if (p + length + 7 <= buffer.length) {
+                    StreamVByte.decodeLongs(control, n, optimizePositive, buffer, p, array, offset);
+                    offset += n;
+                    count -= n;
+                    continue;
+                }
+                if (block == null) block = vbyteBlock(StreamVByte.maxLongBlockLength(StreamVByte.BLOCK_SIZE));
+                System.arraycopy(buffer, p, block, 0, length);
+            } else {
+                if (block == null) block = vbyteBlock(StreamVByte.maxLongBlockLength(StreamVByte.BLOCK_SIZE));
+                readBytes(block, 0, length);
+            }
+            StreamVByte.decodeLongs(control, n, optimizePositive, block, 0, array, offset);
+            offset += n;
+            count -= n;
+        }
+    }
+
+    /**
+     * Reads a long array written by {@link Output#writeVByteLongs(long[], int, int, boolean)}.
+     *
+     * @param length           number of values to read
+     * @param optimizePositive must be the same value used for writing
+     * @return read long values
+     * @throws PDKRuntimeException for reading error
+     */
+    public long[] readVByteLongs(int length, boolean optimizePositive) throws PDKRuntimeException {
+        long[] array = new long[length];
+        readVByteLongs(array, 0, length, optimizePositive);
+        return array;
+    }
+
+    /**
+     * Reads count long values written by {@link Output#writeSortedLongs(long[], int, int)} into the given array.
+     *
+     * @param array  array to store the values
+     * @param offset offset in the array
+     * @param count  number of values to read
+     * @throws PDKRuntimeException for reading error
+     */
+    public void readSortedLongs(long[] array, int offset, int count) throws PDKRuntimeException {
+        long value = 0;
+        for (int n = offset + count; offset < n; offset++) {
+            value += readVarLong(true);
+            array[offset] = value;
+        }
+    }
+
+    /**
+     * Reads a long array written by {@link Output#writeSortedLongs(long[], int, int)}.
+     *
+     * @param length number of values to read
+     * @return read long values
+     * @throws PDKRuntimeException for reading error
+     */
+    public long[] readSortedLongs(int length) throws PDKRuntimeException {
+        long[] array = new long[length];
+        readSortedLongs(array, 0, length);
+        return array;
+    }
+
+    /**
+     * Reads count int values written by {@link Output#writeDeltaInts(int[], int, int)} into the given array.
+     *
+     * @param array  array to store the values
+     * @param offset offset in the array
+     * @param count  number of values to read
+     * @throws PDKRuntimeException for reading error
+     */
+    public void readDeltaInts(int[] array, int offset, int count) throws PDKRuntimeException {
+        int value = 0;
+        for (int n = offset + count; offset < n; offset++) {
+            value += readVarInt(false);
+            array[offset] = value;
+        }
+    }
+
+    /**
+     * Reads an int array written by {@link Output#writeDeltaInts(int[], int, int)}.
+     *
+     * @param length number of values to read
+     * @return read int values
+     * @throws PDKRuntimeException for reading error
+     */
+    public int[] readDeltaInts(int length) throws PDKRuntimeException {
+        int[] array = new int[length];
+        readDeltaInts(array, 0, length);
+        return array;
+    }
+
+    /**
+     * Reads count double values written by {@link Output#writeDeltaDoubles(double[], int, int, double)} into the
+     * given array.
+     *
+     * @param array     array to store the values
+     * @param offset    offset in the array
+     * @param count     number of values to read
+     * @param precision must be the same value used for writing
+     * @throws PDKRuntimeException for reading error
+     */
+    public void readDeltaDoubles(double[] array, int offset, int count, double precision) throws PDKRuntimeException {
+        long value = 0;
+        for (int n = offset + count; offset < n; offset++) {
+            value += readVarLong(false);
+            array[offset] = value / precision;
+        }
+    }
+
+    /**
+     * Reads a double array written by {@link Output#writeDeltaDoubles(double[], int, int, double)}.
+     *
+     * @param length    number of values to read
+     * @param precision must be the same value used for writing
+     * @return read double values
+     * @throws PDKRuntimeException for reading error
+     */
+    public double[] readDeltaDoubles(int length, double precision) throws PDKRuntimeException {
+        double[] array = new double[length];
+        readDeltaDoubles(array, 0, length, precision);
+        return array;
+    }
+
     /**
      * Reads a float array in bulk. This may be more efficient than reading them individually.
      */
     public float[] readFloats(int length) throws PDKRuntimeException {
         float[] array = new float[length];
-        if (optional(length << 2) == length << 2) {
-            byte[] buffer = this.buffer;
-            int p = this.position;
-            for (int i = 0; i < length; i++, p += 4) {
-                array[i] = Float.intBitsToFloat(buffer[p] & 0xFF //
-                        | (buffer[p + 1] & 0xFF) << 8 //
-                        | (buffer[p + 2] & 0xFF) << 16 //
-                        | (buffer[p + 3] & 0xFF) << 24);
-            }
-            position = p;
-        } else {
-            for (int i = 0; i < length; i++)
-                array[i] = readFloat();
-        }
+        readFloats(array, 0, length);
         return array;
     }
 
+    /**
+     * Reads count floats into the given array, starting at offset.
+     *
+     * @param array  array to store the values
+     * @param offset offset in the array
+     * @param count  number of float to read
+     * @throws PDKRuntimeException for reading error
+     */
+    public void readFloats(float[] array, int offset, int count) throws PDKRuntimeException {
+        readArray(array, offset, count, FLOAT_LE, 2);
+    }
+
     /**
      * Reads a double array in bulk. This may be more efficient than reading them individually.
      *
@@ -1279,27 +1583,22 @@ public class Input extends InputStream {
      */
     public double[] readDoubles(int length) throws PDKRuntimeException {
         double[] array = new double[length];
-        if (optional(length << 3) == length << 3) {
-            byte[] buffer = this.buffer;
-            int p = this.position;
-            for (int i = 0; i < length; i++, p += 8) {
-                array[i] = Double.longBitsToDouble(buffer[p] & 0xFF //
-                        | (buffer[p + 1] & 0xFF) << 8 //
-                        | (buffer[p + 2] & 0xFF) << 16 //
-                        | (long) (buffer[p + 3] & 0xFF) << 24 //
-                        | (long) (buffer[p + 4] & 0xFF) << 32 //
-                        | (long) (buffer[p + 5] & 0xFF) << 40 //
-                        | (long) (buffer[p + 6] & 0xFF) << 48 //
-                        | (long) buffer[p + 7] << 56);
-            }
-            position = p;
-        } else {
-            for (int i = 0; i < length; i++)
-                array[i] = readDouble();
-        }
+        readDoubles(array, 0, length);
         return array;
     }
 
+    /**
+     * Reads count doubles into the given array, starting at offset.
+     *
+     * @param array  array to store the values
+     * @param offset offset in the array
+     * @param count  number of double to read
+     * @throws PDKRuntimeException for reading error
+     */
+    public void readDoubles(double[] array, int offset, int count) throws PDKRuntimeException {
+        readArray(array, offset, count, DOUBLE_LE, 3);
+    }
+
     /**
      * Reads a short array in bulk. This may be more efficient than reading them individually.
      *
@@ -1309,16 +1608,7 @@ public class Input extends InputStream {
      */
     public short[] readShorts(int length) throws PDKRuntimeException {
         short[] array = new short[length];
-        if (optional(length << 1) == length << 1) {
-            byte[] buffer = this.buffer;
-            int p = this.position;
-            for (int i = 0; i < length; i++, p += 2)
-                array[i] = (short) ((buffer[p] & 0xFF) | ((buffer[p + 1] & 0xFF)) << 8);
-            position = p;
-        } else {
-            for (int i = 0; i < length; i++)
-                array[i] = readShort();
-        }
+        readArray(array, 0, length, SHORT_LE, 1);
         return array;
     }
 
@@ -1331,16 +1621,7 @@ public class Input extends InputStream {
      */
     public char[] readChars(int length) throws PDKRuntimeException {
         char[] array = new char[length];
-        if (optional(length << 1) == length << 1) {
-            byte[] buffer = this.buffer;
-            int p = this.position;
-            for (int i = 0; i < length; i++, p += 2)
-                array[i] = (char) ((buffer[p] & 0xFF) | ((buffer[p + 1] & 0xFF)) << 8);
-            position = p;
-        } else {
-            for (int i = 0; i < length; i++)
-                array[i] = readChar();
-        }
+        readArray(array, 0, length, CHAR_LE, 1);
         return array;
     }
 
@@ -1,7 +1,12 @@
 package pdk.util.io;
 
+import pdk.util.exception.PDKRuntimeException;
+
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A reader that can be iterated.
@@ -12,6 +17,60 @@ import java.util.Iterator;
  */
 public interface IterateReader<T> extends Iterator<T>, AutoCloseable {
 
+    /**
+     * Default number of records of a batch of {@link #parallelStream()}.
+     */
+    int DEFAULT_BATCH_SIZE = 256;
+
+    /**
+     * Returns the characteristics of the streams of this reader, {@link Spliterator#ORDERED} by default. An
+     * implementation whose {@link #next()} never returns null may add {@link Spliterator#NONNULL}.
+     *
+     * @return characteristics of the records, as {@link Spliterator#characteristics()}
+     */
+    default int characteristics() {
+        return Spliterator.ORDERED;
+    }
+
+    /**
+     * Returns a sequential stream of the remaining records. Closing the stream closes this reader.
+     *
+     * @return stream of records
+     */
+    default Stream<T> stream() {
+        return stream(DEFAULT_BATCH_SIZE, false);
+    }
+
+    /**
+     * Returns a parallel stream of the remaining records, read in batches of {@link #DEFAULT_BATCH_SIZE}.
+     * Closing the stream closes this reader.
+     *
+     * @return parallel stream of records
+     */
+    default Stream<T> parallelStream() {
+        return stream(DEFAULT_BATCH_SIZE, true);
+    }
+
+    /**
+     * Returns a stream of the remaining records, backed by a {@link BatchSpliterator} with the
+     * {@link #characteristics()} of this reader. The records are read sequentially, in batches processed in parallel
+     * by the common fork-join pool, or by the pool running the terminal operation. Closing the stream closes this
+     * reader.
+     *
+     * @param batchSize number of records read at a time for a parallel stream
+     * @param parallel  true for a parallel stream
+     * @return stream of records
+     */
+    default Stream<T> stream(int batchSize, boolean parallel) {
+        return StreamSupport.stream(new BatchSpliterator<>(this, batchSize, characteristics()), parallel).onClose(() -> {
+            try {
+                close();
+            } catch (IOException ex) {
+                throw new PDKRuntimeException(ex);
+            }
+        });
+    }
+
     /**
      * Closes this resource, relinquishing any underlying resources.
      * This method is invoked automatically on objects managed by the
@@ -0,0 +1,271 @@
+package pdk.util.io;
+
+import pdk.util.exception.PDKRuntimeException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An {@link Input} that reads from a memory-mapped file or any other {@link MemorySegment}.
+ * <p>
+ * Positions are {@code long}, so files larger than 2 GB can be read and {@link #seek(long) seeked} directly. Primitive
+ * values and strings are read through the byte[] buffer as usual, while the bulk array methods copy straight from the
+ * mapped segment into the target array without passing through the buffer.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 9:05 AM
+ */
+public class MappedInput extends Input {
+
+    private final FileChannel channel;
+    /**
+     * arena owning the mapping, null if the segment is managed by the caller
+     */
+    private final Arena arena;
+    private final MemorySegment segment;
+    private final long size;
+    /**
+     * offset in the segment of the next byte to copy into the buffer
+     */
+    private long fillOffset;
+
+    /**
+     * Maps the given file for reading with a buffer size of 4096.
+     *
+     * @param file file to read
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public MappedInput(Path file) throws IOException {
+        this(file, 4096);
+    }
+
+    /**
+     * Maps the given file for reading.
+     *
+     * @param file       file to read
+     * @param bufferSize size of the buffer used to read primitive values and strings
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public MappedInput(Path file, int bufferSize) throws IOException {
+        super(bufferSize);
+        requireNonNull(file);
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.arena = Arena.ofShared();
+        try {
+            this.segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+        } catch (IOException | RuntimeException ex) {
+            arena.close();
+            channel.close();
+            throw ex;
+        }
+        this.size = segment.byteSize();
+    }
+
+    /**
+     * Creates an Input reading from the given segment with a buffer size of 4096. The segment is not closed by
+     * {@link #close()}.
+     *
+     * @param segment segment to read
+     */
+    public MappedInput(MemorySegment segment) {
+        this(segment, 4096);
+    }
+
+    /**
+     * Creates an Input reading from the given segment. The segment is not closed by {@link #close()}.
+     *
+     * @param segment    segment to read
+     * @param bufferSize size of the buffer used to read primitive values and strings
+     */
+    public MappedInput(MemorySegment segment, int bufferSize) {
+        super(bufferSize);
+        this.segment = requireNonNull(segment);
+        this.size = segment.byteSize();
+        this.channel = null;
+        this.arena = null;
+    }
+
+    /**
+     * Returns the mapped segment.
+     *
+     * @return the segment this Input reads from
+     */
+    public MemorySegment getSegment() {
+        return segment;
+    }
+
+    /**
+     * Returns the number of bytes of the segment.
+     *
+     * @return segment size in bytes
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the offset in the segment of the next byte to be read.
+     *
+     * @return the read offset
+     */
+    public long filePosition() {
+        return fillOffset - (limit - position);
+    }
+
+    /**
+     * Moves the read offset to the given position of the segment. Buffered bytes are discarded and {@link #total()}
+     * is set to the new offset.
+     *
+     * @param offset new read offset, between 0 and {@link #size()}
+     */
+    public void seek(long offset) {
+        if (offset < 0 || offset > size)
+            throw new IllegalArgumentException("offset must be >= 0 and <= " + size + ": " + offset);
+        position = 0;
+        limit = 0;
+        total = offset;
+        fillOffset = offset;
+    }
+
+    /**
+     * Returns the number of bytes between the read offset and the end of the segment.
+     *
+     * @return remaining bytes
+     */
+    public long remaining() {
+        return size - filePosition();
+    }
+
+    /**
+     * Not supported, the buffer is managed by this Input.
+     */
+    @Override
+    public void setBuffer(byte[] bytes, int offset, int count) {
+        throw new UnsupportedOperationException("MappedInput does not support setBuffer.");
+    }
+
+    /**
+     * Not supported, this Input reads from a segment.
+     */
+    @Override
+    public void setInputStream(InputStream inputStream) {
+        throw new UnsupportedOperationException("MappedInput does not support setInputStream.");
+    }
+
+    @Override
+    public void reset() {
+        seek(0);
+        clearStrings();
+    }
+
+    @Override
+    public void setTotal(long total) {
+        throw new UnsupportedOperationException("Use seek(long) to move a MappedInput.");
+    }
+
+    @Override
+    protected int fill(byte[] buffer, int offset, int count) throws PDKRuntimeException {
+        long remaining = size - fillOffset;
+        if (remaining <= 0) return -1;
+        int n = (int) Math.min(count, remaining);
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, fillOffset, buffer, offset, n);
+        fillOffset += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, remaining());
+    }
+
+    /**
+     * Advances the read offset by count bytes.
+     *
+     * @param count number of bytes
+     * @return the read offset before advancing
+     */
+    private long advance(long count) {
+        long offset = filePosition();
+        if (count > size - offset) throw new BufferUnderflowException("Buffer underflow.");
+        if (count <= limit - position)
+            position += (int) count;
+        else
+            seek(offset + count);
+        return offset;
+    }
+
+    @Override
+    public void skip(int count) throws PDKRuntimeException {
+        advance(count);
+    }
+
+    @Override
+    public long skip(long count) throws PDKRuntimeException {
+        advance(count);
+        return count;
+    }
+
+    /**
+     * Closes the mapping and the underlying file, if this Input opened them.
+     */
+    @Override
+    public void close() throws PDKRuntimeException {
+        if (arena == null) return;
+        arena.close();
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    // Primitive arrays:
+
+    @Override
+    public void readBytes(byte[] bytes, int offset, int count) throws PDKRuntimeException {
+        requireNonNull(bytes);
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, advance(count), bytes, offset, count);
+    }
+
+    @Override
+    public void readInts(int[] array, int offset, int count) throws PDKRuntimeException {
+        MemorySegment.copy(segment, INT_LE, advance((long) count << 2), array, offset, count);
+    }
+
+    @Override
+    public void readLongs(long[] array, int offset, int count) throws PDKRuntimeException {
+        MemorySegment.copy(segment, LONG_LE, advance((long) count << 3), array, offset, count);
+    }
+
+    @Override
+    public void readFloats(float[] array, int offset, int count) throws PDKRuntimeException {
+        MemorySegment.copy(segment, FLOAT_LE, advance((long) count << 2), array, offset, count);
+    }
+
+    @Override
+    public void readDoubles(double[] array, int offset, int count) throws PDKRuntimeException {
+        MemorySegment.copy(segment, DOUBLE_LE, advance((long) count << 3), array, offset, count);
+    }
+
+    @Override
+    public short[] readShorts(int length) throws PDKRuntimeException {
+        short[] array = new short[length];
+        MemorySegment.copy(segment, SHORT_LE, advance((long) length << 1), array, 0, length);
+        return array;
+    }
+
+    @Override
+    public char[] readChars(int length) throws PDKRuntimeException {
+        char[] array = new char[length];
+        MemorySegment.copy(segment, CHAR_LE, advance((long) length << 1), array, 0, length);
+        return array;
+    }
+}
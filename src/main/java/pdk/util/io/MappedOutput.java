@@ -0,0 +1,281 @@
+package pdk.util.io;
+
+import pdk.util.exception.PDKRuntimeException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static java.util.Objects.requireNonNull;
+import static pdk.util.io.Input.*;
+
+/**
+ * An {@link Output} that writes to a memory-mapped file.
+ * <p>
+ * The file is mapped in regions which are remapped as writing proceeds, so the output is not limited to 2 GB.
+ * Positions are {@code long} and {@link #seek(long)} may be used to go back and overwrite bytes already written.
+ * Primitive values and strings are written to the byte[] buffer and copied to the mapping when it is flushed, while the
+ * bulk array methods copy straight from the source array into the mapping, except float and double arrays holding a
+ * NaN, which go through the buffer to write the canonical NaN as {@link Output} does. The file is truncated to the
+ * number of bytes written when the Output is closed.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 9:40 AM
+ */
+public class MappedOutput extends Output {
+
+    /**
+     * default size of a mapped region, 256 MB.
+     */
+    public static final long DEFAULT_REGION_SIZE = 1L << 28;
+
+    private final FileChannel channel;
+    private final long regionSize;
+    private Arena arena;
+    private MemorySegment region;
+    private long regionStart;
+    /**
+     * file offset of buffer[0]
+     */
+    private long fileOffset;
+    /**
+     * number of bytes in the file
+     */
+    private long length;
+
+    /**
+     * Creates an Output writing to the given file with a buffer size of 4096. An existing file is truncated.
+     *
+     * @param file file to write
+     * @throws IOException if the file cannot be opened
+     */
+    public MappedOutput(Path file) throws IOException {
+        this(file, 4096, DEFAULT_REGION_SIZE);
+    }
+
+    /**
+     * Creates an Output writing to the given file. An existing file is truncated.
+     *
+     * @param file       file to write
+     * @param bufferSize size of the buffer used to write primitive values and strings
+     * @param regionSize number of bytes mapped at a time
+     * @throws IOException if the file cannot be opened
+     */
+    public MappedOutput(Path file, int bufferSize, long regionSize) throws IOException {
+        super(bufferSize, bufferSize);
+        requireNonNull(file);
+        if (regionSize <= 0) throw new IllegalArgumentException("regionSize must be > 0: " + regionSize);
+        this.regionSize = regionSize;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Returns the file offset where the next byte will be written.
+     *
+     * @return the write offset
+     */
+    public long filePosition() {
+        return fileOffset + position;
+    }
+
+    /**
+     * Returns the number of bytes in the file, including bytes that have not been flushed.
+     *
+     * @return file length
+     */
+    public long length() {
+        return Math.max(length, filePosition());
+    }
+
+    /**
+     * Flushes the buffer and moves the write offset to the given position. {@link #total()} is set to the new offset.
+     *
+     * @param offset new write offset, between 0 and {@link #length()}
+     */
+    public void seek(long offset) {
+        flush();
+        if (offset < 0 || offset > length)
+            throw new IllegalArgumentException("offset must be >= 0 and <= " + length + ": " + offset);
+        fileOffset = offset;
+        total = offset;
+    }
+
+    /**
+     * Not supported, the buffer is managed by this Output.
+     */
+    @Override
+    public void setBuffer(byte[] buffer, int maxBufferSize) {
+        throw new UnsupportedOperationException("MappedOutput does not support setBuffer.");
+    }
+
+    /**
+     * Not supported, this Output writes to a file.
+     */
+    @Override
+    public void setOutputStream(OutputStream outputStream) {
+        throw new UnsupportedOperationException("MappedOutput does not support setOutputStream.");
+    }
+
+    /**
+     * Discards all written data, the buffered bytes are dropped and writing starts again at offset 0. The mapped region
+     * is kept and reused.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        fileOffset = 0;
+        length = 0;
+    }
+
+    /**
+     * Ensures [offset, offset + count) of the file is mapped.
+     *
+     * @return offset of the file offset in the mapped region
+     */
+    private long map(long offset, long count) {
+        if (region == null || offset < regionStart || offset + count > regionStart + region.byteSize()) {
+            if (arena != null) arena.close();
+            arena = Arena.ofShared();
+            try {
+                region = channel.map(FileChannel.MapMode.READ_WRITE, offset, Math.max(regionSize, count), arena);
+            } catch (IOException ex) {
+                throw new PDKRuntimeException(ex);
+            }
+            regionStart = offset;
+        }
+        return offset - regionStart;
+    }
+
+    /**
+     * Advances the write offset by count bytes after flushing the buffer.
+     *
+     * @return offset in the mapped region of the previous write offset
+     */
+    private long advance(long count) {
+        flush();
+        long offset = map(fileOffset, count);
+        fileOffset += count;
+        total = fileOffset;
+        length = Math.max(length, fileOffset);
+        return offset;
+    }
+
+    /**
+     * Copies the buffered bytes to the mapped file.
+     */
+    @Override
+    public void flush() throws PDKRuntimeException {
+        if (position == 0) return;
+        long offset = map(fileOffset, position);
+        MemorySegment.copy(buffer, 0, region, ValueLayout.JAVA_BYTE, offset, position);
+        fileOffset += position;
+        total = fileOffset;
+        length = Math.max(length, fileOffset);
+        position = 0;
+    }
+
+    /**
+     * Flushes the buffer and forces the mapped region to be written to the storage device.
+     */
+    public void force() {
+        flush();
+        if (region != null) region.force();
+    }
+
+    /**
+     * Flushes the buffer, unmaps the file and truncates it to {@link #length()}.
+     */
+    @Override
+    public void close() throws PDKRuntimeException {
+        if (!channel.isOpen()) return;
+        try {
+            flush();
+        } finally {
+            try {
+                if (arena != null) {
+                    arena.close();
+                    arena = null;
+                    region = null;
+                }
+            } finally {
+                try (channel) {
+                    channel.truncate(length);
+                } catch (IOException ex) {
+                    throw new PDKRuntimeException(ex);
+                }
+            }
+        }
+    }
+
+    // Primitive arrays:
+
+    @Override
+    public void writeBytes(byte[] bytes, int offset, int count) throws PDKRuntimeException {
+        requireNonNull(bytes);
+        if (count <= capacity - position) {
+            super.writeBytes(bytes, offset, count);
+            return;
+        }
+        long at = advance(count);
+        MemorySegment.copy(bytes, offset, region, ValueLayout.JAVA_BYTE, at, count);
+    }
+
+    @Override
+    public void writeInts(int[] array, int offset, int count) throws PDKRuntimeException {
+        long bytes = (long) count << 2;
+        long at = advance(bytes);
+        MemorySegment.copy(array, offset, region, INT_LE, at, count);
+    }
+
+    @Override
+    public void writeLongs(long[] array, int offset, int count) throws PDKRuntimeException {
+        long bytes = (long) count << 3;
+        long at = advance(bytes);
+        MemorySegment.copy(array, offset, region, LONG_LE, at, count);
+    }
+
+    @Override
+    public void writeFloats(float[] array, int offset, int count) throws PDKRuntimeException {
+        if (hasNaN(array, offset, count)) {
+            // through the buffer, which collapses NaN to the canonical NaN
+            super.writeFloats(array, offset, count);
+            return;
+        }
+        long bytes = (long) count << 2;
+        long at = advance(bytes);
+        MemorySegment.copy(array, offset, region, FLOAT_LE, at, count);
+    }
+
+    @Override
+    public void writeDoubles(double[] array, int offset, int count) throws PDKRuntimeException {
+        if (hasNaN(array, offset, count)) {
+            // through the buffer, which collapses NaN to the canonical NaN
+            super.writeDoubles(array, offset, count);
+            return;
+        }
+        long bytes = (long) count << 3;
+        long at = advance(bytes);
+        MemorySegment.copy(array, offset, region, DOUBLE_LE, at, count);
+    }
+
+    @Override
+    public void writeShorts(short[] array, int offset, int count) throws PDKRuntimeException {
+        long bytes = (long) count << 1;
+        long at = advance(bytes);
+        MemorySegment.copy(array, offset, region, SHORT_LE, at, count);
+    }
+
+    @Override
+    public void writeChars(char[] array, int offset, int count) throws PDKRuntimeException {
+        long bytes = (long) count << 1;
+        long at = advance(bytes);
+        MemorySegment.copy(array, offset, region, CHAR_LE, at, count);
+    }
+}
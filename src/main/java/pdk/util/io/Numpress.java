@@ -0,0 +1,503 @@
+package pdk.util.io;
+
+import pdk.util.exception.PDKRuntimeException;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * MS-Numpress codecs, reading and writing the encoded bytes directly from {@link Input} and to {@link Output}.
+ * <p>
+ * Three compressions are supported, compatible with the reference implementation used in mzML files:
+ * <ul>
+ *     <li>Linear prediction, for m/z and retention time: values are converted to fixed point and the difference to
+ *     the value linearly extrapolated from the previous two is stored in half bytes. The result is accurate to
+ *     0.5 / fixed point.</li>
+ *     <li>Short logged float (slof), for intensities: log(x + 1) in fixed point, stored as 2 byte unsigned.</li>
+ *     <li>Positive integer compression (pic), for ion counts: values are rounded to integer and stored in half
+ *     bytes.</li>
+ * </ul>
+ * The encoded bytes are not self-delimiting, so the decoders take the number of encoded bytes, e.g. the length of the
+ * decoded base64 payload.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 3:05 PM
+ */
+public final class Numpress {
+
+    private Numpress() {}
+
+    /**
+     * Returns the largest fixed point for linear prediction which keeps all residuals in the 32-bit range.
+     *
+     * @param data   values to encode
+     * @param offset offset of the first value
+     * @param count  number of values
+     * @return the fixed point
+     */
+    public static double optimalLinearFixedPoint(double[] data, int offset, int count) {
+        if (count == 0) return 0;
+        if (count == 1) return Math.floor(0xFFFFFFFFL / data[offset]);
+        double max = Math.max(data[offset], data[offset + 1]);
+        for (int i = offset + 2; i < offset + count; i++) {
+            double extrapolated = data[i - 1] + (data[i - 1] - data[i - 2]);
+            double diff = data[i] - extrapolated;
+            max = Math.max(max, Math.ceil(Math.abs(diff) + 1));
+        }
+        return Math.floor(0x7FFFFFFFL / max);
+    }
+
+    /**
+     * Returns the largest fixed point for slof which keeps all values in the 16-bit range.
+     *
+     * @param data   values to encode
+     * @param offset offset of the first value
+     * @param count  number of values
+     * @return the fixed point
+     */
+    public static double optimalSlofFixedPoint(double[] data, int offset, int count) {
+        if (count == 0) return 0;
+        double max = 1;
+        for (int i = offset; i < offset + count; i++)
+            max = Math.max(max, Math.log(data[i] + 1));
+        return Math.floor(0xFFFF / max);
+    }
+
+    // Linear prediction:
+
+    /**
+     * Encodes values with linear prediction.
+     *
+     * @param data       values to encode
+     * @param offset     offset of the first value
+     * @param count      number of values
+     * @param fixedPoint fixed point, e.g. from {@link #optimalLinearFixedPoint(double[], int, int)}
+     * @param output     output to write the encoded bytes
+     * @return number of bytes written
+     * @throws IllegalArgumentException if a residual exceeds the 32-bit range with the fixed point
+     */
+    public static int encodeLinear(double[] data, int offset, int count, double fixedPoint, Output output) {
+        return encodeLinear(i -> data[offset + i], count, fixedPoint, output);
+    }
+
+    /**
+     * Encodes count doubles read from the input with linear prediction.
+     *
+     * @param input      input to read the values with {@link Input#readDouble()}
+     * @param count      number of values
+     * @param fixedPoint fixed point
+     * @param output     output to write the encoded bytes
+     * @return number of bytes written
+     * @throws IllegalArgumentException if a residual exceeds the 32-bit range with the fixed point
+     */
+    public static int encodeLinear(Input input, int count, double fixedPoint, Output output) {
+        return encodeLinear(_ -> input.readDouble(), count, fixedPoint, output);
+    }
+
+    /**
+     * @param data values in order, each index is accessed once
+     */
+    private static int encodeLinear(IntToDoubleFunction data, int count, double fixedPoint, Output output) {
+        long start = output.total();
+        writeFixedPoint(fixedPoint, output);
+        if (count == 0) return 8;
+
+        long previous = 0;
+        long current = (long) (data.applyAsDouble(0) * fixedPoint + 0.5);
+        output.writeInt((int) current);
+        if (count == 1) return 12;
+
+        long next = (long) (data.applyAsDouble(1) * fixedPoint + 0.5);
+        output.writeInt((int) next);
+
+        NibbleWriter writer = new NibbleWriter(output);
+        for (int i = 2; i < count; i++) {
+            previous = current;
+            current = next;
+            double value = data.applyAsDouble(i) * fixedPoint + 0.5;
+            if (value > Long.MAX_VALUE)
+                throw new IllegalArgumentException("Value overflows with fixed point " + fixedPoint + " at " + i);
+            next = (long) value;
+            long diff = next - (current + (current - previous));
+            if (diff > Integer.MAX_VALUE || diff < Integer.MIN_VALUE)
+                throw new IllegalArgumentException("Residual exceeds the int range with fixed point " + fixedPoint
+                        + " at " + i);
+            writer.writeInt((int) diff);
+        }
+        writer.finish();
+        return (int) (output.total() - start);
+    }
+
+    /**
+     * Decodes values encoded with linear prediction into the given array.
+     *
+     * @param input  input to read the encoded bytes
+     * @param length number of encoded bytes
+     * @param result array to store the values
+     * @param offset offset in the array
+     * @return number of values decoded
+     */
+    public static int decodeLinear(Input input, int length, double[] result, int offset) {
+        int[] index = {offset};
+        return decodeLinear(input, length, value -> result[index[0]++] = value);
+    }
+
+    /**
+     * Decodes values encoded with linear prediction and writes them with {@link Output#writeDouble(double)}.
+     *
+     * @param input  input to read the encoded bytes
+     * @param length number of encoded bytes
+     * @param output output to write the values
+     * @return number of values decoded
+     */
+    public static int decodeLinear(Input input, int length, Output output) {
+        return decodeLinear(input, length, output::writeDouble);
+    }
+
+    /**
+     * Decodes values encoded with linear prediction.
+     *
+     * @param input    input to read the encoded bytes
+     * @param length   number of encoded bytes
+     * @param consumer consumer of the decoded values, in order
+     * @return number of values decoded
+     */
+    public static int decodeLinear(Input input, int length, DoubleConsumer consumer) {
+        if (length == 0) return 0;
+        if (length < 8) throw new PDKRuntimeException("Corrupt linear data, length: " + length);
+        double fixedPoint = readFixedPoint(input);
+        if (length == 8) return 0;
+        if (length < 12) throw new PDKRuntimeException("Corrupt linear data, length: " + length);
+
+        long previous;
+        long current = input.readInt() & 0xFFFFFFFFL;
+        consumer.accept(current / fixedPoint);
+        if (length == 12) return 1;
+        if (length < 16) throw new PDKRuntimeException("Corrupt linear data, length: " + length);
+
+        long next = input.readInt() & 0xFFFFFFFFL;
+        consumer.accept(next / fixedPoint);
+        int count = 2;
+
+        NibbleReader reader = new NibbleReader(input, length - 16);
+        while (reader.hasNext()) {
+            if (reader.isPadding()) {
+                reader.skipPadding();
+                break;
+            }
+            previous = current;
+            current = next;
+            next = current + (current - previous) + reader.readInt();
+            consumer.accept(next / fixedPoint);
+            count++;
+        }
+        return count;
+    }
+
+    // Short logged float:
+
+    /**
+     * Encodes values with short logged float.
+     *
+     * @param data       values to encode, must be >= 0
+     * @param offset     offset of the first value
+     * @param count      number of values
+     * @param fixedPoint fixed point, e.g. from {@link #optimalSlofFixedPoint(double[], int, int)}
+     * @param output     output to write the encoded bytes
+     * @return number of bytes written, 8 + 2 * count
+     * @throws IllegalArgumentException if a value exceeds the 16-bit range with the fixed point
+     */
+    public static int encodeSlof(double[] data, int offset, int count, double fixedPoint, Output output) {
+        return encodeSlof(i -> data[offset + i], count, fixedPoint, output);
+    }
+
+    /**
+     * Encodes count doubles read from the input with short logged float.
+     *
+     * @param input      input to read the values with {@link Input#readDouble()}
+     * @param count      number of values
+     * @param fixedPoint fixed point
+     * @param output     output to write the encoded bytes
+     * @return number of bytes written, 8 + 2 * count
+     * @throws IllegalArgumentException if a value exceeds the 16-bit range with the fixed point
+     */
+    public static int encodeSlof(Input input, int count, double fixedPoint, Output output) {
+        return encodeSlof(_ -> input.readDouble(), count, fixedPoint, output);
+    }
+
+    private static int encodeSlof(IntToDoubleFunction data, int count, double fixedPoint, Output output) {
+        writeFixedPoint(fixedPoint, output);
+        for (int i = 0; i < count; i++) {
+            double value = Math.log(data.applyAsDouble(i) + 1) * fixedPoint;
+            if (value > 0xFFFF)
+                throw new IllegalArgumentException("Value overflows with fixed point " + fixedPoint + " at " + i);
+            output.writeShort((int) (value + 0.5));
+        }
+        return 8 + 2 * count;
+    }
+
+    /**
+     * Decodes values encoded with short logged float into the given array.
+     *
+     * @param input  input to read the encoded bytes
+     * @param length number of encoded bytes
+     * @param result array to store the values
+     * @param offset offset in the array
+     * @return number of values decoded
+     */
+    public static int decodeSlof(Input input, int length, double[] result, int offset) {
+        int[] index = {offset};
+        return decodeSlof(input, length, value -> result[index[0]++] = value);
+    }
+
+    /**
+     * Decodes values encoded with short logged float and writes them with {@link Output#writeDouble(double)}.
+     *
+     * @param input  input to read the encoded bytes
+     * @param length number of encoded bytes
+     * @param output output to write the values
+     * @return number of values decoded
+     */
+    public static int decodeSlof(Input input, int length, Output output) {
+        return decodeSlof(input, length, output::writeDouble);
+    }
+
+    /**
+     * Decodes values encoded with short logged float.
+     *
+     * @param input    input to read the encoded bytes
+     * @param length   number of encoded bytes
+     * @param consumer consumer of the decoded values, in order
+     * @return number of values decoded
+     */
+    public static int decodeSlof(Input input, int length, DoubleConsumer consumer) {
+        if (length == 0) return 0;
+        if (length < 8 || (length & 1) != 0) throw new PDKRuntimeException("Corrupt slof data, length: " + length);
+        double fixedPoint = readFixedPoint(input);
+        int count = (length - 8) >> 1;
+        for (int i = 0; i < count; i++)
+            consumer.accept(Math.exp(input.readShortUnsigned() / fixedPoint) - 1);
+        return count;
+    }
+
+    // Positive integer compression:
+
+    /**
+     * Encodes values with positive integer compression. Values are rounded to the nearest integer.
+     *
+     * @param data   values to encode, must be in [0, {@link Integer#MAX_VALUE}]
+     * @param offset offset of the first value
+     * @param count  number of values
+     * @param output output to write the encoded bytes
+     * @return number of bytes written
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    public static int encodePic(double[] data, int offset, int count, Output output) {
+        return encodePic(i -> data[offset + i], count, output);
+    }
+
+    /**
+     * Encodes count doubles read from the input with positive integer compression.
+     *
+     * @param input  input to read the values with {@link Input#readDouble()}
+     * @param count  number of values
+     * @param output output to write the encoded bytes
+     * @return number of bytes written
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    public static int encodePic(Input input, int count, Output output) {
+        return encodePic(_ -> input.readDouble(), count, output);
+    }
+
+    private static int encodePic(IntToDoubleFunction data, int count, Output output) {
+        long start = output.total();
+        NibbleWriter writer = new NibbleWriter(output);
+        for (int i = 0; i < count; i++) {
+            double value = data.applyAsDouble(i);
+            if (value + 0.5 > Integer.MAX_VALUE || value < -0.5)
+                throw new IllegalArgumentException("Value out of range for pic at " + i + ": " + value);
+            writer.writeInt((int) (value + 0.5));
+        }
+        writer.finish();
+        return (int) (output.total() - start);
+    }
+
+    /**
+     * Decodes values encoded with positive integer compression into the given array.
+     *
+     * @param input  input to read the encoded bytes
+     * @param length number of encoded bytes
+     * @param result array to store the values
+     * @param offset offset in the array
+     * @return number of values decoded
+     */
+    public static int decodePic(Input input, int length, double[] result, int offset) {
+        int[] index = {offset};
+        return decodePic(input, length, value -> result[index[0]++] = value);
+    }
+
+    /**
+     * Decodes values encoded with positive integer compression and writes them with
+     * {@link Output#writeDouble(double)}.
+     *
+     * @param input  input to read the encoded bytes
+     * @param length number of encoded bytes
+     * @param output output to write the values
+     * @return number of values decoded
+     */
+    public static int decodePic(Input input, int length, Output output) {
+        return decodePic(input, length, output::writeDouble);
+    }
+
+    /**
+     * Decodes values encoded with positive integer compression.
+     *
+     * @param input    input to read the encoded bytes
+     * @param length   number of encoded bytes
+     * @param consumer consumer of the decoded values, in order
+     * @return number of values decoded
+     */
+    public static int decodePic(Input input, int length, DoubleConsumer consumer) {
+        NibbleReader reader = new NibbleReader(input, length);
+        int count = 0;
+        while (reader.hasNext()) {
+            if (reader.isPadding()) {
+                reader.skipPadding();
+                break;
+            }
+            consumer.accept(reader.readInt() & 0xFFFFFFFFL);
+            count++;
+        }
+        return count;
+    }
+
+    // Fixed point and half bytes:
+
+    /**
+     * The fixed point is stored as a big endian double.
+     */
+    private static void writeFixedPoint(double fixedPoint, Output output) {
+        output.writeLong(Long.reverseBytes(Double.doubleToLongBits(fixedPoint)));
+    }
+
+    private static double readFixedPoint(Input input) {
+        return Double.longBitsToDouble(Long.reverseBytes(input.readLong()));
+    }
+
+    /**
+     * Writes ints as half bytes: a head half byte n <= 8 means n leading zero half bytes are dropped, n > 8 means
+     * n - 8 leading 0xF half bytes are dropped; the remaining half bytes follow from the least significant. The first
+     * half byte of a byte is the high one.
+     */
+    private static final class NibbleWriter {
+
+        private final Output output;
+        /**
+         * the half byte waiting for its low half, -1 if none
+         */
+        private int pending = -1;
+
+        NibbleWriter(Output output) {
+            this.output = output;
+        }
+
+        private void write(int nibble) {
+            if (pending < 0) {
+                pending = nibble;
+            } else {
+                output.writeByte((pending << 4) | nibble);
+                pending = -1;
+            }
+        }
+
+        void writeInt(int value) {
+            int top = value & 0xF0000000;
+            int dropped;
+            if (top == 0) {
+                dropped = Integer.numberOfLeadingZeros(value) >> 2;
+                write(dropped);
+            } else if (top == 0xF0000000) {
+                // at least one half byte is kept, so -1 is 0xF followed by F
+                dropped = Math.min(Integer.numberOfLeadingZeros(~value) >> 2, 7);
+                write(dropped + 8);
+            } else {
+                dropped = 0;
+                write(0);
+            }
+            for (int i = 0; i < 8 - dropped; i++)
+                write((value >>> (i << 2)) & 0xF);
+        }
+
+        /**
+         * Writes the pending half byte, if any, with a zero low half.
+         */
+        void finish() {
+            if (pending >= 0) {
+                output.writeByte(pending << 4);
+                pending = -1;
+            }
+        }
+    }
+
+    private static final class NibbleReader {
+
+        private final Input input;
+        /**
+         * number of encoded bytes not read from the input
+         */
+        private int remaining;
+        private int current;
+        /**
+         * true if the low half of current has not been read
+         */
+        private boolean low;
+
+        NibbleReader(Input input, int length) {
+            this.input = input;
+            this.remaining = length;
+        }
+
+        boolean hasNext() {
+            return remaining > 0 || low;
+        }
+
+        /**
+         * Returns true if only the zero low half of the last byte is left, which pads an odd number of half bytes.
+         */
+        boolean isPadding() {
+            return remaining == 0 && low && (current & 0xF) == 0;
+        }
+
+        void skipPadding() {
+            low = false;
+        }
+
+        private int read() {
+            if (low) {
+                low = false;
+                return current & 0xF;
+            }
+            if (remaining == 0) throw new PDKRuntimeException("Corrupt half byte data, unexpected end.");
+            remaining--;
+            current = input.readByteUnsigned();
+            low = true;
+            return current >>> 4;
+        }
+
+        int readInt() {
+            int head = read();
+            int value = 0;
+            int dropped;
+            if (head <= 8) {
+                dropped = head;
+            } else {
+                dropped = head - 8;
+                value = -1 << (32 - (dropped << 2));
+            }
+            for (int i = 0; i < 8 - dropped; i++)
+                value |= read() << (i << 2);
+            return value;
+        }
+    }
+}
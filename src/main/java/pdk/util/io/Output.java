@@ -1,11 +1,15 @@
 package pdk.util.io;
 
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import pdk.util.exception.PDKRuntimeException;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 
 import static java.util.Objects.requireNonNull;
+import static pdk.util.io.Input.*;
 
 /**
  * An {@link OutputStream} that writes data to a byte[] and optionally flushes to another {@link OutputStream}.
@@ -30,6 +34,10 @@ public class Output extends OutputStream implements AutoCloseable {
     protected int capacity;
     protected byte[] buffer;
     protected OutputStream outputStream;
+    /**
+     * ids of the strings written in this session, null if string dictionary is disabled
+     */
+    protected Object2IntOpenHashMap<String> stringIds;
     protected boolean varEncoding = true;
 
     /**
@@ -109,6 +117,34 @@ public class Output extends OutputStream implements AutoCloseable {
         this.outputStream = outputStream;
     }
 
+    /**
+     * Returns an Output with a 4096 byte buffer borrowed from the {@link BufferPool#getDefault() default pool}. The
+     * buffer grows without limit and is returned to the pool by {@link PooledOutput#close()}:
+     * <pre>
+     * try (PooledOutput output = Output.borrow()) {
+     *     ...
+     *     return output.toBytes();
+     * }
+     * </pre>
+     *
+     * @return a pooled Output
+     */
+    public static PooledOutput borrow() {
+        return new PooledOutput(BufferPool.getDefault(), 4096);
+    }
+
+    /**
+     * Returns an Output writing to the stream with a buffer borrowed from the
+     * {@link BufferPool#getDefault() default pool}. The buffer is returned to the pool by {@link PooledOutput#close()}.
+     *
+     * @param outputStream stream to write
+     * @param bufferSize   minimum buffer size
+     * @return a pooled Output
+     */
+    public static PooledOutput borrow(OutputStream outputStream, int bufferSize) {
+        return new PooledOutput(BufferPool.getDefault(), outputStream, bufferSize);
+    }
+
     public OutputStream getOutputStream() {
         return outputStream;
     }
@@ -155,6 +191,7 @@ public class Output extends OutputStream implements AutoCloseable {
         position = 0;
         total = 0;
         outputStream = null;
+        if (stringIds != null) stringIds.clear();
     }
 
     /**
@@ -192,6 +229,33 @@ public class Output extends OutputStream implements AutoCloseable {
         this.varEncoding = varEncoding;
     }
 
+    /**
+     * Returns true if string dictionary is enabled.
+     *
+     * @return true if string dictionary is enabled
+     * @see #setStringDictionary(boolean)
+     */
+    public boolean getStringDictionary() {
+        return stringIds != null;
+    }
+
+    /**
+     * If true, {@link #writeString(String)} writes each distinct string once: the first occurrence is written inline and
+     * later ones as a varint reference to it, which must be read by an {@link Input} with
+     * {@link Input#setStringDictionary(boolean)} enabled. The dictionary lasts until {@link #reset()}, and the reader must
+     * read the strings in the same session. Default is false.
+     *
+     * @param stringDictionary true to enable string dictionary
+     */
+    public void setStringDictionary(boolean stringDictionary) {
+        if (!stringDictionary) {
+            stringIds = null;
+        } else if (stringIds == null) {
+            stringIds = new Object2IntOpenHashMap<>();
+            stringIds.defaultReturnValue(-1);
+        }
+    }
+
     /**
      * Returns the current position in the buffer. This is the number of bytes that have not been flushed.
      */
@@ -228,6 +292,7 @@ public class Output extends OutputStream implements AutoCloseable {
     public void reset() {
         position = 0;
         total = 0;
+        if (stringIds != null) stringIds.clear();
     }
 
     /**
@@ -415,13 +480,9 @@ public class Output extends OutputStream implements AutoCloseable {
      */
     public void writeInt(int value) throws PDKRuntimeException {
         require(4);
-        byte[] buffer = this.buffer;
         int p = position;
         position = p + 4;
-        buffer[p] = (byte) value;
-        buffer[p + 1] = (byte) (value >> 8);
-        buffer[p + 2] = (byte) (value >> 16);
-        buffer[p + 3] = (byte) (value >> 24);
+        INT_VIEW.set(buffer, p, value);
     }
 
     /**
@@ -567,17 +628,9 @@ public class Output extends OutputStream implements AutoCloseable {
      */
     public void writeLong(long value) throws PDKRuntimeException {
         require(8);
-        byte[] buffer = this.buffer;
         int p = position;
         position = p + 8;
-        buffer[p] = (byte) value;
-        buffer[p + 1] = (byte) (value >>> 8);
-        buffer[p + 2] = (byte) (value >>> 16);
-        buffer[p + 3] = (byte) (value >>> 24);
-        buffer[p + 4] = (byte) (value >>> 32);
-        buffer[p + 5] = (byte) (value >>> 40);
-        buffer[p + 6] = (byte) (value >>> 48);
-        buffer[p + 7] = (byte) (value >>> 56);
+        LONG_VIEW.set(buffer, p, value);
     }
 
     /**
@@ -731,14 +784,9 @@ public class Output extends OutputStream implements AutoCloseable {
      */
     public void writeFloat(float value) throws PDKRuntimeException {
         require(4);
-        byte[] buffer = this.buffer;
         int p = position;
         position = p + 4;
-        int intValue = Float.floatToIntBits(value);
-        buffer[p] = (byte) intValue;
-        buffer[p + 1] = (byte) (intValue >> 8);
-        buffer[p + 2] = (byte) (intValue >> 16);
-        buffer[p + 3] = (byte) (intValue >> 24);
+        INT_VIEW.set(buffer, p, Float.floatToIntBits(value));
     }
 
     /**
@@ -759,18 +807,9 @@ public class Output extends OutputStream implements AutoCloseable {
      */
     public void writeDouble(double value) throws PDKRuntimeException {
         require(8);
-        byte[] buffer = this.buffer;
         int p = position;
         position = p + 8;
-        long longValue = Double.doubleToLongBits(value);
-        buffer[p] = (byte) longValue;
-        buffer[p + 1] = (byte) (longValue >>> 8);
-        buffer[p + 2] = (byte) (longValue >>> 16);
-        buffer[p + 3] = (byte) (longValue >>> 24);
-        buffer[p + 4] = (byte) (longValue >>> 32);
-        buffer[p + 5] = (byte) (longValue >>> 40);
-        buffer[p + 6] = (byte) (longValue >>> 48);
-        buffer[p + 7] = (byte) (longValue >>> 56);
+        LONG_VIEW.set(buffer, p, Double.doubleToLongBits(value));
     }
 
     /**
@@ -793,8 +832,7 @@ public class Output extends OutputStream implements AutoCloseable {
         require(2);
         int p = position;
         position = p + 2;
-        buffer[p] = (byte) value;
-        buffer[p + 1] = (byte) (value >>> 8);
+        SHORT_VIEW.set(buffer, p, (short) value);
     }
 
     // char:
@@ -806,8 +844,7 @@ public class Output extends OutputStream implements AutoCloseable {
         require(2);
         int p = position;
         position = p + 2;
-        buffer[p] = (byte) value;
-        buffer[p + 1] = (byte) (value >>> 8);
+        SHORT_VIEW.set(buffer, p, (short) value);
     }
 
     /**
@@ -828,6 +865,7 @@ public class Output extends OutputStream implements AutoCloseable {
      * @param value May be null.
      */
     public void writeString(String value) throws PDKRuntimeException {
+        if (stringIds != null && writeStringReference(value)) return;
         if (value == null) {
             writeByte(0x80); // 0 means null, bit 8 means UTF8.
             return;
@@ -874,15 +912,41 @@ public class Output extends OutputStream implements AutoCloseable {
         if (charIndex < charCount) writeUtf8_slow(value, charCount, charIndex);
     }
 
+    /**
+     * Writes the dictionary tag of a string: 0 for null, 1 for a new string which must then be written inline, or the
+     * string id + 2 for a string already written.
+     *
+     * @return true if no inline string is needed
+     */
+    private boolean writeStringReference(String value) {
+        if (value == null) {
+            writeVarInt(0, true);
+            return true;
+        }
+        int id = stringIds.getInt(value);
+        if (id >= 0) {
+            writeVarInt(id + 2, true);
+            return true;
+        }
+        stringIds.put(value, stringIds.size());
+        writeVarInt(1, true);
+        return false;
+    }
+
     /**
      * Writes a string that is known to contain only ASCII characters. Non-ASCII strings passed to this method will be corrupted.
      * Each byte is a 7 bit character with the remaining byte denoting if another character is available. This is slightly more
      * efficient than {@link #writeString(String)}. The string can be read using {@link Input#readString()} or
-     * {@link Input#readStringBuilder()}.
+     * {@link Input#readStringBuilder()}. With {@link #setStringDictionary(boolean) string dictionary} enabled, this is
+     * the same as {@link #writeString(String)}.
      *
      * @param value May be null.
      */
     public void writeAscii(String value) throws PDKRuntimeException {
+        if (stringIds != null) {
+            writeString(value);
+            return;
+        }
         if (value == null) {
             writeByte(0x80); // 0 means null, bit 8 means UTF8.
             return;
@@ -943,26 +1007,37 @@ public class Output extends OutputStream implements AutoCloseable {
 
     // Primitive arrays:
 
+    /**
+     * Ensures room for at least one element of {@code 1 << shift} bytes and returns the number of elements, up to count,
+     * which can be written to the buffer.
+     */
+    private int requireElements(int count, int shift) {
+        int available = (capacity - position) >> shift;
+        if (available == 0) {
+            require((int) Math.min((long) count << shift, Math.max(maxCapacity - position, 1 << shift)));
+            available = (capacity - position) >> shift;
+        }
+        return Math.min(count, available);
+    }
+
+    /**
+     * Copies count elements of a primitive array to the buffer in little endian, flushing the buffer as needed.
+     */
+    private void writeArray(Object array, int offset, int count, ValueLayout layout, int shift) {
+        while (count > 0) {
+            int n = requireElements(count, shift);
+            MemorySegment.copy(array, offset, MemorySegment.ofArray(buffer), layout, position, n);
+            position += n << shift;
+            offset += n;
+            count -= n;
+        }
+    }
+
     /**
      * Writes an int array in bulk. This may be more efficient than writing them individually.
      */
     public void writeInts(int[] array, int offset, int count) throws PDKRuntimeException {
-        if (capacity >= count << 2) {
-            require(count << 2);
-            byte[] buffer = this.buffer;
-            int p = position;
-            for (int n = offset + count; offset < n; offset++, p += 4) {
-                int value = array[offset];
-                buffer[p] = (byte) value;
-                buffer[p + 1] = (byte) (value >> 8);
-                buffer[p + 2] = (byte) (value >> 16);
-                buffer[p + 3] = (byte) (value >> 24);
-            }
-            position = p;
-        } else {
-            for (int n = offset + count; offset < n; offset++)
-                writeInt(array[offset]);
-        }
+        writeArray(array, offset, count, INT_LE, 2);
     }
 
     /**
@@ -981,26 +1056,7 @@ public class Output extends OutputStream implements AutoCloseable {
      * Writes a long array in bulk. This may be more efficient than writing them individually.
      */
     public void writeLongs(long[] array, int offset, int count) throws PDKRuntimeException {
-        if (capacity >= count << 3) {
-            require(count << 3);
-            byte[] buffer = this.buffer;
-            int p = position;
-            for (int n = offset + count; offset < n; offset++, p += 8) {
-                long value = array[offset];
-                buffer[p] = (byte) value;
-                buffer[p + 1] = (byte) (value >>> 8);
-                buffer[p + 2] = (byte) (value >>> 16);
-                buffer[p + 3] = (byte) (value >>> 24);
-                buffer[p + 4] = (byte) (value >>> 32);
-                buffer[p + 5] = (byte) (value >>> 40);
-                buffer[p + 6] = (byte) (value >>> 48);
-                buffer[p + 7] = (byte) (value >>> 56);
-            }
-            position = p;
-        } else {
-            for (int n = offset + count; offset < n; offset++)
-                writeLong(array[offset]);
-        }
+        writeArray(array, offset, count, LONG_LE, 3);
     }
 
     /**
@@ -1015,92 +1071,198 @@ public class Output extends OutputStream implements AutoCloseable {
             writeLongs(array, offset, count);
     }
 
+    /**
+     * Returns true if the buffer has room for count bytes, flushing or growing it if possible.
+     */
+    private boolean room(int count) {
+        if (capacity - position >= count) return true;
+        flush();
+        if (capacity - position >= count) return true;
+        if (count > maxCapacity - position) return false;
+        require(count);
+        return true;
+    }
+
+    /**
+     * Writes an int array in the Stream VByte format: blocks of 64 values, each with the 2 bit byte lengths of its
+     * values packed in control bytes followed by the data bytes. It is as compact as {@link #writeVarInt(int, boolean)}
+     * but the values can be decoded by {@link Input#readVByteInts(int[], int, int, boolean)} without branching on each
+     * byte. The array length is not written.
+     *
+     * @param array            values to write
+     * @param offset           offset of the first value
+     * @param count            number of values
+     * @param optimizePositive if true, small positive numbers will be more efficient (1 byte) and small negative numbers
+     *                         will be inefficient (4 bytes).
+     * @throws PDKRuntimeException for writing error
+     */
+    public void writeVByteInts(int[] array, int offset, int count, boolean optimizePositive) throws PDKRuntimeException {
+        byte[] block = null;
+        while (count > 0) {
+            int n = Math.min(count, StreamVByte.BLOCK_SIZE);
+            if (room(StreamVByte.maxIntBlockLength(n))) {
+                position = StreamVByte.encodeInts(array, offset, n, optimizePositive, buffer, position);
+            } else {
+                if (block == null) block = new byte[StreamVByte.maxIntBlockLength(StreamVByte.BLOCK_SIZE)];
+                writeBytes(block, 0, StreamVByte.encodeInts(array, offset, n, optimizePositive, block, 0));
+            }
+            offset += n;
+            count -= n;
+        }
+    }
+
+    /**
+     * Writes a long array in the Stream VByte format: blocks of 64 values, each with the 4 bit byte lengths of its
+     * values packed in control bytes followed by the data bytes. The values can be read by
+     * {@link Input#readVByteLongs(long[], int, int, boolean)}. The array length is not written.
+     *
+     * @param array            values to write
+     * @param offset           offset of the first value
+     * @param count            number of values
+     * @param optimizePositive if true, small positive numbers will be more efficient (1 byte) and small negative numbers
+     *                         will be inefficient (8 bytes).
+     * @throws PDKRuntimeException for writing error
+     */
+    public void writeVByteLongs(long[] array, int offset, int count, boolean optimizePositive) throws PDKRuntimeException {
+        byte[] block = null;
+        while (count > 0) {
+            int n = Math.min(count, StreamVByte.BLOCK_SIZE);
+            if (room(StreamVByte.maxLongBlockLength(n))) {
+                position = StreamVByte.encodeLongs(array, offset, n, optimizePositive, buffer, position);
+            } else {
+                if (block == null) block = new byte[StreamVByte.maxLongBlockLength(StreamVByte.BLOCK_SIZE)];
+                writeBytes(block, 0, StreamVByte.encodeLongs(array, offset, n, optimizePositive, block, 0));
+            }
+            offset += n;
+            count -= n;
+        }
+    }
+
+    /**
+     * Writes a long array sorted in ascending order as the first value followed by the differences between adjacent
+     * values, each with {@link #writeVarLong(long, boolean)}. Close values take 1 or 2 bytes instead of 8. Unsorted
+     * values are still read back correctly, but negative differences take 9 bytes. The array length is not written.
+     *
+     * @param array  values sorted in ascending order
+     * @param offset offset of the first value
+     * @param count  number of values
+     * @throws PDKRuntimeException for writing error
+     */
+    public void writeSortedLongs(long[] array, int offset, int count) throws PDKRuntimeException {
+        long previous = 0;
+        for (int n = offset + count; offset < n; offset++) {
+            long value = array[offset];
+            writeVarLong(value - previous, true);
+            previous = value;
+        }
+    }
+
+    /**
+     * Writes an int array as the first value followed by the zigzag encoded differences between adjacent values, each
+     * with {@link #writeVarInt(int, boolean)}. Suitable for nearly consecutive values such as scan numbers, which take
+     * 1 byte each. The array length is not written.
+     *
+     * @param array  values to write
+     * @param offset offset of the first value
+     * @param count  number of values
+     * @throws PDKRuntimeException for writing error
+     */
+    public void writeDeltaInts(int[] array, int offset, int count) throws PDKRuntimeException {
+        int previous = 0;
+        for (int n = offset + count; offset < n; offset++) {
+            int value = array[offset];
+            writeVarInt(value - previous, false);
+            previous = value;
+        }
+    }
+
+    /**
+     * Writes a double array with fixed precision. Each value is converted to a long as
+     * {@link #writeVarDouble(double, double, boolean)} does, and the zigzag encoded differences between adjacent longs
+     * are written with {@link #writeVarLong(long, boolean)}. Sorted or smooth arrays such as m/z and retention times
+     * take 1 to 3 bytes per value instead of 8. The array length is not written.
+     *
+     * @param array     values to write
+     * @param offset    offset of the first value
+     * @param count     number of values
+     * @param precision the values are multiplied by precision and truncated to long, e.g. 1E5 keeps 5 decimal places
+     * @throws PDKRuntimeException for writing error
+     */
+    public void writeDeltaDoubles(double[] array, int offset, int count, double precision) throws PDKRuntimeException {
+        long previous = 0;
+        for (int n = offset + count; offset < n; offset++) {
+            long value = (long) (array[offset] * precision);
+            writeVarLong(value - previous, false);
+            previous = value;
+        }
+    }
+
     /**
      * Writes a float array in bulk. This may be more efficient than writing them individually.
+     * <p>
+     * NaN values are collapsed to the canonical NaN, as {@link #writeFloat(float)} does.
      */
     public void writeFloats(float[] array, int offset, int count) throws PDKRuntimeException {
-        if (capacity >= count << 2) {
-            require(count << 2);
+        while (count > 0) {
+            int n = requireElements(count, 2);
             byte[] buffer = this.buffer;
             int p = position;
-            for (int n = offset + count; offset < n; offset++, p += 4) {
-                int value = Float.floatToIntBits(array[offset]);
-                buffer[p] = (byte) value;
-                buffer[p + 1] = (byte) (value >> 8);
-                buffer[p + 2] = (byte) (value >> 16);
-                buffer[p + 3] = (byte) (value >> 24);
-            }
+            for (int end = offset + n; offset < end; offset++, p += 4)
+                INT_VIEW.set(buffer, p, Float.floatToIntBits(array[offset]));
             position = p;
-        } else {
-            for (int n = offset + count; offset < n; offset++)
-                writeFloat(array[offset]);
+            count -= n;
         }
     }
 
     /**
      * Writes a double array in bulk. This may be more efficient than writing them individually.
+     * <p>
+     * NaN values are collapsed to the canonical NaN, as {@link #writeDouble(double)} does.
      */
     public void writeDoubles(double[] array, int offset, int count) throws PDKRuntimeException {
-        if (capacity >= count << 3) {
-            require(count << 3);
+        while (count > 0) {
+            int n = requireElements(count, 3);
             byte[] buffer = this.buffer;
             int p = position;
-            for (int n = offset + count; offset < n; offset++, p += 8) {
-                long value = Double.doubleToLongBits(array[offset]);
-                buffer[p] = (byte) value;
-                buffer[p + 1] = (byte) (value >>> 8);
-                buffer[p + 2] = (byte) (value >>> 16);
-                buffer[p + 3] = (byte) (value >>> 24);
-                buffer[p + 4] = (byte) (value >>> 32);
-                buffer[p + 5] = (byte) (value >>> 40);
-                buffer[p + 6] = (byte) (value >>> 48);
-                buffer[p + 7] = (byte) (value >>> 56);
-            }
+            for (int end = offset + n; offset < end; offset++, p += 8)
+                LONG_VIEW.set(buffer, p, Double.doubleToLongBits(array[offset]));
             position = p;
-        } else {
-            for (int n = offset + count; offset < n; offset++)
-                writeDouble(array[offset]);
+            count -= n;
         }
     }
 
+    /**
+     * Returns true if a range of an array holds a NaN, which a raw copy would write with its payload.
+     */
+    static boolean hasNaN(float[] array, int offset, int count) {
+        for (int end = offset + count; offset < end; offset++) {
+            if (array[offset] != array[offset]) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if a range of an array holds a NaN, which a raw copy would write with its payload.
+     */
+    static boolean hasNaN(double[] array, int offset, int count) {
+        for (int end = offset + count; offset < end; offset++) {
+            if (array[offset] != array[offset]) return true;
+        }
+        return false;
+    }
+
     /**
      * Writes a short array in bulk. This may be more efficient than writing them individually.
      */
     public void writeShorts(short[] array, int offset, int count) throws PDKRuntimeException {
-        if (capacity >= count << 1) {
-            require(count << 1);
-            byte[] buffer = this.buffer;
-            int p = position;
-            for (int n = offset + count; offset < n; offset++, p += 2) {
-                int value = array[offset];
-                buffer[p] = (byte) value;
-                buffer[p + 1] = (byte) (value >>> 8);
-            }
-            position = p;
-        } else {
-            for (int n = offset + count; offset < n; offset++)
-                writeShort(array[offset]);
-        }
+        writeArray(array, offset, count, SHORT_LE, 1);
     }
 
     /**
      * Writes a char array in bulk. This may be more efficient than writing them individually.
      */
     public void writeChars(char[] array, int offset, int count) throws PDKRuntimeException {
-        if (capacity >= count << 1) {
-            require(count << 1);
-            byte[] buffer = this.buffer;
-            int p = position;
-            for (int n = offset + count; offset < n; offset++, p += 2) {
-                int value = array[offset];
-                buffer[p] = (byte) value;
-                buffer[p + 1] = (byte) (value >>> 8);
-            }
-            position = p;
-        } else {
-            for (int n = offset + count; offset < n; offset++)
-                writeChar(array[offset]);
-        }
+        writeArray(array, offset, count, CHAR_LE, 1);
     }
 
     /**
@@ -0,0 +1,357 @@
+package pdk.util.io;
+
+import pdk.util.exception.PDKRuntimeException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parses the repeated elements of a large XML document in parallel, e.g. the {@code spectrum} elements of a mzML file.
+ * <p>
+ * The byte stream is scanned for the start and end tags of the element, without tokenizing the XML. The elements are
+ * grouped in batches of about {@code batchSize} bytes, and each batch is parsed by a StAX reader on the executor. The
+ * parsed records are returned in document order. At most {@code window} batches are in flight, so memory stays
+ * bounded whatever the size of the document.
+ * <p>
+ * The elements are parsed out of their document: they must not use namespace prefixes or entities declared outside
+ * them, and the document must be in UTF-8, or ASCII. The element must not be nested in itself. Comments, CDATA
+ * sections and processing instructions are skipped by the scan, so tags in them are ignored.
+ *
+ * @param <T> type of the parsed records
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 17 Oct 2026, 9:10 AM
+ */
+public class ParallelXMLReader<T> implements IterateReader<T> {
+
+    /**
+     * Parses an element.
+     *
+     * @param <T> type of the parsed record
+     */
+    @FunctionalInterface
+    public interface ElementParser<T> {
+
+        /**
+         * Parses an element. The reader is at the start tag of the element and should be left at its end tag.
+         *
+         * @param reader reader at the start tag of the element
+         * @return the parsed record
+         * @throws XMLStreamException for parsing error
+         */
+        T parse(XMLStreamReader reader) throws XMLStreamException;
+    }
+
+    private static final byte[] BATCH_START = "<batch>".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BATCH_END = "</batch>".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] COMMENT_START = "<!--".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] COMMENT_END = "-->".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CDATA_START = "<![CDATA[".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CDATA_END = "]]>".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PI_START = "<?".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PI_END = "?>".getBytes(StandardCharsets.US_ASCII);
+
+    private static final ThreadLocal<XMLInputFactory> FACTORY = ThreadLocal.withInitial(() -> {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        return factory;
+    });
+
+    private final InputStream inputStream;
+    private final String element;
+    private final byte[] name;
+    private final ElementParser<T> parser;
+    private final Executor executor;
+    private final int window;
+    private final int batchSize;
+    private final ArrayDeque<CompletableFuture<List<T>>> pending = new ArrayDeque<>();
+    private Iterator<T> current = Collections.emptyIterator();
+
+    private byte[] buffer = new byte[1 << 16];
+    private int position;
+    private int limit;
+    private boolean eof;
+    /**
+     * true when no element is left in the stream
+     */
+    private boolean done;
+
+    /**
+     * Creates a reader of a file, parsing on the common pool.
+     *
+     * @param file    XML file
+     * @param element local name of the element to parse
+     * @param parser  parser of the elements
+     * @throws IOException if the file cannot be opened
+     */
+    public ParallelXMLReader(Path file, String element, ElementParser<T> parser) throws IOException {
+        this(Files.newInputStream(file), element, parser);
+    }
+
+    /**
+     * Creates a reader parsing on the common pool, with batches of 1 MB and two batches in flight per processor.
+     *
+     * @param inputStream XML stream
+     * @param element     local name of the element to parse
+     * @param parser      parser of the elements
+     */
+    public ParallelXMLReader(InputStream inputStream, String element, ElementParser<T> parser) {
+        this(inputStream, element, parser, ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors() * 2,
+                1 << 20);
+    }
+
+    /**
+     * Creates a reader.
+     *
+     * @param inputStream XML stream
+     * @param element     local name of the element to parse
+     * @param parser      parser of the elements
+     * @param executor    executor to parse the batches
+     * @param window      maximum number of batches read ahead
+     * @param batchSize   number of bytes of the elements of a batch, a batch has at least one element
+     */
+    public ParallelXMLReader(InputStream inputStream, String element, ElementParser<T> parser, Executor executor,
+            int window, int batchSize) {
+        if (window < 1) throw new IllegalArgumentException("window must be >= 1: " + window);
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be >= 1: " + batchSize);
+        this.inputStream = Objects.requireNonNull(inputStream);
+        this.element = Objects.requireNonNull(element);
+        this.name = element.getBytes(StandardCharsets.UTF_8);
+        this.parser = Objects.requireNonNull(parser);
+        this.executor = Objects.requireNonNull(executor);
+        this.window = window;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            readAhead();
+            CompletableFuture<List<T>> future = pending.poll();
+            if (future == null) return false;
+            // keep the executor busy while this batch is consumed
+            readAhead();
+            try {
+                current = future.join().iterator();
+            } catch (CompletionException ex) {
+                throw new PDKRuntimeException(ex.getCause());
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return current.next();
+    }
+
+    /**
+     * Splits batches and submits them to the executor until window batches are in flight or the stream ends.
+     */
+    private void readAhead() {
+        try {
+            while (!done && pending.size() < window) {
+                Output batch = new Output(Math.min(batchSize, 1 << 16), -1);
+                while (batch.position() < batchSize) {
+                    if (!nextElement(batch)) {
+                        done = true;
+                        break;
+                    }
+                }
+                if (batch.position() == 0) break;
+                byte[] data = batch.getBuffer();
+                int length = batch.position();
+                pending.add(CompletableFuture.supplyAsync(() -> parse(data, length), executor));
+            }
+        } catch (IOException ex) {
+            throw new PDKRuntimeException(ex);
+        }
+    }
+
+    private List<T> parse(byte[] data, int length) {
+        // the batch is wrapped in a root element, so that it is parsed as one document
+        InputStream stream = new SequenceInputStream(Collections.enumeration(List.of(
+                new ByteArrayInputStream(BATCH_START), new ByteArrayInputStream(data, 0, length),
+                new ByteArrayInputStream(BATCH_END))));
+        List<T> records = new ArrayList<>();
+        try {
+            XMLStreamReader reader = FACTORY.get().createXMLStreamReader(stream, "UTF-8");
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals(element))
+                        records.add(parser.parse(reader));
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException ex) {
+            throw new PDKRuntimeException(ex);
+        }
+        return records;
+    }
+
+    /**
+     * Returns the byte at the given offset from the position, reading the stream as needed.
+     *
+     * @return the byte, -1 at the end of the stream
+     */
+    private int peek(int offset) throws IOException {
+        while (position + offset >= limit) {
+            if (!fill()) return -1;
+        }
+        return buffer[position + offset] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        if (eof) return false;
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        if (limit == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        int n = inputStream.read(buffer, limit, buffer.length - limit);
+        if (n < 0) {
+            eof = true;
+            return false;
+        }
+        limit += n;
+        return true;
+    }
+
+    private boolean matches(int offset, byte[] bytes) throws IOException {
+        for (int i = 0; i < bytes.length; i++) {
+            if (peek(offset + i) != (bytes[i] & 0xFF)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Skips a comment, a CDATA section or a processing instruction, whose text may look like a tag.
+     *
+     * @param offset offset of a '<' from the position
+     * @return offset after the markup, or the given offset if there is none
+     */
+    private int skipMarkup(int offset) throws IOException {
+        byte[] end;
+        int i;
+        if (matches(offset, COMMENT_START)) {
+            end = COMMENT_END;
+            i = offset + COMMENT_START.length;
+        } else if (matches(offset, CDATA_START)) {
+            end = CDATA_END;
+            i = offset + CDATA_START.length;
+        } else if (matches(offset, PI_START)) {
+            end = PI_END;
+            i = offset + PI_START.length;
+        } else {
+            return offset;
+        }
+        while (!matches(i, end)) {
+            if (peek(i) < 0)
+                throw new PDKRuntimeException("Unterminated comment, CDATA section or processing instruction.");
+            i++;
+        }
+        return i + end.length;
+    }
+
+    private static boolean isSpace(int b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    /**
+     * Finds the next element and appends its bytes to the batch.
+     *
+     * @return false if there is no element left
+     */
+    private boolean nextElement(Output batch) throws IOException {
+        while (true) {
+            int b = peek(0);
+            if (b < 0) return false;
+            if (b == '<') {
+                int skip = skipMarkup(0);
+                if (skip > 0) {
+                    position += skip;
+                    continue;
+                }
+                if (matches(1, name)) {
+                    int next = peek(1 + name.length);
+                    if (isSpace(next) || next == '>' || next == '/') break;
+                }
+            }
+            position++;
+        }
+
+        // end of the start tag, '>' may appear in attribute values
+        int i = 1 + name.length;
+        int quote = 0;
+        while (true) {
+            int b = peek(i);
+            if (b < 0) throw new PDKRuntimeException("Unterminated <" + element + "> start tag.");
+            if (quote != 0) {
+                if (b == quote) quote = 0;
+            } else if (b == '"' || b == '\'') {
+                quote = b;
+            } else if (b == '>') {
+                break;
+            }
+            i++;
+        }
+        boolean empty = peek(i - 1) == '/';
+        i++;
+
+        if (!empty) {
+            while (true) {
+                int b = peek(i);
+                if (b < 0) throw new PDKRuntimeException("Missing </" + element + "> end tag.");
+                if (b == '<') {
+                    int skip = skipMarkup(i);
+                    if (skip > i) {
+                        i = skip;
+                        continue;
+                    }
+                    if (peek(i + 1) == '/' && matches(i + 2, name)) {
+                        int j = i + 2 + name.length;
+                        while (isSpace(peek(j))) j++;
+                        if (peek(j) == '>') {
+                            i = j + 1;
+                            break;
+                        }
+                    }
+                }
+                i++;
+            }
+        }
+        batch.writeBytes(buffer, position, i);
+        position += i;
+        return true;
+    }
+
+    /**
+     * Cancels the batches in flight and closes the stream.
+     */
+    @Override
+    public void close() throws IOException {
+        for (CompletableFuture<List<T>> future : pending)
+            future.cancel(false);
+        pending.clear();
+        current = Collections.emptyIterator();
+        done = true;
+        inputStream.close();
+    }
+}
@@ -0,0 +1,61 @@
+package pdk.util.io;
+
+import pdk.util.exception.PDKRuntimeException;
+
+import java.io.InputStream;
+
+/**
+ * An {@link Input} whose buffer is borrowed from a {@link BufferPool} and returned by {@link #close()}, created by
+ * {@link Input#borrow(InputStream)}.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 7:50 PM
+ */
+public class PooledInput extends Input {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final BufferPool pool;
+
+    /**
+     * Creates an Input reading from the stream with a buffer borrowed from the pool.
+     *
+     * @param pool        pool to borrow the buffer
+     * @param inputStream stream to read
+     * @param bufferSize  minimum buffer size
+     */
+    public PooledInput(BufferPool pool, InputStream inputStream, int bufferSize) {
+        if (pool == null) throw new IllegalArgumentException("pool cannot be null.");
+        if (inputStream == null) throw new IllegalArgumentException("inputStream cannot be null.");
+        this.pool = pool;
+        this.buffer = pool.acquire(bufferSize);
+        this.capacity = buffer.length;
+        this.inputStream = inputStream;
+    }
+
+    /**
+     * Not supported, the buffer is managed by this Input.
+     */
+    @Override
+    public void setBuffer(byte[] bytes, int offset, int count) {
+        throw new UnsupportedOperationException("PooledInput does not support setBuffer.");
+    }
+
+    /**
+     * Closes the stream and returns the buffer to the pool.
+     */
+    @Override
+    public void close() throws PDKRuntimeException {
+        if (buffer == EMPTY) return;
+        try {
+            super.close();
+        } finally {
+            pool.release(buffer);
+            buffer = EMPTY;
+            capacity = 0;
+            position = 0;
+            limit = 0;
+        }
+    }
+}
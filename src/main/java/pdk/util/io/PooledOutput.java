@@ -0,0 +1,94 @@
+package pdk.util.io;
+
+import pdk.util.exception.PDKRuntimeException;
+
+import java.io.OutputStream;
+
+/**
+ * An {@link Output} whose buffer is borrowed from a {@link BufferPool} and returned by {@link #close()}, created by
+ * {@link Output#borrow()}.
+ * <p>
+ * The Output must not be used after it is closed, so {@link #toBytes()} has to be called before.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 7:45 PM
+ */
+public class PooledOutput extends Output {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final BufferPool pool;
+
+    /**
+     * Creates an Output with a buffer borrowed from the pool, growing without limit.
+     *
+     * @param pool       pool to borrow the buffer
+     * @param bufferSize minimum initial buffer size
+     */
+    public PooledOutput(BufferPool pool, int bufferSize) {
+        super(0, -1);
+        if (pool == null) throw new IllegalArgumentException("pool cannot be null.");
+        this.pool = pool;
+        this.buffer = pool.acquire(bufferSize);
+        this.capacity = buffer.length;
+    }
+
+    /**
+     * Creates an Output writing to the given stream with a buffer borrowed from the pool.
+     *
+     * @param pool         pool to borrow the buffer
+     * @param outputStream stream to write
+     * @param bufferSize   minimum buffer size
+     */
+    public PooledOutput(BufferPool pool, OutputStream outputStream, int bufferSize) {
+        this(pool, bufferSize);
+        if (outputStream == null) throw new IllegalArgumentException("outputStream cannot be null.");
+        this.outputStream = outputStream;
+        this.maxCapacity = capacity;
+    }
+
+    /**
+     * Not supported, the buffer is managed by this Output.
+     */
+    @Override
+    public void setBuffer(byte[] buffer, int maxBufferSize) {
+        throw new UnsupportedOperationException("PooledOutput does not support setBuffer.");
+    }
+
+    /**
+     * Grows the buffer by borrowing the next size class from the pool, and returns the replaced buffer to the pool.
+     */
+    @Override
+    protected boolean require(int required) throws PDKRuntimeException {
+        if (capacity - position >= required) return false;
+        flush();
+        if (capacity - position >= required) return true;
+        // overflow, thrown by Output
+        if (required > maxCapacity - position) return super.require(required);
+        int size = (int) Math.min(Math.max((long) position + required, (long) capacity * 2), maxCapacity);
+        byte[] newBuffer = pool.acquire(size);
+        System.arraycopy(buffer, 0, newBuffer, 0, position);
+        pool.release(buffer);
+        buffer = newBuffer;
+        capacity = Math.min(newBuffer.length, maxCapacity);
+        return true;
+    }
+
+    /**
+     * Flushes and closes the stream, if any, and returns the buffer to the pool.
+     */
+    @Override
+    public void close() throws PDKRuntimeException {
+        if (buffer == EMPTY) return;
+        try {
+            super.close();
+        } finally {
+            pool.release(buffer);
+            buffer = EMPTY;
+            capacity = 0;
+            maxCapacity = 0;
+            position = 0;
+        }
+    }
+}
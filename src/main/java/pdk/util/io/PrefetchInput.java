@@ -0,0 +1,147 @@
+package pdk.util.io;
+
+import pdk.util.exception.PDKRuntimeException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * An {@link Input} that reads the stream ahead from a background virtual thread.
+ * <p>
+ * The background thread keeps up to {@code prefetch} chunks filled from the stream while the caller decodes the
+ * buffer, so I/O and deserialization overlap. The chunks are copied to the buffer by {@link #fill(byte[], int, int)},
+ * so {@code require}, {@code optional} and {@link #total()} behave as for a plain stream Input.
+ * <p>
+ * A read error of the background thread is thrown when the caller reaches the data that failed.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 6:35 PM
+ */
+public class PrefetchInput extends Input {
+
+    /**
+     * Data read by the background thread.
+     *
+     * @param length number of bytes, -1 at the end of the stream
+     * @param error  read error, null if none
+     */
+    private record Chunk(byte[] data, int length, Throwable error) {}
+
+    private final BlockingQueue<Chunk> filled;
+    /**
+     * consumed chunks, reused by the background thread
+     */
+    private final BlockingQueue<byte[]> free;
+    private final Thread reader;
+    private Chunk chunk;
+    private int chunkPosition;
+    private boolean eof;
+
+    /**
+     * Creates an Input with a buffer size of 64 KB, reading 2 chunks ahead.
+     *
+     * @param inputStream stream to read
+     */
+    public PrefetchInput(InputStream inputStream) {
+        this(inputStream, 1 << 16, 2);
+    }
+
+    /**
+     * Creates an Input.
+     *
+     * @param inputStream stream to read
+     * @param bufferSize  size of the buffer and of each chunk read ahead
+     * @param prefetch    number of chunks read ahead
+     */
+    public PrefetchInput(InputStream inputStream, int bufferSize, int prefetch) {
+        super(inputStream, bufferSize);
+        if (prefetch < 1) throw new IllegalArgumentException("prefetch must be >= 1: " + prefetch);
+        this.filled = new ArrayBlockingQueue<>(prefetch);
+        this.free = new ArrayBlockingQueue<>(prefetch + 1);
+        for (int i = 0; i <= prefetch; i++)
+            free.add(new byte[bufferSize]);
+        this.reader = Thread.ofVirtual().name("PrefetchInput").start(this::run);
+    }
+
+    /**
+     * Not supported, the buffer is managed by this Input.
+     */
+    @Override
+    public void setBuffer(byte[] bytes, int offset, int count) {
+        throw new UnsupportedOperationException("PrefetchInput does not support setBuffer.");
+    }
+
+    /**
+     * Not supported, this Input reads from the stream given in the constructor.
+     */
+    @Override
+    public void setInputStream(InputStream inputStream) {
+        throw new UnsupportedOperationException("PrefetchInput does not support setInputStream.");
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                byte[] data = free.take();
+                int count;
+                try {
+                    count = inputStream.readNBytes(data, 0, data.length);
+                } catch (IOException | RuntimeException ex) {
+                    filled.put(new Chunk(data, 0, ex));
+                    return;
+                }
+                if (count == 0) {
+                    filled.put(new Chunk(data, -1, null));
+                    return;
+                }
+                filled.put(new Chunk(data, count, null));
+            }
+        } catch (InterruptedException ignored) {
+            // closed
+        }
+    }
+
+    @Override
+    public int available() throws IOException {
+        return limit - position + (chunk == null ? 0 : Math.max(chunk.length() - chunkPosition, 0));
+    }
+
+    @Override
+    protected int fill(byte[] buffer, int offset, int count) throws PDKRuntimeException {
+        if (eof) return -1;
+        while (chunk == null || chunkPosition == chunk.length()) {
+            if (chunk != null) free.add(chunk.data());
+            try {
+                chunk = filled.take();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new PDKRuntimeException(ex);
+            }
+            chunkPosition = 0;
+            if (chunk.error() != null) {
+                eof = true;
+                throw new PDKRuntimeException(chunk.error());
+            }
+            if (chunk.length() < 0) {
+                eof = true;
+                return -1;
+            }
+        }
+        int n = Math.min(count, chunk.length() - chunkPosition);
+        System.arraycopy(chunk.data(), chunkPosition, buffer, offset, n);
+        chunkPosition += n;
+        return n;
+    }
+
+    /**
+     * Stops the background thread and closes the stream.
+     */
+    @Override
+    public void close() throws PDKRuntimeException {
+        reader.interrupt();
+        super.close();
+    }
+}
@@ -0,0 +1,313 @@
+package pdk.util.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * An {@link InputStream} reading a {@link FileChannel} with reading progress information, for files of any size.
+ * <p>
+ * Unlike {@link ProgressInputStream} and {@link ProgressFileInputStream}, the counters are {@code long} and the length
+ * is the size of the channel, so the progress is exact for files larger than 2 GB. The channel is read in chunks of
+ * the buffer size, and the progress is only sampled when a chunk is read: every {@code byteInterval} bytes or every
+ * {@code millisInterval} milliseconds, the throughput and the estimated time remaining are updated and the
+ * {@link ProgressListener} is called on the reading thread. Reading a byte or a small array from the buffer costs
+ * nothing more than a {@link java.io.BufferedInputStream}.
+ * <p>
+ * The throughput is an exponential moving average of the rate between samples. The sampled values are published so
+ * that they can be polled from another thread, e.g. by a timer updating a progress bar.
+ * <pre>{@code
+ * try (ProgressChannelInputStream in = new ProgressChannelInputStream(path)) {
+ *     in.setListener(1 << 26, 1000, s -> System.out.printf("%.1f%% %.1f MB/s%n",
+ *             s.getFraction() * 100, s.getBytesPerSecond() / 1E6));
+ *     // read
+ * }
+ * }</pre>
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 17 Oct 2026, 2:20 PM
+ */
+public class ProgressChannelInputStream extends InputStream {
+
+    /**
+     * Receives the sampled progress of a stream.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        /**
+         * Called on the reading thread when the progress is sampled, and once at the end of the channel.
+         *
+         * @param stream the stream, whose getters return the sampled values
+         */
+        void progress(ProgressChannelInputStream stream);
+    }
+
+    /**
+     * weight of the latest rate in the moving average
+     */
+    private static final double SMOOTHING = 0.3;
+
+    private final FileChannel channel;
+    private final boolean closeChannel;
+    private final long length;
+    private final byte[] buffer;
+    private final ByteBuffer byteBuffer;
+    private int bufferPosition;
+    private int bufferLimit;
+    /**
+     * channel position of the end of the buffer
+     */
+    private long channelPosition;
+    private boolean eof;
+
+    private ProgressListener listener;
+    private long byteInterval = Long.MAX_VALUE;
+    private long nanosInterval = Long.MAX_VALUE;
+    private long nextSampleBytes = Long.MAX_VALUE;
+
+    private final long startNanos;
+    private long sampleNanos;
+    private long sampleBytes;
+    private volatile long sampledPosition;
+    private volatile double bytesPerSecond = Double.NaN;
+
+    /**
+     * Opens a file with a buffer size of 64 KB.
+     *
+     * @param file file to read
+     * @throws IOException if the file cannot be opened
+     */
+    public ProgressChannelInputStream(Path file) throws IOException {
+        this(FileChannel.open(file, StandardOpenOption.READ), true, 1 << 16);
+    }
+
+    /**
+     * Opens a file with a buffer size of 64 KB.
+     *
+     * @param file file to read
+     * @throws IOException if the file cannot be opened
+     */
+    public ProgressChannelInputStream(File file) throws IOException {
+        this(file.toPath());
+    }
+
+    /**
+     * Creates a stream reading a channel from its current position to its end.
+     *
+     * @param channel      channel to read
+     * @param closeChannel true to close the channel with this stream
+     * @param bufferSize   number of bytes read from the channel at a time
+     * @throws IOException if the position or size of the channel cannot be read
+     */
+    public ProgressChannelInputStream(FileChannel channel, boolean closeChannel, int bufferSize) throws IOException {
+        if (bufferSize < 1) throw new IllegalArgumentException("bufferSize must be >= 1: " + bufferSize);
+        this.channel = Objects.requireNonNull(channel);
+        this.closeChannel = closeChannel;
+        this.channelPosition = channel.position();
+        this.length = channel.size();
+        this.buffer = new byte[bufferSize];
+        this.byteBuffer = ByteBuffer.wrap(buffer);
+        this.startNanos = System.nanoTime();
+        this.sampleNanos = startNanos;
+        this.sampleBytes = channelPosition;
+        this.sampledPosition = channelPosition;
+    }
+
+    /**
+     * Sets the listener called when the progress is sampled.
+     *
+     * @param byteInterval   number of bytes between samples
+     * @param millisInterval number of milliseconds between samples
+     * @param listener       listener, null to remove
+     */
+    public void setListener(long byteInterval, long millisInterval, ProgressListener listener) {
+        if (byteInterval < 1) throw new IllegalArgumentException("byteInterval must be >= 1: " + byteInterval);
+        if (millisInterval < 1) throw new IllegalArgumentException("millisInterval must be >= 1: " + millisInterval);
+        this.listener = listener;
+        this.byteInterval = byteInterval;
+        this.nanosInterval = millisInterval > Long.MAX_VALUE / 1_000_000 ? Long.MAX_VALUE : millisInterval * 1_000_000;
+        this.nextSampleBytes = sampleBytes > Long.MAX_VALUE - byteInterval ? Long.MAX_VALUE : sampleBytes + byteInterval;
+    }
+
+    /**
+     * Returns the size of the channel.
+     *
+     * @return number of bytes of the channel
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the position of the next byte to read, on the reading thread.
+     *
+     * @return number of bytes of the channel before the next byte
+     */
+    public long getPosition() {
+        return channelPosition - (bufferLimit - bufferPosition);
+    }
+
+    /**
+     * Returns the position at the last sample, which can be read from any thread.
+     *
+     * @return sampled position
+     */
+    public long getSampledPosition() {
+        return sampledPosition;
+    }
+
+    /**
+     * Returns the fraction of the channel read at the last sample.
+     *
+     * @return fraction between 0 and 1
+     */
+    public double getFraction() {
+        return length == 0 ? 1 : (double) sampledPosition / length;
+    }
+
+    /**
+     * Returns the moving average of the throughput at the last sample.
+     *
+     * @return bytes per second, NaN before the first sample
+     */
+    public double getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    /**
+     * Returns the estimated time to read the rest of the channel at the last sample.
+     *
+     * @return milliseconds remaining, -1 if unknown
+     */
+    public long getEtaMillis() {
+        double rate = bytesPerSecond;
+        if (!(rate > 0)) return sampledPosition >= length ? 0 : -1;
+        return Math.round((length - sampledPosition) / rate * 1000);
+    }
+
+    /**
+     * Returns the time since this stream was created.
+     *
+     * @return elapsed milliseconds
+     */
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (bufferPosition == bufferLimit && !fillBuffer()) return -1;
+        return buffer[bufferPosition++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len == 0) return 0;
+        int available = bufferLimit - bufferPosition;
+        if (available > 0) {
+            int n = Math.min(available, len);
+            System.arraycopy(buffer, bufferPosition, b, off, n);
+            bufferPosition += n;
+            return n;
+        }
+        if (eof) return -1;
+        if (len >= buffer.length) {
+            // large reads go straight to the caller's array
+            return readChannel(ByteBuffer.wrap(b, off, len));
+        }
+        if (!fillBuffer()) return -1;
+        int n = Math.min(bufferLimit, len);
+        System.arraycopy(buffer, 0, b, off, n);
+        bufferPosition = n;
+        return n;
+    }
+
+    private boolean fillBuffer() throws IOException {
+        bufferPosition = 0;
+        bufferLimit = 0;
+        if (eof) return false;
+        byteBuffer.clear();
+        int n = readChannel(byteBuffer);
+        if (n < 0) return false;
+        bufferLimit = n;
+        return true;
+    }
+
+    /**
+     * Reads the channel at the current position and samples the progress.
+     *
+     * @return number of bytes read, -1 at the end
+     */
+    private int readChannel(ByteBuffer dst) throws IOException {
+        int n;
+        do {
+            n = channel.read(dst, channelPosition);
+        } while (n == 0);
+        if (n < 0) {
+            eof = true;
+            sample(System.nanoTime());
+            return -1;
+        }
+        channelPosition += n;
+        if (listener != null) {
+            if (channelPosition >= nextSampleBytes) {
+                sample(System.nanoTime());
+            } else {
+                long now = System.nanoTime();
+                if (now - sampleNanos >= nanosInterval) sample(now);
+            }
+        } else {
+            sampledPosition = channelPosition;
+        }
+        return n;
+    }
+
+    private void sample(long now) {
+        long elapsed = now - sampleNanos;
+        long bytes = channelPosition - sampleBytes;
+        if (elapsed > 0) {
+            double rate = bytes * 1E9 / elapsed;
+            double average = bytesPerSecond;
+            bytesPerSecond = Double.isNaN(average) ? rate : SMOOTHING * rate + (1 - SMOOTHING) * average;
+        }
+        sampleNanos = now;
+        sampleBytes = channelPosition;
+        sampledPosition = channelPosition;
+        nextSampleBytes = channelPosition > Long.MAX_VALUE - byteInterval ? Long.MAX_VALUE : channelPosition + byteInterval;
+        if (listener != null) listener.progress(this);
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        if (n <= 0) return 0;
+        int available = bufferLimit - bufferPosition;
+        if (n <= available) {
+            bufferPosition += (int) n;
+            return n;
+        }
+        long skipped = Math.min(n - available, Math.max(0, length - channelPosition)) + available;
+        channelPosition += skipped - available;
+        bufferPosition = 0;
+        bufferLimit = 0;
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        long remaining = length - getPosition();
+        return (int) Math.min(Math.max(remaining, 0), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closeChannel) channel.close();
+    }
+}
@@ -6,6 +6,9 @@ import java.io.IOException;
 
 /**
  * FileInputStream with reading progress information.
+ * <p>
+ * The progress of files larger than 2 GB is scaled down to fit in an {@code int}, use
+ * {@link ProgressChannelInputStream} for exact {@code long} progress, throughput and ETA.
  *
  * @author Jiawei Mao
  * @version 1.0.0
@@ -9,6 +9,8 @@ import java.io.InputStream;
  * It is expected to be a bit slower than a regular InputStream, albeit not very much
  * (typical difference compared with only regular FileInputStream for reading a file of appr. 20MB with
  * a wrapped BufferedReader is undetectable).
+ * <p>
+ * The progress is an {@code int}, use {@link ProgressChannelInputStream} for files larger than 2 GB.
  *
  * @author Jiawei Mao
  * @version 1.0.0
@@ -0,0 +1,225 @@
+package pdk.util.io;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import org.jspecify.annotations.Nullable;
+import pdk.util.exception.PDKRuntimeException;
+
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a file written by {@link RecordFileWriter}.
+ * <p>
+ * The file is memory-mapped and the footer index is loaded when the reader is opened, so any record is reached in
+ * constant time by its index or its id, without reading the records before it. {@link #readRange(int, int, Serializer)}
+ * loads the pages of the whole range at once and decodes the records sequentially.
+ * <p>
+ * A reader is not thread-safe, as the records are decoded from a single {@link MappedInput}.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 8:40 PM
+ */
+public class RecordFileReader implements AutoCloseable {
+
+    private final MappedInput input;
+    /**
+     * record offsets, followed by the footer offset
+     */
+    private final long[] offsets;
+    private final long @Nullable [] ids;
+    private final @Nullable Long2IntOpenHashMap idIndex;
+
+    /**
+     * Opens a record file with a buffer size of 4096.
+     *
+     * @param file file to read
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public RecordFileReader(Path file) throws IOException {
+        this(file, 4096);
+    }
+
+    /**
+     * Opens a record file.
+     *
+     * @param file       file to read
+     * @param bufferSize size of the buffer used to read primitive values and strings
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public RecordFileReader(Path file, int bufferSize) throws IOException {
+        this.input = new MappedInput(file, bufferSize);
+        try {
+            long size = input.size();
+            if (size < 4 + RecordFileWriter.TRAILER_SIZE || input.readInt() != RecordFileWriter.MAGIC)
+                throw new PDKRuntimeException("Not a record file: " + file);
+            input.seek(size - RecordFileWriter.TRAILER_SIZE);
+            long footerOffset = input.readLong();
+            if (input.readInt() != RecordFileWriter.MAGIC || footerOffset < 4
+                    || footerOffset > size - RecordFileWriter.TRAILER_SIZE)
+                throw new PDKRuntimeException("Corrupt record file footer: " + file);
+
+            input.seek(footerOffset);
+            int count = input.readVarInt(true);
+            boolean hasIds = input.readBoolean();
+            this.offsets = new long[count + 1];
+            input.readSortedLongs(offsets, 0, count);
+            offsets[count] = footerOffset;
+            if (hasIds) {
+                ids = input.readLongs(count);
+                idIndex = new Long2IntOpenHashMap(count);
+                idIndex.defaultReturnValue(-1);
+                for (int i = 0; i < count; i++) {
+                    if (idIndex.put(ids[i], i) != -1)
+                        throw new PDKRuntimeException("Duplicate record id: " + ids[i]);
+                }
+            } else {
+                ids = null;
+                idIndex = null;
+            }
+        } catch (RuntimeException ex) {
+            input.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the number of records.
+     *
+     * @return number of records
+     */
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Returns true if the records have ids.
+     *
+     * @return true if the records are keyed by id
+     */
+    public boolean hasIds() {
+        return ids != null;
+    }
+
+    /**
+     * Returns the id of the record at the given index.
+     *
+     * @param index record index
+     * @return record id
+     */
+    public long id(int index) {
+        if (ids == null) throw new IllegalStateException("The records of this file have no id.");
+        checkIndex(index);
+        return ids[index];
+    }
+
+    /**
+     * Returns the index of the record with the given id.
+     *
+     * @param id record id
+     * @return record index, -1 if there is no such record
+     */
+    public int indexOf(long id) {
+        if (idIndex == null) throw new IllegalStateException("The records of this file have no id.");
+        return idIndex.get(id);
+    }
+
+    /**
+     * Returns the offset of the record at the given index in the file.
+     *
+     * @param index record index
+     * @return record offset
+     */
+    public long offset(int index) {
+        checkIndex(index);
+        return offsets[index];
+    }
+
+    /**
+     * Returns the number of bytes of the record at the given index.
+     *
+     * @param index record index
+     * @return record length
+     */
+    public long recordLength(int index) {
+        checkIndex(index);
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * Moves to the start of the record at the given index.
+     *
+     * @param index record index
+     * @return the Input to read the record from
+     */
+    public MappedInput seek(int index) {
+        checkIndex(index);
+        input.seek(offsets[index]);
+        return input;
+    }
+
+    /**
+     * Reads the record at the given index.
+     *
+     * @param index      record index
+     * @param serializer serializer of the record
+     * @return the record
+     */
+    public <T> T read(int index, Serializer<T> serializer) throws PDKRuntimeException {
+        return serializer.read(seek(index));
+    }
+
+    /**
+     * Reads the record with the given id.
+     *
+     * @param id         record id
+     * @param serializer serializer of the record
+     * @return the record, null if there is no record with this id
+     */
+    public <T> @Nullable T readById(long id, Serializer<T> serializer) throws PDKRuntimeException {
+        int index = indexOf(id);
+        return index < 0 ? null : read(index, serializer);
+    }
+
+    /**
+     * Reads the records from index {@code from}, inclusive, to {@code to}, exclusive. The mapped pages of the range are
+     * loaded at once, then the records are decoded one after another without seeking.
+     *
+     * @param from       index of the first record
+     * @param to         index after the last record
+     * @param serializer serializer of the records
+     * @return the records
+     */
+    public <T> List<T> readRange(int from, int to, Serializer<T> serializer) throws PDKRuntimeException {
+        if (from < 0 || to > size() || from > to)
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for size " + size());
+        List<T> list = new ArrayList<>(to - from);
+        if (from == to) return list;
+        MemorySegment segment = input.getSegment();
+        if (segment.isMapped())
+            segment.asSlice(offsets[from], offsets[to] - offsets[from]).load();
+        input.seek(offsets[from]);
+        for (int i = from; i < to; i++) {
+            // a serializer which does not consume its whole record would shift the next ones
+            if (input.filePosition() != offsets[i]) input.seek(offsets[i]);
+            list.add(serializer.read(input));
+        }
+        return list;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size())
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+    }
+
+    /**
+     * Unmaps and closes the file.
+     */
+    @Override
+    public void close() throws PDKRuntimeException {
+        input.close();
+    }
+}
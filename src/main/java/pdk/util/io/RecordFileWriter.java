@@ -0,0 +1,168 @@
+package pdk.util.io;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import pdk.util.exception.PDKRuntimeException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes records back to back to a file, followed by an index of the record offsets, so that
+ * {@link RecordFileReader} can go to any record without reading the ones before it.
+ * <p>
+ * Records are written to the {@link Output} returned by {@link #getOutput()} after {@link #beginRecord()}, or with
+ * {@link #append(Object, Serializer)}. Records may be keyed by a long id, in which case every record of the file must
+ * have one. The file layout is:
+ * <pre>
+ * int    magic
+ * byte[] records
+ * footer:
+ *   varint  record count
+ *   byte    1 if the records have ids, 0 otherwise
+ *   long[]  record offsets, written by {@link Output#writeSortedLongs(long[], int, int)}
+ *   long[]  record ids, if any
+ * long   footer offset
+ * int    magic
+ * </pre>
+ * The footer is written by {@link #close()}, a file which is not closed cannot be read.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 8:25 PM
+ */
+public class RecordFileWriter implements AutoCloseable {
+
+    /**
+     * magic number at the start and at the end of a record file, "PDKR"
+     */
+    static final int MAGIC = 0x524B4450;
+    /**
+     * size of the trailer: footer offset and magic
+     */
+    static final int TRAILER_SIZE = 12;
+
+    private final Output output;
+    private final LongArrayList offsets = new LongArrayList();
+    private final LongArrayList ids = new LongArrayList();
+    private boolean closed;
+
+    /**
+     * Creates a writer with a buffer size of 64 KB.
+     *
+     * @param file file to write, replaced if it exists
+     * @throws IOException if the file cannot be created
+     */
+    public RecordFileWriter(Path file) throws IOException {
+        this(file, 1 << 16);
+    }
+
+    /**
+     * Creates a writer.
+     *
+     * @param file       file to write, replaced if it exists
+     * @param bufferSize size of the output buffer
+     * @throws IOException if the file cannot be created
+     */
+    public RecordFileWriter(Path file, int bufferSize) throws IOException {
+        this.output = new Output(Files.newOutputStream(file), bufferSize);
+        output.writeInt(MAGIC);
+    }
+
+    /**
+     * Returns the Output the records are written to.
+     *
+     * @return the record output
+     */
+    public Output getOutput() {
+        return output;
+    }
+
+    /**
+     * Returns the number of records begun.
+     *
+     * @return number of records
+     */
+    public int size() {
+        return offsets.size();
+    }
+
+    /**
+     * Starts a record without id, to be written to {@link #getOutput()}.
+     *
+     * @return index of the record
+     */
+    public int beginRecord() {
+        checkOpen();
+        if (!ids.isEmpty()) throw new IllegalStateException("The records of this file have ids.");
+        offsets.add(output.total());
+        return offsets.size() - 1;
+    }
+
+    /**
+     * Starts a record with the given id, to be written to {@link #getOutput()}.
+     *
+     * @param id record id
+     * @return index of the record
+     */
+    public int beginRecord(long id) {
+        checkOpen();
+        if (ids.size() != offsets.size()) throw new IllegalStateException("The records of this file have no id.");
+        offsets.add(output.total());
+        ids.add(id);
+        return offsets.size() - 1;
+    }
+
+    /**
+     * Writes a record without id.
+     *
+     * @param value      record to write
+     * @param serializer serializer of the record
+     * @return index of the record
+     */
+    public <T> int append(T value, Serializer<T> serializer) throws PDKRuntimeException {
+        int index = beginRecord();
+        serializer.write(output, value);
+        return index;
+    }
+
+    /**
+     * Writes a record with the given id.
+     *
+     * @param id         record id
+     * @param value      record to write
+     * @param serializer serializer of the record
+     * @return index of the record
+     */
+    public <T> int append(long id, T value, Serializer<T> serializer) throws PDKRuntimeException {
+        int index = beginRecord(id);
+        serializer.write(output, value);
+        return index;
+    }
+
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException("RecordFileWriter is closed.");
+    }
+
+    /**
+     * Writes the footer and closes the file.
+     */
+    @Override
+    public void close() throws PDKRuntimeException {
+        if (closed) return;
+        closed = true;
+        try {
+            long footerOffset = output.total();
+            int count = offsets.size();
+            boolean hasIds = !ids.isEmpty();
+            output.writeVarInt(count, true);
+            output.writeBoolean(hasIds);
+            output.writeSortedLongs(offsets.elements(), 0, count);
+            if (hasIds) output.writeLongs(ids.elements(), 0, count);
+            output.writeLong(footerOffset);
+            output.writeInt(MAGIC);
+        } finally {
+            output.close();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package pdk.util.io;
+
+import pdk.util.exception.PDKRuntimeException;
+
+import java.io.InputStream;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An {@link Input} that reads a list of {@link MemorySegment} as one contiguous stream, such as the chunks written by
+ * {@link SegmentOutput}.
+ * <p>
+ * Positions are {@code long}, so data larger than a byte[] can be read and {@link #seek(long) seeked}; after a seek,
+ * {@link #total()} is the read offset. Values which span two segments are read as usual, through the buffer.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 10:30 PM
+ */
+public class SegmentInput extends Input {
+
+    private final MemorySegment[] segments;
+    /**
+     * offset of each segment in the data, followed by the data size
+     */
+    private final long[] starts;
+    private final long size;
+    /**
+     * segment of the next byte to copy into the buffer
+     */
+    private int segmentIndex;
+    /**
+     * offset in the data of the next byte to copy into the buffer
+     */
+    private long fillOffset;
+
+    /**
+     * Creates an Input with a buffer size of 8192.
+     *
+     * @param segments segments to read, in order
+     */
+    public SegmentInput(List<MemorySegment> segments) {
+        this(segments, 8192);
+    }
+
+    /**
+     * Creates an Input.
+     *
+     * @param segments   segments to read, in order
+     * @param bufferSize size of the buffer used to read primitive values and strings
+     */
+    public SegmentInput(List<MemorySegment> segments, int bufferSize) {
+        super(bufferSize);
+        this.segments = segments.toArray(new MemorySegment[0]);
+        this.starts = new long[this.segments.length + 1];
+        for (int i = 0; i < this.segments.length; i++)
+            starts[i + 1] = starts[i] + this.segments[i].byteSize();
+        this.size = starts[this.segments.length];
+    }
+
+    /**
+     * Returns the number of bytes of all segments.
+     *
+     * @return data size in bytes
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Moves the read offset to the given position. Buffered bytes are discarded and {@link #total()} is set to the new
+     * offset.
+     *
+     * @param offset new read offset, between 0 and {@link #size()}
+     */
+    public void seek(long offset) {
+        if (offset < 0 || offset > size)
+            throw new IllegalArgumentException("offset must be >= 0 and <= " + size + ": " + offset);
+        position = 0;
+        limit = 0;
+        total = offset;
+        fillOffset = offset;
+        int index = Arrays.binarySearch(starts, offset);
+        // an offset at a segment boundary starts the later segment, skipping empty ones
+        if (index >= 0) {
+            while (index < segments.length && starts[index + 1] == offset) index++;
+            segmentIndex = index;
+        } else {
+            segmentIndex = -index - 2;
+        }
+    }
+
+    /**
+     * Returns the number of bytes between the read offset and the end of the data.
+     *
+     * @return remaining bytes
+     */
+    public long remaining() {
+        return size - fillOffset + (limit - position);
+    }
+
+    /**
+     * Not supported, the buffer is managed by this Input.
+     */
+    @Override
+    public void setBuffer(byte[] bytes, int offset, int count) {
+        throw new UnsupportedOperationException("SegmentInput does not support setBuffer.");
+    }
+
+    /**
+     * Not supported, this Input reads from segments.
+     */
+    @Override
+    public void setInputStream(InputStream inputStream) {
+        throw new UnsupportedOperationException("SegmentInput does not support setInputStream.");
+    }
+
+    @Override
+    public void reset() {
+        seek(0);
+        clearStrings();
+    }
+
+    @Override
+    public void setTotal(long total) {
+        throw new UnsupportedOperationException("Use seek(long) to move a SegmentInput.");
+    }
+
+    @Override
+    protected int fill(byte[] buffer, int offset, int count) throws PDKRuntimeException {
+        while (segmentIndex < segments.length && fillOffset == starts[segmentIndex + 1])
+            segmentIndex++;
+        if (segmentIndex == segments.length) return -1;
+        int n = (int) Math.min(count, starts[segmentIndex + 1] - fillOffset);
+        MemorySegment.copy(segments[segmentIndex], ValueLayout.JAVA_BYTE, fillOffset - starts[segmentIndex],
+                buffer, offset, n);
+        fillOffset += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, remaining());
+    }
+}
@@ -0,0 +1,330 @@
+package pdk.util.io;
+
+import pdk.util.exception.PDKRuntimeException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+import static pdk.util.io.Input.*;
+
+/**
+ * An {@link Output} that writes off-heap, to {@link MemorySegment} chunks allocated from an {@link Arena}.
+ * <p>
+ * When the byte[] buffer is flushed its bytes are appended to the current chunk, and a new chunk is allocated when the
+ * current one is full, so growing never copies the data already written. The bulk array methods copy straight from
+ * the source array into the chunks, except float and double arrays holding a NaN, which go through the buffer to write
+ * the canonical NaN as {@link Output} does. The written data can be obtained with {@link #segments()}, read back with a
+ * {@link SegmentInput}, or written to a channel with a single gathering write by {@link #writeTo(GatheringByteChannel)}.
+ * <p>
+ * The size of the written data is a long, given by {@link #total()}, so data larger than a byte[] can be built in
+ * memory. Chunks can also be allocated on the heap with {@link #SegmentOutput(int, int)}.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 10:52 AM
+ */
+public class SegmentOutput extends Output {
+
+    /**
+     * default chunk size, 4 MB.
+     */
+    public static final long DEFAULT_CHUNK_SIZE = 1L << 22;
+
+    /**
+     * arena to allocate chunks, null for heap chunks
+     */
+    private final Arena arena;
+    /**
+     * true if the arena is created and closed by this Output
+     */
+    private final boolean ownsArena;
+    private final long chunkSize;
+    /**
+     * all chunks allocated, reused after {@link #reset()}
+     */
+    private final List<MemorySegment> chunks = new ArrayList<>();
+    /**
+     * the written part of the filled chunks
+     */
+    private final List<MemorySegment> filled = new ArrayList<>();
+    /**
+     * index of the current chunk, -1 if no chunk is used yet
+     */
+    private int chunkIndex = -1;
+    private MemorySegment chunk;
+    /**
+     * number of bytes written to the current chunk
+     */
+    private long chunkPosition;
+
+    /**
+     * Creates an Output writing to a confined arena owned by this Output, which is closed by {@link #close()}.
+     */
+    public SegmentOutput() {
+        this(Arena.ofConfined(), true, DEFAULT_CHUNK_SIZE, 8192);
+    }
+
+    /**
+     * Creates an Output allocating chunks from the given arena. The arena is not closed by {@link #close()}.
+     *
+     * @param arena arena to allocate chunks
+     */
+    public SegmentOutput(Arena arena) {
+        this(arena, DEFAULT_CHUNK_SIZE, 8192);
+    }
+
+    /**
+     * Creates an Output allocating chunks from the given arena. The arena is not closed by {@link #close()}.
+     *
+     * @param arena      arena to allocate chunks
+     * @param chunkSize  size of each chunk in bytes
+     * @param bufferSize size of the buffer used to write primitive values and strings
+     */
+    public SegmentOutput(Arena arena, long chunkSize, int bufferSize) {
+        this(requireNonNull(arena), false, chunkSize, bufferSize);
+    }
+
+    /**
+     * Creates an Output writing to byte[] chunks on the heap, which are released with this Output by the garbage
+     * collector.
+     *
+     * @param chunkSize  size of each chunk in bytes
+     * @param bufferSize size of the buffer used to write primitive values and strings
+     */
+    public SegmentOutput(int chunkSize, int bufferSize) {
+        this(null, false, chunkSize, bufferSize);
+    }
+
+    private SegmentOutput(Arena arena, boolean ownsArena, long chunkSize, int bufferSize) {
+        super(bufferSize, bufferSize);
+        if (chunkSize < 8) throw new IllegalArgumentException("chunkSize must be >= 8: " + chunkSize);
+        this.arena = arena;
+        this.ownsArena = ownsArena;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Returns the number of bytes written, including bytes that have not been flushed.
+     *
+     * @return number of bytes written
+     */
+    public long size() {
+        return total();
+    }
+
+    /**
+     * Flushes the buffer and returns the written data as a list of segments, in order.
+     *
+     * @return segments of the written data
+     */
+    public List<MemorySegment> segments() {
+        flush();
+        List<MemorySegment> segments = new ArrayList<>(filled.size() + 1);
+        segments.addAll(filled);
+        if (chunkPosition > 0) segments.add(chunk.asSlice(0, chunkPosition));
+        return segments;
+    }
+
+    /**
+     * Flushes the buffer and returns the written data as a single segment. If more than one chunk has been used, the
+     * data are copied into a new segment allocated from the arena, or into a new byte[] for heap chunks.
+     *
+     * @return segment of the written data
+     */
+    public MemorySegment toSegment() {
+        List<MemorySegment> segments = segments();
+        if (segments.isEmpty()) return MemorySegment.ofArray(new byte[0]);
+        if (segments.size() == 1) return segments.getFirst();
+        MemorySegment segment;
+        if (arena != null) {
+            segment = arena.allocate(total);
+        } else {
+            if (total > Input.maxArraySize)
+                throw new BufferUnderflowException("Buffer overflow. Data too large for a byte[]: " + total);
+            segment = MemorySegment.ofArray(new byte[(int) total]);
+        }
+        long offset = 0;
+        for (MemorySegment s : segments) {
+            MemorySegment.copy(s, 0, segment, offset, s.byteSize());
+            offset += s.byteSize();
+        }
+        return segment;
+    }
+
+    /**
+     * Flushes the buffer and writes all written data to the channel with gathering writes.
+     *
+     * @param channel channel to write to, e.g. a {@link java.nio.channels.FileChannel}
+     * @return number of bytes written
+     * @throws IOException for writing error
+     */
+    public long writeTo(GatheringByteChannel channel) throws IOException {
+        List<MemorySegment> segments = segments();
+        ByteBuffer[] buffers = new ByteBuffer[segments.size()];
+        for (int i = 0; i < buffers.length; i++)
+            buffers[i] = segments.get(i).asByteBuffer();
+        long count = 0;
+        int offset = 0;
+        while (offset < buffers.length) {
+            count += channel.write(buffers, offset, buffers.length - offset);
+            while (offset < buffers.length && !buffers[offset].hasRemaining())
+                offset++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns all written bytes in a new byte[].
+     *
+     * @return written bytes
+     */
+    @Override
+    public byte[] toBytes() {
+        if (total() > Input.maxArraySize)
+            throw new BufferUnderflowException("Buffer overflow. Data too large for a byte[]: " + total());
+        return toSegment().toArray(ValueLayout.JAVA_BYTE);
+    }
+
+    /**
+     * Not supported, the buffer is managed by this Output.
+     */
+    @Override
+    public void setBuffer(byte[] buffer, int maxBufferSize) {
+        throw new UnsupportedOperationException("SegmentOutput does not support setBuffer.");
+    }
+
+    /**
+     * Not supported, this Output writes to memory segments.
+     */
+    @Override
+    public void setOutputStream(OutputStream outputStream) {
+        throw new UnsupportedOperationException("SegmentOutput does not support setOutputStream.");
+    }
+
+    /**
+     * Discards all written data. The allocated chunks are kept and reused.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        filled.clear();
+        chunkIndex = -1;
+        chunk = null;
+        chunkPosition = 0;
+    }
+
+    /**
+     * Ensures the current chunk has room for at least required bytes.
+     *
+     * @param required number of bytes, must be <= chunk size
+     */
+    private void ensureChunk(int required) {
+        if (chunk != null && chunk.byteSize() - chunkPosition >= required) return;
+        if (chunkPosition > 0) filled.add(chunk.asSlice(0, chunkPosition));
+        chunkIndex++;
+        if (chunkIndex == chunks.size())
+            chunks.add(arena != null ? arena.allocate(chunkSize, 8) : MemorySegment.ofArray(new byte[(int) chunkSize]));
+        chunk = chunks.get(chunkIndex);
+        chunkPosition = 0;
+    }
+
+    /**
+     * Copies the buffered bytes to the chunks.
+     */
+    @Override
+    public void flush() throws PDKRuntimeException {
+        int offset = 0;
+        while (offset < position) {
+            ensureChunk(1);
+            int count = (int) Math.min(position - offset, chunk.byteSize() - chunkPosition);
+            MemorySegment.copy(buffer, offset, chunk, ValueLayout.JAVA_BYTE, chunkPosition, count);
+            chunkPosition += count;
+            offset += count;
+        }
+        total += position;
+        position = 0;
+    }
+
+    /**
+     * Flushes the buffer and closes the arena if it is owned by this Output.
+     */
+    @Override
+    public void close() throws PDKRuntimeException {
+        flush();
+        if (ownsArena && arena.scope().isAlive()) arena.close();
+    }
+
+    /**
+     * Copies count elements of the given layout from a primitive array to the chunks. Elements are never split across
+     * chunks.
+     */
+    private void copy(Object array, int offset, int count, ValueLayout layout) {
+        flush();
+        int elementSize = (int) layout.byteSize();
+        while (count > 0) {
+            ensureChunk(elementSize);
+            int n = (int) Math.min(count, (chunk.byteSize() - chunkPosition) / elementSize);
+            MemorySegment.copy(array, offset, chunk, layout, chunkPosition, n);
+            long bytes = (long) n * elementSize;
+            chunkPosition += bytes;
+            total += bytes;
+            offset += n;
+            count -= n;
+        }
+    }
+
+    @Override
+    public void writeBytes(byte[] bytes, int offset, int count) throws PDKRuntimeException {
+        requireNonNull(bytes);
+        if (count <= capacity - position)
+            super.writeBytes(bytes, offset, count);
+        else
+            copy(bytes, offset, count, ValueLayout.JAVA_BYTE);
+    }
+
+    @Override
+    public void writeInts(int[] array, int offset, int count) throws PDKRuntimeException {
+        copy(array, offset, count, INT_LE);
+    }
+
+    @Override
+    public void writeLongs(long[] array, int offset, int count) throws PDKRuntimeException {
+        copy(array, offset, count, LONG_LE);
+    }
+
+    @Override
+    public void writeFloats(float[] array, int offset, int count) throws PDKRuntimeException {
+        if (hasNaN(array, offset, count))
+            // through the buffer, which collapses NaN to the canonical NaN
+            super.writeFloats(array, offset, count);
+        else
+            copy(array, offset, count, FLOAT_LE);
+    }
+
+    @Override
+    public void writeDoubles(double[] array, int offset, int count) throws PDKRuntimeException {
+        if (hasNaN(array, offset, count))
+            // through the buffer, which collapses NaN to the canonical NaN
+            super.writeDoubles(array, offset, count);
+        else
+            copy(array, offset, count, DOUBLE_LE);
+    }
+
+    @Override
+    public void writeShorts(short[] array, int offset, int count) throws PDKRuntimeException {
+        copy(array, offset, count, SHORT_LE);
+    }
+
+    @Override
+    public void writeChars(char[] array, int offset, int count) throws PDKRuntimeException {
+        copy(array, offset, count, CHAR_LE);
+    }
+}
@@ -0,0 +1,30 @@
+package pdk.util.io;
+
+import pdk.util.exception.PDKRuntimeException;
+
+/**
+ * Writes objects of a type to an {@link Output} and reads them back from an {@link Input}.
+ *
+ * @param <T> type of the serialized objects
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 8:20 PM
+ */
+public interface Serializer<T> {
+
+    /**
+     * Writes the given object.
+     *
+     * @param output output to write to
+     * @param value  object to write
+     */
+    void write(Output output, T value) throws PDKRuntimeException;
+
+    /**
+     * Reads an object written by {@link #write(Output, Object)}.
+     *
+     * @param input input to read from
+     * @return the object read
+     */
+    T read(Input input) throws PDKRuntimeException;
+}
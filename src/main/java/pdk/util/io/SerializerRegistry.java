@@ -0,0 +1,554 @@
+package pdk.util.io;
+
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.jspecify.annotations.Nullable;
+import pdk.util.data.Point;
+import pdk.util.data.Point2D;
+import pdk.util.data.Point3D;
+import pdk.util.data.WeightPoint2D;
+import pdk.util.exception.PDKRuntimeException;
+import pdk.util.tuple.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Writes and reads objects with their type through {@link Output} and {@link Input}, as a compact and fast replacement
+ * of Java serialization.
+ * <p>
+ * Boxed primitives, strings, primitive arrays, {@link ArrayList}, {@link HashMap}, {@link IntArrayList},
+ * {@link LongArrayList}, {@link DoubleArrayList}, {@link Point}, {@link Point2D}, {@link Point3D},
+ * {@link WeightPoint2D} and {@code Tuple0}-{@code Tuple9} are registered with a small id. Records and object arrays of
+ * supported types are written with their class name; the record components are read and the canonical constructor is
+ * called through {@link MethodHandle}s, created once per class. Other types can be {@link #register(Class, Serializer)
+ * registered}; ids are given in order of registration, so the writer and the reader must register the same classes in
+ * the same order.
+ * <p>
+ * Object graphs must not have cycles, and an object referenced twice is written twice, see
+ * {@link #isCopyable(Object)}. Records declaring
+ * {@code writeReplace} or {@code readResolve} are not supported. Records of other modules must be opened to this
+ * module.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 11:30 PM
+ */
+public final class SerializerRegistry {
+
+    private static final int NULL = 0;
+    /**
+     * tag of a type written with its class name
+     */
+    private static final int NAMED = 1;
+
+    /**
+     * maximum depth of an object graph checked by {@link #isCopyable(Object)}
+     */
+    public static final int MAX_COPY_DEPTH = 256;
+    /**
+     * types of values that can be shared, as their copies are equal
+     */
+    private static final Set<Class<?>> IMMUTABLE = Set.of(Boolean.class, Byte.class, Short.class, Character.class,
+            Integer.class, Long.class, Float.class, Double.class, String.class);
+
+    private static final SerializerRegistry DEFAULT = new SerializerRegistry();
+
+    private final Map<Class<?>, Integer> ids = new ConcurrentHashMap<>();
+    /**
+     * registered serializers, by id
+     */
+    private final List<Serializer<?>> registered = new CopyOnWriteArrayList<>();
+    /**
+     * serializers of records and object arrays
+     */
+    private final Map<Class<?>, Serializer<?>> derived = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a registry with the built-in types.
+     */
+    public SerializerRegistry() {
+        registered.add(null);
+        registered.add(null);
+        register(Boolean.class, of(Output::writeBoolean, Input::readBoolean));
+        register(Byte.class, of(Output::writeByte, Input::readByte));
+        register(Short.class, of((o, v) -> o.writeShort(v), Input::readShort));
+        register(Character.class, of(Output::writeChar, Input::readChar));
+        register(Integer.class, of((o, v) -> o.writeVarInt(v, false), i -> i.readVarInt(false)));
+        register(Long.class, of((o, v) -> o.writeVarLong(v, false), i -> i.readVarLong(false)));
+        register(Float.class, of(Output::writeFloat, Input::readFloat));
+        register(Double.class, of(Output::writeDouble, Input::readDouble));
+        register(String.class, of(Output::writeString, Input::readString));
+
+        register(boolean[].class, of((o, v) -> {
+            o.writeVarInt(v.length, true);
+            o.writeBooleans(v, 0, v.length);
+        }, i -> i.readBooleans(i.readVarInt(true))));
+        register(byte[].class, of((o, v) -> {
+            o.writeVarInt(v.length, true);
+            o.writeBytes(v);
+        }, i -> i.readBytes(i.readVarInt(true))));
+        register(short[].class, of((o, v) -> {
+            o.writeVarInt(v.length, true);
+            o.writeShorts(v, 0, v.length);
+        }, i -> i.readShorts(i.readVarInt(true))));
+        register(char[].class, of((o, v) -> {
+            o.writeVarInt(v.length, true);
+            o.writeChars(v, 0, v.length);
+        }, i -> i.readChars(i.readVarInt(true))));
+        register(int[].class, of((o, v) -> {
+            o.writeVarInt(v.length, true);
+            o.writeInts(v, 0, v.length);
+        }, i -> i.readInts(i.readVarInt(true))));
+        register(long[].class, of((o, v) -> {
+            o.writeVarInt(v.length, true);
+            o.writeLongs(v, 0, v.length);
+        }, i -> i.readLongs(i.readVarInt(true))));
+        register(float[].class, of((o, v) -> {
+            o.writeVarInt(v.length, true);
+            o.writeFloats(v, 0, v.length);
+        }, i -> i.readFloats(i.readVarInt(true))));
+        register(double[].class, of((o, v) -> {
+            o.writeVarInt(v.length, true);
+            o.writeDoubles(v, 0, v.length);
+        }, i -> i.readDoubles(i.readVarInt(true))));
+        register(String[].class, new ArraySerializer<>(this, String.class));
+
+        register(ArrayList.class, of((o, v) -> {
+            o.writeVarInt(v.size(), true);
+            for (Object e : v)
+                writeObject(o, e);
+        }, i -> {
+            int size = i.readVarInt(true);
+            ArrayList<Object> list = new ArrayList<>(size);
+            for (int k = 0; k < size; k++)
+                list.add(readObject(i));
+            return list;
+        }));
+        register(HashMap.class, of((o, v) -> {
+            o.writeVarInt(v.size(), true);
+            for (Map.Entry<?, ?> e : ((HashMap<?, ?>) v).entrySet()) {
+                writeObject(o, e.getKey());
+                writeObject(o, e.getValue());
+            }
+        }, i -> {
+            int size = i.readVarInt(true);
+            HashMap<Object, Object> map = HashMap.newHashMap(size);
+            for (int k = 0; k < size; k++)
+                map.put(readObject(i), readObject(i));
+            return map;
+        }));
+        register(IntArrayList.class, of((o, v) -> {
+            o.writeVarInt(v.size(), true);
+            o.writeInts(v.elements(), 0, v.size());
+        }, i -> IntArrayList.wrap(i.readInts(i.readVarInt(true)))));
+        register(LongArrayList.class, of((o, v) -> {
+            o.writeVarInt(v.size(), true);
+            o.writeLongs(v.elements(), 0, v.size());
+        }, i -> LongArrayList.wrap(i.readLongs(i.readVarInt(true)))));
+        register(DoubleArrayList.class, of((o, v) -> {
+            o.writeVarInt(v.size(), true);
+            o.writeDoubles(v.elements(), 0, v.size());
+        }, i -> DoubleArrayList.wrap(i.readDoubles(i.readVarInt(true)))));
+
+        register(Point.class, of((o, v) -> o.writeDouble(v.getX()), i -> Point.create(i.readDouble())));
+        register(Point2D.class, of((o, v) -> {
+            o.writeDouble(v.getX());
+            o.writeDouble(v.getY());
+        }, i -> Point.create(i.readDouble(), i.readDouble())));
+        register(Point3D.class, of((o, v) -> {
+            o.writeDouble(v.getX());
+            o.writeDouble(v.getY());
+            o.writeDouble(v.getZ());
+        }, i -> Point.create(i.readDouble(), i.readDouble(), i.readDouble())));
+        register(WeightPoint2D.class, of((o, v) -> {
+            o.writeDouble(v.getX());
+            o.writeDouble(v.getY());
+            o.writeDouble(v.getWeight());
+        }, i -> new WeightPoint2D(i.readDouble(), i.readDouble(), i.readDouble())));
+
+        register(Tuple0.class, of((_, _) -> {}, _ -> Tuple0.instance()));
+        Class<?>[] tuples = {Tuple1.class, Tuple2.class, Tuple3.class, Tuple4.class, Tuple5.class, Tuple6.class,
+                Tuple7.class, Tuple8.class, Tuple9.class};
+        for (int n = 1; n <= tuples.length; n++)
+            registerUnchecked(tuples[n - 1], tupleSerializer(tuples[n - 1], n));
+    }
+
+    /**
+     * Returns the registry used by {@code SerializationUtils.round}.
+     *
+     * @return the default registry
+     */
+    public static SerializerRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Registers a serializer for the given class, replacing the serializer derived for a record.
+     *
+     * @param type       class of the objects, matched exactly, not its subclasses
+     * @param serializer serializer of the objects
+     * @return id of the class
+     * @throws IllegalArgumentException if the class is already registered
+     */
+    public synchronized <T> int register(Class<T> type, Serializer<T> serializer) {
+        if (ids.containsKey(type)) throw new IllegalArgumentException(type.getName() + " is already registered.");
+        int id = registered.size();
+        registered.add(serializer);
+        ids.put(type, id);
+        return id;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void registerUnchecked(Class<?> type, Serializer<?> serializer) {
+        register((Class<Object>) type, (Serializer<Object>) serializer);
+    }
+
+    private static <T> Serializer<T> of(BiConsumer<Output, T> writer, Function<Input, T> reader) {
+        return new Serializer<>() {
+            @Override
+            public void write(Output output, T value) {
+                writer.accept(output, value);
+            }
+
+            @Override
+            public T read(Input input) {
+                return reader.apply(input);
+            }
+        };
+    }
+
+    /**
+     * Returns true if objects of the given class can be written. For records and arrays, the types of the components
+     * are checked when they are written.
+     *
+     * @param type class of the objects
+     * @return true if the class is registered, or is a record or an object array
+     */
+    public boolean supports(Class<?> type) {
+        if (ids.containsKey(type)) return true;
+        try {
+            return derived(type) != null;
+        } catch (IllegalArgumentException ex) {
+            // a record not accessible to this module
+            return false;
+        }
+    }
+
+    /**
+     * Returns true if {@link #copy(Object)} gives an equal object graph: all the objects are supported, the graph has no
+     * cycle, is at most {@value #MAX_COPY_DEPTH} objects deep, and no object other than a boxed primitive or a string is
+     * referenced twice. The graph is walked once, nothing is written.
+     *
+     * @param value object to check, may be null
+     * @return true if the object can be copied by this registry
+     */
+    public boolean isCopyable(@Nullable Object value) {
+        return isCopyable(value, Collections.newSetFromMap(new IdentityHashMap<>()), 0);
+    }
+
+    private boolean isCopyable(@Nullable Object value, Set<Object> visited, int depth) {
+        if (value == null || IMMUTABLE.contains(value.getClass())) return true;
+        if (depth >= MAX_COPY_DEPTH || !visited.add(value)) return false;
+        Class<?> type = value.getClass();
+        Integer id = ids.get(type);
+        Serializer<?> serializer;
+        if (id != null) {
+            serializer = registered.get(id);
+        } else {
+            try {
+                serializer = derived(type);
+            } catch (IllegalArgumentException ex) {
+                return false;
+            }
+            if (serializer == null) return false;
+        }
+        if (serializer instanceof FieldSerializer fields) return fields.isCopyable(value, visited, depth + 1);
+        if (value instanceof Object[] array) {
+            for (Object e : array)
+                if (!isCopyable(e, visited, depth + 1)) return false;
+        } else if (type == ArrayList.class) {
+            for (Object e : (ArrayList<?>) value)
+                if (!isCopyable(e, visited, depth + 1)) return false;
+        } else if (type == HashMap.class) {
+            for (Map.Entry<?, ?> e : ((HashMap<?, ?>) value).entrySet())
+                if (!isCopyable(e.getKey(), visited, depth + 1) || !isCopyable(e.getValue(), visited, depth + 1))
+                    return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the serializer of the given class.
+     *
+     * @param type class of the objects
+     * @return the serializer
+     * @throws IllegalArgumentException if the class is not supported
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Serializer<T> getSerializer(Class<T> type) {
+        Integer id = ids.get(type);
+        Serializer<?> serializer = id != null ? registered.get(id) : derived(type);
+        if (serializer == null) throw new IllegalArgumentException("No serializer for " + type.getName() + ".");
+        return (Serializer<T>) serializer;
+    }
+
+    private @Nullable Serializer<?> derived(Class<?> type) {
+        Serializer<?> serializer = derived.get(type);
+        if (serializer != null) return serializer;
+        if (type.isRecord()) {
+            if (declares(type, "writeReplace") || declares(type, "readResolve")) return null;
+            serializer = recordSerializer(type);
+        } else if (type.isArray() && !type.getComponentType().isPrimitive()) {
+            serializer = new ArraySerializer<>(this, type.getComponentType());
+        } else {
+            return null;
+        }
+        Serializer<?> previous = derived.putIfAbsent(type, serializer);
+        return previous != null ? previous : serializer;
+    }
+
+    private static boolean declares(Class<?> type, String method) {
+        for (Method m : type.getDeclaredMethods()) {
+            if (m.getName().equals(method) && m.getParameterCount() == 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Writes an object and its type.
+     *
+     * @param output output to write to
+     * @param value  object to write, may be null
+     * @throws IllegalArgumentException if the object, or an object it references, is not supported
+     */
+    @SuppressWarnings("unchecked")
+    public void writeObject(Output output, @Nullable Object value) throws PDKRuntimeException {
+        if (value == null) {
+            output.writeVarInt(NULL, true);
+            return;
+        }
+        Class<?> type = value.getClass();
+        Integer id = ids.get(type);
+        Serializer<Object> serializer;
+        if (id != null) {
+            output.writeVarInt(id, true);
+            serializer = (Serializer<Object>) registered.get(id);
+        } else {
+            serializer = (Serializer<Object>) derived(type);
+            if (serializer == null) throw new IllegalArgumentException("No serializer for " + type.getName() + ".");
+            output.writeVarInt(NAMED, true);
+            output.writeString(type.getName());
+        }
+        serializer.write(output, value);
+    }
+
+    /**
+     * Reads an object written by {@link #writeObject(Output, Object)}.
+     *
+     * @param input input to read from
+     * @return the object read, may be null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> @Nullable T readObject(Input input) throws PDKRuntimeException {
+        int id = input.readVarInt(true);
+        if (id == NULL) return null;
+        Serializer<?> serializer;
+        if (id == NAMED) {
+            String name = input.readString();
+            Class<?> type;
+            try {
+                type = Class.forName(name, false, SerializerRegistry.class.getClassLoader());
+            } catch (ClassNotFoundException ex) {
+                throw new PDKRuntimeException(ex);
+            }
+            serializer = derived(type);
+            if (serializer == null) throw new PDKRuntimeException("No serializer for " + name + ".");
+        } else {
+            if (id >= registered.size()) throw new PDKRuntimeException("Unknown class id: " + id);
+            serializer = registered.get(id);
+        }
+        return (T) serializer.read(input);
+    }
+
+    /**
+     * Returns a deep copy of an object, by writing and reading it.
+     *
+     * @param value object to copy, may be null
+     * @return the copy
+     * @throws IllegalArgumentException if the object, or an object it references, is not supported
+     */
+    public <T> @Nullable T copy(@Nullable T value) {
+        Output output = new Output(256, -1);
+        writeObject(output, value);
+        return readObject(new Input(output.getBuffer(), 0, output.position()));
+    }
+
+    private Serializer<?> tupleSerializer(Class<?> type, int arity) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            MethodHandle[] getters = new MethodHandle[arity];
+            Class<?>[] types = new Class<?>[arity];
+            for (int i = 0; i < arity; i++) {
+                getters[i] = lookup.unreflectGetter(type.getField("_" + (i + 1)));
+                types[i] = Object.class;
+            }
+            return new FieldSerializer(this, getters, types, lookup.unreflectConstructor(type.getConstructor(types)));
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private Serializer<?> recordSerializer(Class<?> type) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            RecordComponent[] components = type.getRecordComponents();
+            MethodHandle[] getters = new MethodHandle[components.length];
+            Class<?>[] types = new Class<?>[components.length];
+            for (int i = 0; i < components.length; i++) {
+                Method accessor = components[i].getAccessor();
+                accessor.trySetAccessible();
+                getters[i] = lookup.unreflect(accessor);
+                types[i] = components[i].getType();
+            }
+            Constructor<?> constructor = type.getDeclaredConstructor(types);
+            constructor.trySetAccessible();
+            return new FieldSerializer(this, getters, types, lookup.unreflectConstructor(constructor));
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalArgumentException("Cannot access record " + type.getName() + ".", ex);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable ex) {
+        if (ex instanceof RuntimeException e) return e;
+        if (ex instanceof Error e) throw e;
+        return new PDKRuntimeException(ex);
+    }
+
+    /**
+     * Writes the fields of an object, read with getters, and creates it with a constructor taking all fields.
+     */
+    private static final class FieldSerializer implements Serializer<Object> {
+
+        private final SerializerRegistry registry;
+        private final MethodHandle[] getters;
+        private final Class<?>[] types;
+        /**
+         * constructor taking the field values as an Object[]
+         */
+        private final MethodHandle constructor;
+
+        FieldSerializer(SerializerRegistry registry, MethodHandle[] getters, Class<?>[] types, MethodHandle constructor) {
+            this.registry = registry;
+            this.types = types;
+            this.getters = new MethodHandle[getters.length];
+            for (int i = 0; i < getters.length; i++)
+                this.getters[i] = getters[i].asType(MethodType.methodType(
+                        types[i].isPrimitive() ? types[i] : Object.class, Object.class));
+            this.constructor = constructor.asSpreader(Object[].class, types.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        }
+
+        @Override
+        public void write(Output output, Object value) {
+            try {
+                for (int i = 0; i < getters.length; i++) {
+                    MethodHandle getter = getters[i];
+                    Class<?> type = types[i];
+                    if (!type.isPrimitive()) registry.writeObject(output, (Object) getter.invokeExact(value));
+                    else if (type == int.class) output.writeVarInt((int) getter.invokeExact(value), false);
+                    else if (type == long.class) output.writeVarLong((long) getter.invokeExact(value), false);
+                    else if (type == double.class) output.writeDouble((double) getter.invokeExact(value));
+                    else if (type == float.class) output.writeFloat((float) getter.invokeExact(value));
+                    else if (type == boolean.class) output.writeBoolean((boolean) getter.invokeExact(value));
+                    else if (type == byte.class) output.writeByte((byte) getter.invokeExact(value));
+                    else if (type == short.class) output.writeShort((short) getter.invokeExact(value));
+                    else output.writeChar((char) getter.invokeExact(value));
+                }
+            } catch (Throwable ex) {
+                throw rethrow(ex);
+            }
+        }
+
+        boolean isCopyable(Object value, Set<Object> visited, int depth) {
+            try {
+                for (int i = 0; i < getters.length; i++) {
+                    if (types[i].isPrimitive()) continue;
+                    if (!registry.isCopyable((Object) getters[i].invokeExact(value), visited, depth)) return false;
+                }
+                return true;
+            } catch (Throwable ex) {
+                return false;
+            }
+        }
+
+        @Override
+        public Object read(Input input) {
+            Object[] args = new Object[types.length];
+            for (int i = 0; i < args.length; i++) {
+                Class<?> type = types[i];
+                if (!type.isPrimitive()) args[i] = registry.readObject(input);
+                else if (type == int.class) args[i] = input.readVarInt(false);
+                else if (type == long.class) args[i] = input.readVarLong(false);
+                else if (type == double.class) args[i] = input.readDouble();
+                else if (type == float.class) args[i] = input.readFloat();
+                else if (type == boolean.class) args[i] = input.readBoolean();
+                else if (type == byte.class) args[i] = input.readByte();
+                else if (type == short.class) args[i] = input.readShort();
+                else args[i] = input.readChar();
+            }
+            try {
+                return (Object) constructor.invokeExact(args);
+            } catch (Throwable ex) {
+                throw rethrow(ex);
+            }
+        }
+    }
+
+    /**
+     * Writes an object array as its length followed by the elements with their type.
+     */
+    private static final class ArraySerializer<T> implements Serializer<T[]> {
+
+        private final SerializerRegistry registry;
+        private final Class<T> componentType;
+
+        ArraySerializer(SerializerRegistry registry, Class<T> componentType) {
+            this.registry = registry;
+            this.componentType = componentType;
+        }
+
+        @Override
+        public void write(Output output, T[] value) {
+            output.writeVarInt(value.length, true);
+            for (T e : value)
+                registry.writeObject(output, e);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T[] read(Input input) {
+            T[] array = (T[]) Array.newInstance(componentType, input.readVarInt(true));
+            for (int i = 0; i < array.length; i++)
+                array[i] = registry.readObject(input);
+            return array;
+        }
+    }
+}
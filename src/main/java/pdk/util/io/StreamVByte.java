@@ -0,0 +1,193 @@
+package pdk.util.io;
+
+import java.util.Arrays;
+
+import static pdk.util.io.Input.INT_VIEW;
+import static pdk.util.io.Input.LONG_VIEW;
+
+/**
+ * Stream VByte block codec used by {@link Output#writeVByteInts(int[], int, int, boolean)} and
+ * {@link Input#readVByteInts(int[], int, int, boolean)}.
+ * <p>
+ * Values are stored in blocks of up to {@link #BLOCK_SIZE} values. A block starts with the control bytes, followed by
+ * the data bytes of each value in little endian, with the leading zero bytes dropped. For int, each control byte holds
+ * the byte length - 1 of 4 values, 2 bits per value starting from the low bits; for long, each control byte holds the
+ * byte length - 1 of 2 values, 4 bits per value. Unused slots of the last control byte are 0.
+ * <p>
+ * Decoding does not branch on the data: each value is read with one unaligned load and masked by its length, and the
+ * data length of a block is summed from a lookup table before decoding.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 2:10 PM
+ */
+final class StreamVByte {
+
+    /**
+     * number of values in a block
+     */
+    static final int BLOCK_SIZE = 64;
+
+    private static final int[] INT_MASKS = {0xFF, 0xFFFF, 0xFFFFFF, -1};
+    private static final long[] LONG_MASKS = new long[8];
+    /**
+     * data length of the 4 int values of a control byte
+     */
+    private static final byte[] INT_DATA_LENGTHS = new byte[256];
+    /**
+     * data length of the 2 long values of a control byte
+     */
+    private static final byte[] LONG_DATA_LENGTHS = new byte[256];
+
+    static {
+        for (int i = 0; i < 8; i++)
+            LONG_MASKS[i] = i == 7 ? -1L : (1L << ((i + 1) << 3)) - 1;
+        for (int c = 0; c < 256; c++) {
+            INT_DATA_LENGTHS[c] = (byte) ((c & 3) + (c >> 2 & 3) + (c >> 4 & 3) + (c >> 6 & 3) + 4);
+            LONG_DATA_LENGTHS[c] = (byte) ((c & 7) + (c >> 4 & 7) + 2);
+        }
+    }
+
+    private StreamVByte() {}
+
+    /**
+     * Returns the number of bytes of a buffer enough to encode or decode a block of count int values, including 3
+     * bytes of slack for the unaligned loads and stores.
+     */
+    static int maxIntBlockLength(int count) {
+        return ((count + 3) >> 2) + (count << 2) + 3;
+    }
+
+    /**
+     * Returns the number of bytes of a buffer enough to encode or decode a block of count long values, including 7
+     * bytes of slack for the unaligned loads and stores.
+     */
+    static int maxLongBlockLength(int count) {
+        return ((count + 1) >> 1) + (count << 3) + 7;
+    }
+
+    static int intControlLength(int count) {
+        return (count + 3) >> 2;
+    }
+
+    static int longControlLength(int count) {
+        return (count + 1) >> 1;
+    }
+
+    /**
+     * Encodes a block of int values.
+     *
+     * @param array            values to encode
+     * @param offset           offset of the first value
+     * @param count            number of values, at most {@link #BLOCK_SIZE}
+     * @param optimizePositive if false, the values are zigzag encoded so small negative values are short
+     * @param buffer           buffer with at least {@link #maxIntBlockLength(int)} bytes from position
+     * @param position         buffer position to write the block
+     * @return buffer position after the block
+     */
+    static int encodeInts(int[] array, int offset, int count, boolean optimizePositive, byte[] buffer, int position) {
+        int control = position;
+        int p = position + intControlLength(count);
+        Arrays.fill(buffer, control, p, (byte) 0);
+        for (int i = 0; i < count; i++) {
+            int value = array[offset + i];
+            if (!optimizePositive) value = (value << 1) ^ (value >> 31);
+            int code = (31 - Integer.numberOfLeadingZeros(value | 1)) >> 3;
+            INT_VIEW.set(buffer, p, value);
+            p += code + 1;
+            buffer[control + (i >> 2)] |= (byte) (code << ((i & 3) << 1));
+        }
+        return p;
+    }
+
+    /**
+     * Encodes a block of long values.
+     *
+     * @param array            values to encode
+     * @param offset           offset of the first value
+     * @param count            number of values, at most {@link #BLOCK_SIZE}
+     * @param optimizePositive if false, the values are zigzag encoded so small negative values are short
+     * @param buffer           buffer with at least {@link #maxLongBlockLength(int)} bytes from position
+     * @param position         buffer position to write the block
+     * @return buffer position after the block
+     */
+    static int encodeLongs(long[] array, int offset, int count, boolean optimizePositive, byte[] buffer, int position) {
+        int control = position;
+        int p = position + longControlLength(count);
+        Arrays.fill(buffer, control, p, (byte) 0);
+        for (int i = 0; i < count; i++) {
+            long value = array[offset + i];
+            if (!optimizePositive) value = (value << 1) ^ (value >> 63);
+            int code = (63 - Long.numberOfLeadingZeros(value | 1)) >> 3;
+            LONG_VIEW.set(buffer, p, value);
+            p += code + 1;
+            buffer[control + (i >> 1)] |= (byte) (code << ((i & 1) << 2));
+        }
+        return p;
+    }
+
+    /**
+     * Returns the number of data bytes of a block of count int values.
+     */
+    static int intDataLength(byte[] control, int count) {
+        int controlLength = intControlLength(count);
+        int length = 0;
+        for (int i = 0; i < controlLength; i++)
+            length += INT_DATA_LENGTHS[control[i] & 0xFF];
+        // unused slots of the last control byte are counted as one byte
+        return length - ((controlLength << 2) - count);
+    }
+
+    /**
+     * Returns the number of data bytes of a block of count long values.
+     */
+    static int longDataLength(byte[] control, int count) {
+        int controlLength = longControlLength(count);
+        int length = 0;
+        for (int i = 0; i < controlLength; i++)
+            length += LONG_DATA_LENGTHS[control[i] & 0xFF];
+        return length - ((controlLength << 1) - count);
+    }
+
+    /**
+     * Decodes the data bytes of a block of int values.
+     *
+     * @param control  control bytes of the block
+     * @param count    number of values in the block
+     * @param buffer   buffer holding the data bytes, followed by at least 3 readable bytes
+     * @param position position of the data bytes
+     * @param array    array to store the values
+     * @param offset   offset in the array
+     */
+    static void decodeInts(byte[] control, int count, boolean optimizePositive, byte[] buffer, int position,
+            int[] array, int offset) {
+        int p = position;
+        for (int i = 0; i < count; i++) {
+            int code = control[i >> 2] >> ((i & 3) << 1) & 3;
+            int value = (int) INT_VIEW.get(buffer, p) & INT_MASKS[code];
+            p += code + 1;
+            array[offset + i] = optimizePositive ? value : (value >>> 1) ^ -(value & 1);
+        }
+    }
+
+    /**
+     * Decodes the data bytes of a block of long values.
+     *
+     * @param control  control bytes of the block
+     * @param count    number of values in the block
+     * @param buffer   buffer holding the data bytes, followed by at least 7 readable bytes
+     * @param position position of the data bytes
+     * @param array    array to store the values
+     * @param offset   offset in the array
+     */
+    static void decodeLongs(byte[] control, int count, boolean optimizePositive, byte[] buffer, int position,
+            long[] array, int offset) {
+        int p = position;
+        for (int i = 0; i < count; i++) {
+            int code = control[i >> 1] >> ((i & 1) << 2) & 7;
+            long value = (long) LONG_VIEW.get(buffer, p) & LONG_MASKS[code];
+            p += code + 1;
+            array[offset + i] = optimizePositive ? value : (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package pdk.util.io;
+
+import org.jspecify.annotations.Nullable;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Positions of a fixed set of attributes in the start tags of an element type, to read numeric attributes of many
+ * elements, such as the {@code <SpectrumIdentificationItem>} of mzIdentML, with little overhead.
+ * <p>
+ * The position of each attribute is resolved once, and only checked for the following elements, as the elements of a
+ * file usually list their attributes in the same order. Numbers are parsed by {@link DoubleParser}, and returned
+ * without boxing. Use one instance per element type and reader, it is not thread-safe.
+ * <pre>{@code
+ * XMLAttributeIndex attrs = new XMLAttributeIndex("chargeState", "experimentalMassToCharge");
+ * // at each start element
+ * attrs.resolve(reader);
+ * int charge = attrs.requiredInt(reader, 0);
+ * double mz = attrs.requiredDouble(reader, 1);
+ * }</pre>
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 17 Oct 2026, 11:30 AM
+ */
+public final class XMLAttributeIndex {
+
+    private final String[] names;
+    /**
+     * attribute positions in the current element, -1 for absent
+     */
+    private final int[] positions;
+
+    /**
+     * Creates an index of the given attributes, which are then referred to by their index in this array.
+     *
+     * @param names local names of the attributes
+     */
+    public XMLAttributeIndex(String... names) {
+        this.names = names.clone();
+        this.positions = new int[names.length];
+    }
+
+    /**
+     * Returns the number of attributes of this index.
+     *
+     * @return number of attributes
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Returns the local name of an attribute.
+     *
+     * @param attr attribute index
+     * @return attribute local name
+     */
+    public String name(int attr) {
+        return names[attr];
+    }
+
+    /**
+     * Resolves the positions of the attributes in the current start element.
+     *
+     * @param reader reader at a start element
+     */
+    public void resolve(XMLStreamReader reader) {
+        int count = reader.getAttributeCount();
+        for (int i = 0; i < names.length; i++) {
+            int position = positions[i];
+            if (position >= 0 && position < count && matches(reader, position, names[i])) continue;
+            positions[i] = -1;
+            for (int j = 0; j < count; j++) {
+                if (matches(reader, j, names[i])) {
+                    positions[i] = j;
+                    break;
+                }
+            }
+        }
+    }
+
+    private static boolean matches(XMLStreamReader reader, int position, String name) {
+        String localName = reader.getAttributeLocalName(position);
+        return localName == name || localName.equals(name);
+    }
+
+    /**
+     * Returns true if the current element has the attribute.
+     *
+     * @param attr attribute index
+     * @return true if the attribute is present
+     */
+    public boolean has(int attr) {
+        return positions[attr] >= 0;
+    }
+
+    /**
+     * Returns the value of an attribute.
+     *
+     * @param reader reader at the resolved start element
+     * @param attr   attribute index
+     * @return attribute value, null for absent
+     */
+    public @Nullable String value(XMLStreamReader reader, int attr) {
+        int position = positions[attr];
+        return position < 0 ? null : reader.getAttributeValue(position);
+    }
+
+    private String requiredValue(XMLStreamReader reader, int attr) throws XMLStreamException {
+        int position = positions[attr];
+        if (position < 0)
+            throw new XMLStreamException(String.format("%s miss attr %s", reader.getLocalName(), names[attr]));
+        return reader.getAttributeValue(position);
+    }
+
+    /**
+     * Returns the double value of an attribute.
+     *
+     * @param reader       reader at the resolved start element
+     * @param attr         attribute index
+     * @param defaultValue value for absent
+     * @return attribute value
+     */
+    public double getDouble(XMLStreamReader reader, int attr, double defaultValue) {
+        String value = value(reader, attr);
+        return value == null ? defaultValue : DoubleParser.parseDouble(value);
+    }
+
+    /**
+     * Returns the double value of an attribute that must exist.
+     *
+     * @param reader reader at the resolved start element
+     * @param attr   attribute index
+     * @return attribute value
+     * @throws XMLStreamException if the attribute is absent
+     */
+    public double requiredDouble(XMLStreamReader reader, int attr) throws XMLStreamException {
+        return DoubleParser.parseDouble(requiredValue(reader, attr));
+    }
+
+    /**
+     * Returns the float value of an attribute.
+     *
+     * @param reader       reader at the resolved start element
+     * @param attr         attribute index
+     * @param defaultValue value for absent
+     * @return attribute value
+     */
+    public float getFloat(XMLStreamReader reader, int attr, float defaultValue) {
+        String value = value(reader, attr);
+        return value == null ? defaultValue : DoubleParser.parseFloat(value);
+    }
+
+    /**
+     * Returns the float value of an attribute that must exist.
+     *
+     * @param reader reader at the resolved start element
+     * @param attr   attribute index
+     * @return attribute value
+     * @throws XMLStreamException if the attribute is absent
+     */
+    public float requiredFloat(XMLStreamReader reader, int attr) throws XMLStreamException {
+        return DoubleParser.parseFloat(requiredValue(reader, attr));
+    }
+
+    /**
+     * Returns the int value of an attribute.
+     *
+     * @param reader       reader at the resolved start element
+     * @param attr         attribute index
+     * @param defaultValue value for absent
+     * @return attribute value
+     */
+    public int getInt(XMLStreamReader reader, int attr, int defaultValue) {
+        String value = value(reader, attr);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    /**
+     * Returns the int value of an attribute that must exist.
+     *
+     * @param reader reader at the resolved start element
+     * @param attr   attribute index
+     * @return attribute value
+     * @throws XMLStreamException if the attribute is absent
+     */
+    public int requiredInt(XMLStreamReader reader, int attr) throws XMLStreamException {
+        return Integer.parseInt(requiredValue(reader, attr));
+    }
+
+    /**
+     * Returns the long value of an attribute.
+     *
+     * @param reader       reader at the resolved start element
+     * @param attr         attribute index
+     * @param defaultValue value for absent
+     * @return attribute value
+     */
+    public long getLong(XMLStreamReader reader, int attr, long defaultValue) {
+        String value = value(reader, attr);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    /**
+     * Returns the long value of an attribute that must exist.
+     *
+     * @param reader reader at the resolved start element
+     * @param attr   attribute index
+     * @return attribute value
+     * @throws XMLStreamException if the attribute is absent
+     */
+    public long requiredLong(XMLStreamReader reader, int attr) throws XMLStreamException {
+        return Long.parseLong(requiredValue(reader, attr));
+    }
+}
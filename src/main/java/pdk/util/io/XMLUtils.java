@@ -26,17 +26,18 @@ public class XMLUtils {
     private static final Pattern xmlHeader = Pattern.compile(".*<\\?xml.+\\?>.*", Pattern.DOTALL);
     private static final Pattern xmlEnc = Pattern.compile(".*encoding\\s*=\\s*[\"']([A-Za-z]([A-Za-z0-9._]|[-])*)" +
             "[\"'](.*)", Pattern.DOTALL);
+    private static final ThreadLocal<BinaryDataInput> binaryInput = ThreadLocal.withInitial(BinaryDataInput::new);
 
     /**
-     * Create an {@link PrettyXMLStreamWriter} to output formatted xml writer.
+     * Create a {@link FastXMLStreamWriter} to output formatted xml in UTF-8, the file is closed with the writer.
      *
      * @param targetFile target file path.
      * @return a {@link XMLStreamWriter} instance.
      */
     public static XMLStreamWriter createPrettyWriter(File targetFile) {
-        PrettyXMLStreamWriter writer = null;
+        FastXMLStreamWriter writer = null;
         try {
-            writer = new PrettyXMLStreamWriter(targetFile);
+            writer = new FastXMLStreamWriter(targetFile);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -44,19 +45,13 @@ public class XMLUtils {
     }
 
     /**
-     * Create an {@link PrettyXMLStreamWriter} to output formatted xml writer.
+     * Create a {@link FastXMLStreamWriter} to output formatted xml in UTF-8.
      *
      * @param outputStream target stream.
      * @return a {@link XMLStreamWriter} instance.
      */
     public static XMLStreamWriter createPrettyWriter(OutputStream outputStream) {
-        PrettyXMLStreamWriter writer = null;
-        try {
-            writer = new PrettyXMLStreamWriter(outputStream);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return writer;
+        return new FastXMLStreamWriter(outputStream);
     }
 
     /**
@@ -361,10 +356,23 @@ public class XMLUtils {
         Double value = null;
         String attributeValue = xmlSR.getAttributeValue(null, name);
         if (attributeValue != null)
-            value = Double.parseDouble(attributeValue);
+            value = DoubleParser.parseDouble(attributeValue);
         return value;
     }
 
+    /**
+     * Return the value of given attribute, without boxing.
+     *
+     * @param xmlSR        a {@link XMLStreamReader}
+     * @param name         attribute name
+     * @param defaultValue value for absent
+     * @return attribute double value
+     */
+    public static double doubleAttr(XMLStreamReader xmlSR, String name, double defaultValue) {
+        String attributeValue = xmlSR.getAttributeValue(null, name);
+        return attributeValue == null ? defaultValue : DoubleParser.parseDouble(attributeValue);
+    }
+
     /**
      * Return the value of given attribute name.
      *
@@ -378,7 +386,7 @@ public class XMLUtils {
         if (attributeValue == null) {
             throw new XMLStreamException(String.format("%s miss attr %s", xmlSR.getLocalName(), name));
         }
-        return Double.parseDouble(attributeValue);
+        return DoubleParser.parseDouble(attributeValue);
     }
 
     /**
@@ -394,6 +402,19 @@ public class XMLUtils {
         return value;
     }
 
+    /**
+     * Return the value of given attribute, without boxing.
+     *
+     * @param xmlSR        a {@link XMLStreamReader}
+     * @param name         attribute name
+     * @param defaultValue value for absent
+     * @return attribute int value
+     */
+    public static int intAttr(XMLStreamReader xmlSR, String name, int defaultValue) {
+        String attributeValue = xmlSR.getAttributeValue(null, name);
+        return attributeValue == null ? defaultValue : Integer.parseInt(attributeValue);
+    }
+
     /**
      * Return the value of given attribute that must exist.
      *
@@ -447,11 +468,24 @@ public class XMLUtils {
         Float value = null;
         String attributeValue = xmlSR.getAttributeValue(null, name);
         if (attributeValue != null) {
-            value = Float.parseFloat(attributeValue);
+            value = DoubleParser.parseFloat(attributeValue);
         }
         return value;
     }
 
+    /**
+     * Return the value of given attribute, without boxing.
+     *
+     * @param xmlSR        a {@link XMLStreamReader}
+     * @param name         attribute name
+     * @param defaultValue value for absent
+     * @return attribute float value
+     */
+    public static float floatAttr(XMLStreamReader xmlSR, String name, float defaultValue) {
+        String attributeValue = xmlSR.getAttributeValue(null, name);
+        return attributeValue == null ? defaultValue : DoubleParser.parseFloat(attributeValue);
+    }
+
     /**
      * Return the value of given attributes.
      *
@@ -462,7 +496,7 @@ public class XMLUtils {
         if (attributeValue == null) {
             throw new XMLStreamException(String.format("%s miss attr %s", xmlSR.getLocalName(), name));
         }
-        return Float.parseFloat(attributeValue);
+        return DoubleParser.parseFloat(attributeValue);
     }
 
     /**
@@ -480,6 +514,20 @@ public class XMLUtils {
     }
 
 
+    /**
+     * Return the value of given attribute, without boxing.
+     *
+     * @param xmlSR        a {@link XMLStreamReader}
+     * @param name         attribute name
+     * @param defaultValue value for absent
+     * @return attribute long value
+     */
+    public static long longAttr(XMLStreamReader xmlSR, String name, long defaultValue) {
+        String attributeValue = xmlSR.getAttributeValue(null, name);
+        return attributeValue == null ? defaultValue : Long.parseLong(attributeValue);
+    }
+
+
     /**
      * Return the value of given attributes.
      *
@@ -520,4 +568,63 @@ public class XMLUtils {
                 return;
         }
     }
+
+    /**
+     * Returns a thread-local {@link BinaryDataInput} decoding the base64 text of the current element, e.g. to read
+     * integers or MS-Numpress data of a mzML {@code <binary>} element. It is reused by the next call in the thread.
+     * Call {@link BinaryDataInput#finish()} when done, so that the thread does not retain the reader.
+     *
+     * @param reader reader at the start tag of the element
+     * @param zlib   true if the decoded bytes are zlib compressed
+     * @return input of the decoded bytes
+     */
+    public static BinaryDataInput binaryInput(XMLStreamReader reader, boolean zlib) {
+        BinaryDataInput input = binaryInput.get();
+        input.setReader(reader, zlib);
+        return input;
+    }
+
+    /**
+     * Decodes the base64 text of the current element, optionally zlib compressed, into little endian doubles, without
+     * intermediate {@code String} or {@code byte[]}. The reader is moved to the end tag of the element.
+     *
+     * @param reader reader at the start tag of the element, e.g. {@code <binary>} in mzML
+     * @param zlib   true if the decoded bytes are zlib compressed
+     * @param array  array to store the values
+     * @param offset offset in the array
+     * @param count  number of double to read
+     * @throws BufferUnderflowException if the element has fewer than count values
+     */
+    public static void readBinary(XMLStreamReader reader, boolean zlib, double[] array, int offset, int count) {
+        BinaryDataInput input = binaryInput(reader, zlib);
+        try {
+            input.readDoubles(array, offset, count);
+            input.finish();
+        } finally {
+            // the thread local input must not retain the reader
+            input.clearReader();
+        }
+    }
+
+    /**
+     * Decodes the base64 text of the current element, optionally zlib compressed, into little endian floats, without
+     * intermediate {@code String} or {@code byte[]}. The reader is moved to the end tag of the element.
+     *
+     * @param reader reader at the start tag of the element, e.g. {@code <binary>} in mzML
+     * @param zlib   true if the decoded bytes are zlib compressed
+     * @param array  array to store the values
+     * @param offset offset in the array
+     * @param count  number of float to read
+     * @throws BufferUnderflowException if the element has fewer than count values
+     */
+    public static void readBinary(XMLStreamReader reader, boolean zlib, float[] array, int offset, int count) {
+        BinaryDataInput input = binaryInput(reader, zlib);
+        try {
+            input.readFloats(array, offset, count);
+            input.finish();
+        } finally {
+            // the thread local input must not retain the reader
+            input.clearReader();
+        }
+    }
 }
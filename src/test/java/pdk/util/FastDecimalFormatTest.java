@@ -0,0 +1,106 @@
+package pdk.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 17 Oct 2026, 1:55 PM
+ */
+class FastDecimalFormatTest {
+
+    @Test
+    void shortest() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            double value = Double.longBitsToDouble(random.nextLong());
+            assertEquals(Double.toString(value), FastDecimalFormat.SHORTEST.format(value));
+        }
+    }
+
+    @Test
+    void fixed() {
+        assertEquals("12.30", FastDecimalFormat.F2.format(12.3));
+        assertEquals("0.12", FastDecimalFormat.F2.format(0.123));
+        assertEquals("2", FastDecimalFormat.F0.format(2.5));
+        assertEquals("4", FastDecimalFormat.F0.format(3.5));
+        assertEquals("-0.00", FastDecimalFormat.F2.format(-0.001));
+        assertEquals("0.000001", FastDecimalFormat.F6.format(1E-6));
+        assertEquals("1000000000000000000000.0", FastDecimalFormat.F1.format(1E21));
+        assertEquals("0." + "0".repeat(25), FastDecimalFormat.fixed(25).format(0));
+        assertEquals("NaN", FastDecimalFormat.F2.format(Double.NaN));
+        assertEquals("-∞", FastDecimalFormat.F2.format(Double.NEGATIVE_INFINITY));
+
+        // the shortest digits are rounded, not the exact binary value
+        assertEquals("1" + "0".repeat(300) + ".00", FastDecimalFormat.F2.format(1E300));
+        assertEquals("44580349843.699850", FastDecimalFormat.F6.format(4.458034984369985E10));
+        assertEquals("-12.35", FastDecimalFormat.F2.format(-12.345));
+
+        // a trailing 5 is decided by the exact binary value, half-even for an exact tie
+        assertEquals("0.12", FastDecimalFormat.F2.format(0.125));
+        assertEquals("0.38", FastDecimalFormat.F2.format(0.375));
+        assertEquals("1.000", FastDecimalFormat.F3.format(1.0005));
+        assertEquals("1.002", FastDecimalFormat.F3.format(1.0015));
+        assertEquals("4.9E-324", FastDecimalFormat.scientific(2).format(Double.MIN_VALUE));
+    }
+
+    @Test
+    void sameAsDecimalFormat() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            double value = switch (i % 3) {
+                case 0 -> Double.longBitsToDouble(random.nextLong());
+                case 1 -> (random.nextInt(200_000) - 100_000) / Math.pow(10, random.nextInt(8));
+                default -> random.nextGaussian() * Math.pow(10, random.nextInt(40) - 20);
+            };
+            if (Double.isNaN(value)) continue;
+            int digits = i % 8;
+            assertEquals(DecimalFormatUtils.valueOf(digits).format(value), FastDecimalFormat.fixed(digits).format(value),
+                    "fixed " + digits + ": " + value);
+            digits = 1 + i % 16;
+            assertEquals(DecimalFormatUtils.scientific(digits).format(value),
+                    FastDecimalFormat.scientific(digits).format(value), "scientific " + digits + ": " + value);
+        }
+    }
+
+    @Test
+    void scientific() {
+        FastDecimalFormat format = FastDecimalFormat.scientific(2);
+        assertEquals("4.15E-2", format.format(0.04151515));
+        assertEquals("4.16E-2", format.format(0.04155515));
+        assertEquals("9.85E6", format.format(9852522.554666));
+        assertEquals("1.23E0", format.format(1.23));
+        assertEquals("1.23E1", format.format(12.3456));
+        assertEquals("1E-1", format.format(0.1));
+        assertEquals("1E1", format.format(9.999));
+        assertEquals("-0E0", format.format(-0.0));
+        assertEquals("4.9E-324", FastDecimalFormat.scientific(1).format(Double.MIN_VALUE));
+        assertEquals("1.7976931348623157E308", FastDecimalFormat.scientific(16).format(Double.MAX_VALUE));
+    }
+
+    @Test
+    void arrays() {
+        char[] chars = new char[16];
+        int end = FastDecimalFormat.F2.format(-1.5, chars, 3);
+        assertEquals(8, end);
+        assertEquals("-1.50", new String(chars, 3, 5));
+
+        byte[] bytes = new byte[16];
+        end = FastDecimalFormat.F2.format(Double.POSITIVE_INFINITY, bytes, 1);
+        assertEquals("∞", new String(bytes, 1, end - 1, StandardCharsets.UTF_8));
+        end = FastDecimalFormat.SHORTEST.format(0.1, bytes, 0);
+        assertEquals("0.1", new String(bytes, 0, end, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void join() {
+        double[] values = {1.0, 0.125, -2.5};
+        assertEquals("1.0,0.125,-2.5", StringUtils.join(",", values));
+        assertEquals("1.00\t0.12\t-2.50", StringUtils.join("\t", values, FastDecimalFormat.F2));
+    }
+}
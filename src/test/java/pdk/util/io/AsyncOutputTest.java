@@ -0,0 +1,64 @@
+package pdk.util.io;
+
+import org.junit.jupiter.api.Test;
+import pdk.util.exception.PDKRuntimeException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 6:10 PM
+ */
+class AsyncOutputTest {
+
+    @Test
+    void testWrite() {
+        Random random = new Random(31);
+        double[] doubles = random.doubles(10_000).toArray();
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (AsyncOutput output = new AsyncOutput(stream, 256, 2)) {
+            for (int i = 0; i < 1000; i++) {
+                output.writeVarInt(i, true);
+                output.writeString("peak" + i);
+            }
+            output.writeDoubles(doubles, 0, doubles.length);
+            output.finish();
+            assertEquals(output.total(), stream.size());
+            output.writeInt(99);
+        }
+
+        Input input = new Input(stream.toByteArray());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, input.readVarInt(true));
+            assertEquals("peak" + i, input.readString());
+        }
+        assertArrayEquals(doubles, input.readDoubles(doubles.length));
+        assertEquals(99, input.readInt());
+        assertTrue(input.end());
+    }
+
+    @Test
+    void testError() {
+        OutputStream failing = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+        AsyncOutput output = new AsyncOutput(failing, 16, 1);
+        output.writeLong(1);
+        output.writeLong(2);
+        output.writeLong(3);
+        PDKRuntimeException ex = assertThrows(PDKRuntimeException.class, output::finish);
+        assertEquals("disk full", ex.getCause().getMessage());
+        assertThrows(PDKRuntimeException.class, () -> output.writeBytes(new byte[64]));
+        assertThrows(PDKRuntimeException.class, output::close);
+    }
+}
@@ -0,0 +1,101 @@
+package pdk.util.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 8:05 PM
+ */
+class BufferPoolTest {
+
+    @Test
+    void testAcquireRelease() {
+        BufferPool pool = new BufferPool(1 << 20, 4);
+        byte[] buffer = pool.acquire(3000);
+        assertEquals(4096, buffer.length);
+        assertEquals(0, pool.hits());
+        assertEquals(1, pool.misses());
+
+        pool.release(buffer);
+        assertEquals(4096, pool.retainedBytes());
+        assertSame(buffer, pool.acquire(2049));
+        assertEquals(0.5, pool.hitRate());
+        assertEquals(0, pool.retainedBytes());
+
+        // too small or too large are not pooled
+        pool.release(new byte[100]);
+        pool.release(new byte[BufferPool.MAX_SIZE + 1]);
+        assertEquals(0, pool.retainedBytes());
+
+        // a 6000 byte buffer serves the 4096 class
+        pool.release(new byte[6000]);
+        assertEquals(6000, pool.acquire(4096).length);
+
+        // capped by slots and retained bytes
+        List<byte[]> buffers = new ArrayList<>();
+        for (int i = 0; i < 6; i++)
+            buffers.add(new byte[1024]);
+        buffers.forEach(pool::release);
+        assertEquals(4 * 1024, pool.retainedBytes());
+        for (int i = 0; i < 5; i++)
+            pool.release(new byte[1 << 18]);
+        assertTrue(pool.retainedBytes() <= pool.maxRetainedBytes());
+        pool.clear();
+        assertEquals(0, pool.retainedBytes());
+    }
+
+    @Test
+    void testBorrow() {
+        byte[] bytes;
+        try (PooledOutput output = Output.borrow()) {
+            for (int i = 0; i < 2000; i++)
+                output.writeString("protein" + i);
+            bytes = output.toBytes();
+        }
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (PooledOutput output = Output.borrow(stream, 1024)) {
+            output.writeBytes(bytes);
+        }
+        assertArrayEquals(bytes, stream.toByteArray());
+
+        try (PooledInput input = Input.borrow(new ByteArrayInputStream(bytes), 1024)) {
+            for (int i = 0; i < 2000; i++)
+                assertEquals("protein" + i, input.readString());
+            assertTrue(input.end());
+        }
+        assertTrue(BufferPool.getDefault().hits() > 0);
+    }
+
+    @Test
+    void testPooledGrowth() {
+        BufferPool pool = new BufferPool(1 << 20, 4);
+        byte[] bytes;
+        try (PooledOutput output = new PooledOutput(pool, 1024)) {
+            for (int i = 0; i < 1000; i++)
+                output.writeInt(i);
+            assertEquals(4096, output.getBuffer().length);
+            bytes = output.toBytes();
+        }
+        Input input = new Input(bytes);
+        for (int i = 0; i < 1000; i++)
+            assertEquals(i, input.readInt());
+        // the 1 KB and 2 KB buffers were released while growing, the 4 KB one on close
+        assertEquals(1024 + 2048 + 4096, pool.retainedBytes());
+        assertEquals(3, pool.misses());
+
+        try (PooledOutput output = new PooledOutput(pool, 1024)) {
+            output.writeBytes(bytes);
+        }
+        assertEquals(3, pool.hits());
+        assertEquals(3, pool.misses());
+    }
+}
@@ -0,0 +1,89 @@
+package pdk.util.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 11:15 PM
+ */
+class ChecksumInputOutputTest {
+
+    private static byte[] write(double[] doubles) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ChecksumOutput output = new ChecksumOutput(bytes, 256)) {
+            output.writeString("spectrum");
+            output.writeVarInt(doubles.length, true);
+            output.writeDoubles(doubles, 0, doubles.length);
+            output.writeString("end");
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    void testRoundTrip() {
+        double[] doubles = new Random(1).doubles(1000).toArray();
+        byte[] data = write(doubles);
+        // blocks of at most 256 bytes, each with an 8 byte header
+        int offset = 0, payload = 0;
+        while (offset < data.length) {
+            int length = new Input(data, offset, 4).readInt();
+            assertTrue(length > 0 && length <= 256);
+            payload += length;
+            offset += 8 + length;
+        }
+        assertEquals(data.length, offset);
+        assertEquals(8 + 2 + 8000 + 3, payload);
+
+        try (ChecksumInput input = new ChecksumInput(new ByteArrayInputStream(data), 100)) {
+            assertEquals("spectrum", input.readString());
+            assertArrayEquals(doubles, input.readDoubles(input.readVarInt(true)));
+            assertEquals("end", input.readString());
+            assertTrue(input.end());
+        }
+    }
+
+    @Test
+    void testCorruption() {
+        double[] doubles = new Random(2).doubles(1000).toArray();
+        byte[] data = write(doubles);
+        // flip a bit in the data of the third block
+        Input frames = new Input(data);
+        for (int i = 0; i < 2; i++) {
+            int length = frames.readInt();
+            frames.skip(4 + length);
+        }
+        long third = frames.total();
+        data[(int) third + 8 + 10] ^= 4;
+
+        ChecksumInput input = new ChecksumInput(new ByteArrayInputStream(data), 100);
+        assertEquals("spectrum", input.readString());
+        int length = input.readVarInt(true);
+        ChecksumException ex = assertThrows(ChecksumException.class, () -> input.readDoubles(length));
+        assertEquals(third, ex.getBlockOffset());
+
+        byte[] truncated = Arrays.copyOf(write(doubles), 300);
+        ChecksumInput input2 = new ChecksumInput(new ByteArrayInputStream(truncated));
+        assertThrows(ChecksumException.class, () -> input2.readBytes(400));
+    }
+
+    @Test
+    void testBlockLength() {
+        byte[] data = write(new Random(3).doubles(100).toArray());
+        ChecksumInput small = new ChecksumInput(new ByteArrayInputStream(data), 100, 128);
+        assertEquals(0L, assertThrows(ChecksumException.class, small::readString).getBlockOffset());
+
+        // a corrupted length is rejected before the block is allocated
+        data[3] = 0x40;
+        ChecksumInput input = new ChecksumInput(new ByteArrayInputStream(data));
+        ChecksumException ex = assertThrows(ChecksumException.class, input::readString);
+        assertTrue(ex.getMessage().startsWith("Invalid block length"), ex.getMessage());
+    }
+}
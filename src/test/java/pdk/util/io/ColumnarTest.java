@@ -0,0 +1,93 @@
+package pdk.util.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 10:05 PM
+ */
+class ColumnarTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        Path file = dir.resolve("psm.col");
+        List<Column> columns = List.of(
+                new Column("scan", Column.Type.INT, Column.Encoding.DELTA),
+                new Column("charge", Column.Type.INT, Column.Encoding.VARINT),
+                new Column("id", Column.Type.LONG, Column.Encoding.DELTA),
+                new Column("time", Column.Type.LONG),
+                new Column("mass", Column.Type.DOUBLE),
+                new Column("protein", Column.Type.STRING, Column.Encoding.DICTIONARY),
+                new Column("peptide", Column.Type.STRING));
+        assertThrows(IllegalArgumentException.class, () -> new Column("x", Column.Type.DOUBLE, Column.Encoding.DELTA));
+
+        int rows = 2500;
+        Random random = new Random(3);
+        int[] charges = new int[rows];
+        long[] times = new long[rows];
+        double[] masses = new double[rows];
+        String[] proteins = new String[rows];
+        String[] peptides = new String[rows];
+        try (ColumnarWriter writer = new ColumnarWriter(file, columns, 1000)) {
+            for (int i = 0; i < rows; i++) {
+                charges[i] = 1 + random.nextInt(4);
+                times[i] = random.nextLong();
+                masses[i] = 500 + i + random.nextDouble();
+                proteins[i] = i % 7 == 0 ? null : "P" + random.nextInt(20);
+                peptides[i] = "PEPTIDE" + i;
+                writer.setInt(0, i * 3);
+                writer.setInt(1, charges[i]);
+                writer.setLong(2, 1L << 40 | i);
+                writer.setLong(3, times[i]);
+                writer.setDouble(4, masses[i]);
+                writer.setString(5, proteins[i]);
+                writer.setString(6, peptides[i]);
+                writer.endRow();
+            }
+            assertThrows(IllegalArgumentException.class, () -> writer.setDouble(0, 1));
+        }
+
+        try (ColumnarReader reader = new ColumnarReader(file, 64)) {
+            assertEquals(columns, reader.columns());
+            assertEquals(3, reader.rowGroupCount());
+            assertEquals(rows, reader.rowCount());
+            assertEquals(500, reader.rowCount(2));
+            for (int g = 0; g < 3; g++) {
+                int from = g * 1000, n = reader.rowCount(g);
+                int[] scans = reader.readInts(g, 0);
+                long[] ids = reader.readLongs(g, 2);
+                String[] groupProteins = reader.readStrings(g, 5);
+                for (int i = 0; i < n; i++) {
+                    assertEquals((from + i) * 3, scans[i]);
+                    assertEquals(1L << 40 | (from + i), ids[i]);
+                    assertEquals(proteins[from + i], groupProteins[i]);
+                }
+                assertArrayEquals(Arrays.copyOfRange(charges, from, from + n), reader.readInts(g, 1));
+                assertArrayEquals(Arrays.copyOfRange(times, from, from + n), reader.readLongs(g, 3));
+                assertArrayEquals(Arrays.copyOfRange(masses, from, from + n), reader.readDoubles(g, 4));
+                assertArrayEquals(Arrays.copyOfRange(peptides, from, from + n), reader.readStrings(g, 6));
+            }
+
+            int mass = reader.columnIndex("mass");
+            assertArrayEquals(new int[]{1}, reader.filterRowGroups(mass, s -> s.overlaps(1600.0, 1700.0)));
+            assertArrayEquals(new int[]{0, 1}, reader.filterRowGroups(0, s -> s.overlaps(2000, 3000)));
+            assertArrayEquals(new int[]{}, reader.filterRowGroups(6, s -> s.overlaps("Q", "Z")));
+            assertEquals(new ColumnStatistics(0, 2997), reader.statistics(0, 0));
+            assertThrows(IllegalArgumentException.class, () -> reader.readInts(0, mass));
+            assertThrows(IllegalArgumentException.class, () -> reader.columnIndex("score"));
+        }
+    }
+}
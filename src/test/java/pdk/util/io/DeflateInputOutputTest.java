@@ -0,0 +1,119 @@
+package pdk.util.io;
+
+import org.junit.jupiter.api.Test;
+import pdk.util.exception.PDKRuntimeException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 5:20 PM
+ */
+class DeflateInputOutputTest {
+
+    @Test
+    void testRoundTrip() throws Exception {
+        Random random = new Random(29);
+        double[] doubles = new double[20_000];
+        for (int i = 0; i < doubles.length; i++)
+            doubles[i] = random.nextInt(1000) / 8.0;
+        int[] ints = random.ints(5_000, 0, 100).toArray();
+
+        Output expected = new Output(1024, -1);
+        for (int i = 0; i < 300; i++)
+            expected.writeString("scan=" + i);
+        expected.writeDoubles(doubles, 0, doubles.length);
+        expected.writeVByteInts(ints, 0, ints.length, true);
+        expected.writeLong(-1);
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            try (DeflateOutput output = new DeflateOutput(stream, 1024, Deflater.BEST_SPEED, executor, 2)) {
+                for (int i = 0; i < 300; i++)
+                    output.writeString("scan=" + i);
+                output.writeDoubles(doubles, 0, doubles.length);
+                output.writeVByteInts(ints, 0, ints.length, true);
+                output.writeLong(-1);
+                assertEquals(expected.total(), output.total());
+            }
+            byte[] bytes = stream.toByteArray();
+            assertTrue(bytes.length < doubles.length * 8);
+
+            try (DeflateInput input = new DeflateInput(new ByteArrayInputStream(bytes), 100, executor, 3)) {
+                for (int i = 0; i < 300; i++)
+                    assertEquals("scan=" + i, input.readString());
+                assertArrayEquals(doubles, input.readDoubles(doubles.length));
+                assertArrayEquals(ints, input.readVByteInts(ints.length, true));
+                assertEquals(-1, input.readLong());
+                assertTrue(input.end());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testIndependentBlocks() throws Exception {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (DeflateOutput output = new DeflateOutput(stream, 64, 6, Runnable::run, 1)) {
+            for (int i = 0; i < 100; i++)
+                output.writeInt(i);
+        }
+        byte[] bytes = stream.toByteArray();
+
+        // skip the first block and inflate the second one on its own
+        Input frames = new Input(bytes);
+        int compressedLength = frames.readInt();
+        assertEquals(64, frames.readInt());
+        frames.skip(compressedLength);
+        compressedLength = frames.readInt();
+        int length = frames.readInt();
+        Inflater inflater = new Inflater(true);
+        inflater.setInput(frames.readBytes(compressedLength));
+        byte[] block = new byte[length];
+        assertEquals(length, inflater.inflate(block));
+        inflater.end();
+        assertEquals(16, new Input(block).readInt());
+
+        // flush ends the block early
+        stream.reset();
+        try (DeflateOutput output = new DeflateOutput(stream)) {
+            output.writeInt(1);
+            output.flush();
+            output.writeInt(2);
+        }
+        frames = new Input(stream.toByteArray());
+        compressedLength = frames.readInt();
+        assertEquals(4, frames.readInt());
+        frames.skip(compressedLength);
+        frames.readInt();
+        assertEquals(4, frames.readInt());
+    }
+
+    @Test
+    void testFrameLength() {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (DeflateOutput output = new DeflateOutput(stream, 1024, 6, Runnable::run, 1)) {
+            for (int i = 0; i < 1000; i++)
+                output.writeInt(i);
+        }
+        byte[] bytes = stream.toByteArray();
+        DeflateInput small = new DeflateInput(new ByteArrayInputStream(bytes), 100, 512, Runnable::run, 1);
+        assertThrows(PDKRuntimeException.class, small::readInt);
+
+        // a corrupt compressed length is rejected before the data is allocated
+        bytes[3] = 0x40;
+        DeflateInput input = new DeflateInput(new ByteArrayInputStream(bytes));
+        assertThrows(PDKRuntimeException.class, input::readInt);
+    }
+}
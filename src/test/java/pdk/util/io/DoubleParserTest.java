@@ -0,0 +1,66 @@
+package pdk.util.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 17 Oct 2026, 11:10 AM
+ */
+class DoubleParserTest {
+
+    private static void check(String text) {
+        long expected;
+        try {
+            expected = Double.doubleToRawLongBits(Double.parseDouble(text));
+        } catch (NumberFormatException ex) {
+            assertThrows(NumberFormatException.class, () -> DoubleParser.parseDouble(text), text);
+            assertThrows(NumberFormatException.class, () -> DoubleParser.parseFloat(text), text);
+            return;
+        }
+        assertEquals(expected, Double.doubleToRawLongBits(DoubleParser.parseDouble(text)), text);
+        assertEquals(Float.floatToRawIntBits(Float.parseFloat(text)),
+                Float.floatToRawIntBits(DoubleParser.parseFloat(text)), text);
+    }
+
+    @Test
+    void edgeCases() {
+        for (String text : new String[]{"0", "-0", "0.0e10", "1", "-1.5", "+7e+2", "1.", "-.5", "5d", "2.5F", "  12 ",
+                "0.1", "9007199254740993", "1e-400", "1e400", "4.9e-324", "2.4703282292062328e-324",
+                "2.4703282292062327e-324", "1.7976931348623157e308", "1.7976931348623158e308",
+                "1.7976931348623159e308", "3.4028235e38", "3.4028236e38", "1.4e-45", "7.0e-46", "7.1e-46",
+                "1.00000017881393432617187499", "9999999999999999999", "18446744073709551615e-5",
+                "0000000000000000000000000012.5", "0.000000000000000000000000000123", "1e99999999999",
+                "NaN", "-Infinity", "0x1p3", "", " ", ".", "e5", "1e", "1e+", "1..2", "--1", "1 2", "1x"}) {
+            check(text);
+        }
+    }
+
+    @Test
+    void random() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            double value = switch (i % 4) {
+                case 0 -> Double.longBitsToDouble(random.nextLong());
+                case 1 -> random.nextDouble() * Math.pow(10, random.nextInt(40) - 20);
+                case 2 -> random.nextInt(1_000_000) / 1000.0;
+                default -> Float.intBitsToFloat(random.nextInt());
+            };
+            if (!Double.isFinite(value)) continue;
+            check(Double.toString(value));
+            check(String.format("%." + random.nextInt(19) + "e", value));
+            check((random.nextLong() & Long.MAX_VALUE) % 10_000_000_000_000_000L + "e" + (random.nextInt(700) - 350));
+        }
+    }
+
+    @Test
+    void range() {
+        String text = "mz=445.120025;";
+        assertEquals(445.120025, DoubleParser.parseDouble(text, 3, text.length() - 1));
+        assertEquals(445.120025f, DoubleParser.parseFloat(text, 3, text.length() - 1));
+    }
+}
@@ -0,0 +1,122 @@
+package pdk.util.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 17 Oct 2026, 4:10 PM
+ */
+class ExternalSorterTest {
+
+    private record Psm(int id, double score) {}
+
+    private static final Serializer<Psm> SERIALIZER = new Serializer<>() {
+        @Override
+        public void write(Output output, Psm value) {
+            output.writeInt(value.id());
+            output.writeDouble(value.score());
+        }
+
+        @Override
+        public Psm read(Input input) {
+            return new Psm(input.readInt(), input.readDouble());
+        }
+    };
+
+    @TempDir
+    Path dir;
+
+    private static List<Psm> psms(int count) {
+        Random random = new Random(42);
+        List<Psm> psms = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            // few distinct scores to check the stability
+            psms.add(new Psm(i, random.nextInt(1000) / 10.0 - 50));
+        return psms;
+    }
+
+    private static List<Psm> readAll(IterateReader<Psm> reader) throws IOException {
+        List<Psm> list = new ArrayList<>();
+        try (reader) {
+            while (reader.hasNext()) list.add(reader.next());
+        }
+        return list;
+    }
+
+    @Test
+    void sortRuns() throws IOException {
+        List<Psm> psms = psms(100_000);
+        try (ExternalSorter<Psm> sorter = new ExternalSorter<>(SERIALIZER,
+                ExternalSorter.doubleKeyDescending(Psm::score), dir, 200_000, 3)) {
+            sorter.addAll(psms);
+            assertEquals(100_000, sorter.size());
+            assertTrue(sorter.runCount() > 5, "runs: " + sorter.runCount());
+            IterateReader<Psm> reader = sorter.sort();
+            // 200_000 / 64 KB runs merged at a time
+            assertTrue(sorter.runCount() <= 3, "runs: " + sorter.runCount());
+            List<Psm> sorted = readAll(reader);
+
+            List<Psm> expected = new ArrayList<>(psms);
+            expected.sort(Comparator.comparingDouble(Psm::score).reversed());
+            assertEquals(expected, sorted);
+            assertThrows(IllegalStateException.class, () -> sorter.add(psms.getFirst()));
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void sortInMemory() throws IOException {
+        List<Psm> psms = psms(1000);
+        try (ExternalSorter<Psm> sorter = new ExternalSorter<>(SERIALIZER, ExternalSorter.doubleKey(Psm::score),
+                dir, 1 << 20, 1)) {
+            sorter.addAll(psms);
+            assertEquals(0, sorter.runCount());
+            List<Psm> expected = new ArrayList<>(psms);
+            expected.sort(Comparator.comparingDouble(Psm::score));
+            assertEquals(expected, readAll(sorter.sort()));
+        }
+    }
+
+    @Test
+    void closeWithoutSort() throws IOException {
+        try (ExternalSorter<Psm> sorter = new ExternalSorter<>(SERIALIZER, ExternalSorter.doubleKey(Psm::score),
+                dir, 100_000, 4)) {
+            sorter.addAll(psms(50_000));
+            assertTrue(sorter.runCount() > 0);
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void doubleKey() {
+        double[] values = {Double.NEGATIVE_INFINITY, -1.5, -Double.MIN_VALUE, -0.0, 0.0, Double.MIN_VALUE, 2,
+                Double.POSITIVE_INFINITY, Double.NaN};
+        var key = ExternalSorter.<Double>doubleKey(Double::doubleValue);
+        for (int i = 1; i < values.length; i++)
+            assertTrue(key.applyAsLong(values[i - 1]) < key.applyAsLong(values[i]), "at " + values[i]);
+    }
+
+    @Test
+    void empty() throws IOException {
+        try (ExternalSorter<Psm> sorter = new ExternalSorter<>(SERIALIZER, ExternalSorter.doubleKey(Psm::score))) {
+            assertFalse(sorter.sort().hasNext());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package pdk.util.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 17 Oct 2026, 12:05 PM
+ */
+class FastXMLStreamWriterTest {
+
+    @TempDir
+    Path dir;
+
+    private static void write(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeStartDocument("UTF-8", "1.0");
+        writer.writeStartElement("MzIdentML");
+        writer.writeDefaultNamespace("http://psidev.info/psi/pi/mzIdentML/1.2");
+        writer.writeNamespace("xsi", "http://www.w3.org/2001/XMLSchema-instance");
+        writer.writeAttribute("id", "a<b & \"c\" > 'd'");
+        writer.writeComment(" results ");
+        writer.writeStartElement("SpectrumIdentificationList");
+        for (int i = 0; i < 3; i++) {
+            writer.writeStartElement("SpectrumIdentificationResult");
+            writer.writeAttribute("spectrumID", "index=" + i);
+            writer.writeEmptyElement("cvParam");
+            writer.writeAttribute("name", "scan start time é中😀");
+            writer.writeAttribute("value", Integer.toString(-i * 1000));
+            writer.writeStartElement("Seq");
+            writer.writeCharacters("PEPT<I>DE & K\n");
+            writer.writeEndElement();
+            writer.writeStartElement("empty");
+            writer.writeEndElement();
+            writer.writeEndElement();
+        }
+        writer.writeEndElement();
+        writer.writeStartElement("http://www.w3.org/2001/XMLSchema-instance", "note");
+        writer.writeAttribute("http://www.w3.org/2001/XMLSchema-instance", "type", "x");
+        writer.writeCData("raw <data>");
+        writer.writeProcessingInstruction("pi", "data");
+        writer.writeEntityRef("amp");
+        writer.writeEndElement();
+        writer.writeStartElement("open");
+        writer.writeStartElement("nested");
+        writer.writeEndDocument();
+        writer.close();
+    }
+
+    @Test
+    void sameAsPrettyWriter() throws IOException, XMLStreamException {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        write(new PrettyXMLStreamWriter(expected));
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        write(new FastXMLStreamWriter(actual, 16, false));
+        assertEquals(expected.toString(StandardCharsets.UTF_8), actual.toString(StandardCharsets.UTF_8));
+        assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+    }
+
+    @Test
+    void startDocument() throws IOException, XMLStreamException {
+        FastXMLStreamWriter writer = new FastXMLStreamWriter(new ByteArrayOutputStream(), 16, false);
+        assertThrows(XMLStreamException.class, () -> writer.writeStartDocument("ISO-8859-1", "1.0"));
+        assertThrows(XMLStreamException.class, () -> writer.writeStartDocument("no such charset", "1.0"));
+
+        String[][] declarations = {{null, "1.0"}, {"", "1.0"}, {"UTF-8", null}, {"utf-8", "1.1"}, {null, null},
+                {"", ""}};
+        for (String[] declaration : declarations) {
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            writeStartDocument(new PrettyXMLStreamWriter(expected), declaration[0], declaration[1]);
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            writeStartDocument(new FastXMLStreamWriter(actual, 16, false), declaration[0], declaration[1]);
+            assertEquals(expected.toString(StandardCharsets.UTF_8), actual.toString(StandardCharsets.UTF_8),
+                    Arrays.toString(declaration));
+        }
+    }
+
+    private static void writeStartDocument(XMLStreamWriter writer, String encoding, String version)
+            throws XMLStreamException {
+        writer.writeStartDocument(encoding, version);
+        writer.writeEmptyElement("a");
+        writer.writeEndDocument();
+        writer.close();
+    }
+
+    @Test
+    void numbers() throws IOException, XMLStreamException {
+        Path file = dir.resolve("numbers.xml");
+        FastXMLStreamWriter writer = (FastXMLStreamWriter) XMLUtils.createPrettyWriter(file.toFile());
+        writer.writeStartDocument();
+        writer.writeStartElement("values");
+        writer.writeAttribute("min", Long.MIN_VALUE);
+        writer.writeAttribute("max", Long.MAX_VALUE);
+        writer.writeAttribute("mz", 445.120025);
+        for (long value : new long[]{0, 7, -42, 1234567890123L}) {
+            writer.writeStartElement("v");
+            writer.writeCharacters(value);
+            writer.writeEndElement();
+        }
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+
+        XMLStreamReader reader = XMLUtils.createReader(new ByteArrayInputStream(Files.readAllBytes(file)));
+        assertTrue(XMLUtils.toStartElement(reader, "values"));
+        assertEquals(Long.MIN_VALUE, XMLUtils.longAttr(reader, "min", 0L));
+        assertEquals(Long.MAX_VALUE, XMLUtils.longAttr(reader, "max", 0L));
+        assertEquals(445.120025, XMLUtils.doubleAttr(reader, "mz", 0.0));
+        for (long value : new long[]{0, 7, -42, 1234567890123L}) {
+            assertTrue(XMLUtils.toStartElement(reader, "v"));
+            assertEquals(value, Long.parseLong(reader.getElementText()));
+        }
+        reader.close();
+
+        FastXMLStreamWriter w = new FastXMLStreamWriter(new ByteArrayOutputStream());
+        assertThrows(XMLStreamException.class, w::writeEndElement);
+        assertThrows(XMLStreamException.class, () -> w.writeAttribute("a", "b"));
+        assertThrows(XMLStreamException.class, () -> w.writeStartElement("urn:unbound", "a"));
+    }
+}
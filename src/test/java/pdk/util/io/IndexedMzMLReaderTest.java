@@ -0,0 +1,127 @@
+package pdk.util.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pdk.util.exception.PDKRuntimeException;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 17 Oct 2026, 10:15 AM
+ */
+class IndexedMzMLReaderTest {
+
+    @TempDir
+    Path dir;
+
+    private record Spectrum(String id, int peaks) {}
+
+    private static Spectrum parse(XMLStreamReader reader) throws XMLStreamException {
+        String id = reader.getAttributeValue(null, "id");
+        int peaks = 0;
+        while (!(reader.next() == XMLStreamReader.END_ELEMENT && reader.getLocalName().equals("spectrum"))) {
+            if (reader.isStartElement() && reader.getLocalName().equals("peak")) peaks++;
+        }
+        return new Spectrum(id, peaks);
+    }
+
+    private static Path indexedMzML(Path file, int count) throws IOException {
+        StringBuilder builder = new StringBuilder("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <indexedmzML xmlns="http://psi.hupo.org/ms/mzml">
+                  <mzML>
+                    <run id="run">
+                      <spectrumList count="%d">
+                """.formatted(count));
+        List<Integer> offsets = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            builder.append("        ");
+            // the offsets are in bytes, "é" is 2 bytes in UTF-8
+            offsets.add(builder.toString().getBytes(StandardCharsets.UTF_8).length);
+            builder.append("<spectrum index=\"").append(i).append("\" id=\"scan=").append(i).append("\">\n");
+            builder.append("          <userParam name=\"é\"/>\n");
+            for (int j = 0; j < i % 5; j++)
+                builder.append("          <peak mz=\"").append(j).append("\"/>\n");
+            builder.append("        </spectrum>\n");
+        }
+        builder.append("      </spectrumList>\n      <chromatogramList count=\"1\">\n        ");
+        int chromatogramOffset = builder.toString().getBytes(StandardCharsets.UTF_8).length;
+        builder.append("""
+                <chromatogram index="0" id="TIC"/>
+                      </chromatogramList>
+                    </run>
+                  </mzML>
+                  """);
+        int indexListOffset = builder.toString().getBytes(StandardCharsets.UTF_8).length;
+        builder.append("<indexList count=\"2\">\n    <index name=\"spectrum\">\n");
+        for (int i = 0; i < count; i++)
+            builder.append("      <offset idRef=\"scan=").append(i).append("\">").append(offsets.get(i)).append("</offset>\n");
+        builder.append("    </index>\n    <index name=\"chromatogram\">\n");
+        builder.append("      <offset idRef=\"TIC\">").append(chromatogramOffset).append("</offset>\n");
+        builder.append("    </index>\n  </indexList>\n");
+        builder.append("  <indexListOffset>").append(indexListOffset).append("</indexListOffset>\n");
+        builder.append("  <fileChecksum>0</fileChecksum>\n</indexedmzML>\n");
+        Files.writeString(file, builder);
+        return file;
+    }
+
+    @Test
+    void readById() throws IOException, XMLStreamException {
+        Path file = indexedMzML(dir.resolve("test.mzML"), 100);
+        try (IndexedMzMLReader reader = new IndexedMzMLReader(file)) {
+            assertEquals(Set.of("spectrum", "chromatogram"), reader.indexNames());
+            List<String> ids = reader.spectrumIds();
+            assertEquals(100, ids.size());
+            assertEquals("scan=0", ids.getFirst());
+            assertEquals("scan=99", ids.getLast());
+            assertEquals(List.of("TIC"), reader.ids(IndexedMzMLReader.CHROMATOGRAM));
+
+            for (int i = 99; i >= 0; i -= 7) {
+                assertEquals(new Spectrum("scan=" + i, i % 5), reader.readSpectrum("scan=" + i, IndexedMzMLReaderTest::parse));
+            }
+            assertNull(reader.readSpectrum("scan=100", IndexedMzMLReaderTest::parse));
+            assertEquals(-1, reader.offset(IndexedMzMLReader.SPECTRUM, "scan=100"));
+
+            XMLStreamReader chromatogram = reader.open(IndexedMzMLReader.CHROMATOGRAM, "TIC");
+            assertNotNull(chromatogram);
+            assertEquals("TIC", chromatogram.getAttributeValue(null, "id"));
+            chromatogram.close();
+
+            assertThrows(IllegalArgumentException.class, () -> reader.ids("unknown"));
+        }
+    }
+
+    @Test
+    void badOffset() throws IOException {
+        Path file = indexedMzML(dir.resolve("test.mzML"), 3);
+        String content = Files.readString(file);
+        int start = content.indexOf("<offset idRef=\"scan=1\">") + "<offset idRef=\"scan=1\">".length();
+        int end = content.indexOf('<', start);
+        // shift the offset by one byte and keep the same length, so that the index list offset is still valid
+        long offset = Long.parseLong(content.substring(start, end)) + 1;
+        Files.writeString(file, content.substring(0, start) + offset + content.substring(end));
+        try (IndexedMzMLReader reader = new IndexedMzMLReader(file)) {
+            assertThrows(PDKRuntimeException.class, () -> reader.readSpectrum("scan=1", IndexedMzMLReaderTest::parse));
+            assertEquals(new Spectrum("scan=2", 2), reader.readSpectrum("scan=2", IndexedMzMLReaderTest::parse));
+        }
+    }
+
+    @Test
+    void notIndexed() throws IOException {
+        Path file = dir.resolve("plain.mzML");
+        Files.writeString(file, "<mzML><run/></mzML>");
+        assertThrows(PDKRuntimeException.class, () -> new IndexedMzMLReader(file));
+    }
+}
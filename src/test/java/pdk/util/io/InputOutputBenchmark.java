@@ -0,0 +1,196 @@
+package pdk.util.io;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the bulk primitive array codec of {@link Input} and {@link Output} with the byte shifting loops they
+ * replaced.
+ *
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 1:20 PM
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InputOutputBenchmark {
+
+    @Param({"64", "4096", "262144"})
+    int length;
+
+    double[] doubles;
+    long[] longs;
+    byte[] doubleBytes;
+    byte[] longBytes;
+    Output output;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(17);
+        doubles = random.doubles(length).toArray();
+        longs = random.longs(length).toArray();
+        output = new Output(length * 8 + 64);
+        output.writeDoubles(doubles, 0, length);
+        doubleBytes = output.toBytes();
+        output.reset();
+        output.writeLongs(longs, 0, length);
+        longBytes = output.toBytes();
+    }
+
+    @Benchmark
+    public byte[] writeDoubles() {
+        output.reset();
+        output.writeDoubles(doubles, 0, length);
+        return output.getBuffer();
+    }
+
+    @Benchmark
+    public byte[] writeDoublesLoop() {
+        output.reset();
+        writeDoublesLoop(output, doubles, 0, length);
+        return output.getBuffer();
+    }
+
+    @Benchmark
+    public byte[] writeLongs() {
+        output.reset();
+        output.writeLongs(longs, 0, length);
+        return output.getBuffer();
+    }
+
+    @Benchmark
+    public byte[] writeLongsLoop() {
+        output.reset();
+        writeLongsLoop(output, longs, 0, length);
+        return output.getBuffer();
+    }
+
+    @Benchmark
+    public double[] readDoubles() {
+        return new Input(doubleBytes).readDoubles(length);
+    }
+
+    @Benchmark
+    public double[] readDoublesLoop() {
+        return readDoublesLoop(new Input(doubleBytes), length);
+    }
+
+    @Benchmark
+    public long[] readLongs() {
+        return new Input(longBytes).readLongs(length);
+    }
+
+    @Benchmark
+    public long[] readLongsLoop() {
+        return readLongsLoop(new Input(longBytes), length);
+    }
+
+    // The byte shifting loops of the previous implementation.
+
+    static void writeDoublesLoop(Output output, double[] array, int offset, int count) {
+        if (output.capacity - output.position >= count << 3) {
+            byte[] buffer = output.buffer;
+            int p = output.position;
+            for (int n = offset + count; offset < n; offset++, p += 8) {
+                long value = Double.doubleToLongBits(array[offset]);
+                buffer[p] = (byte) value;
+                buffer[p + 1] = (byte) (value >>> 8);
+                buffer[p + 2] = (byte) (value >>> 16);
+                buffer[p + 3] = (byte) (value >>> 24);
+                buffer[p + 4] = (byte) (value >>> 32);
+                buffer[p + 5] = (byte) (value >>> 40);
+                buffer[p + 6] = (byte) (value >>> 48);
+                buffer[p + 7] = (byte) (value >>> 56);
+            }
+            output.position = p;
+        } else {
+            for (int n = offset + count; offset < n; offset++)
+                output.writeDouble(array[offset]);
+        }
+    }
+
+    static void writeLongsLoop(Output output, long[] array, int offset, int count) {
+        if (output.capacity - output.position >= count << 3) {
+            byte[] buffer = output.buffer;
+            int p = output.position;
+            for (int n = offset + count; offset < n; offset++, p += 8) {
+                long value = array[offset];
+                buffer[p] = (byte) value;
+                buffer[p + 1] = (byte) (value >>> 8);
+                buffer[p + 2] = (byte) (value >>> 16);
+                buffer[p + 3] = (byte) (value >>> 24);
+                buffer[p + 4] = (byte) (value >>> 32);
+                buffer[p + 5] = (byte) (value >>> 40);
+                buffer[p + 6] = (byte) (value >>> 48);
+                buffer[p + 7] = (byte) (value >>> 56);
+            }
+            output.position = p;
+        } else {
+            for (int n = offset + count; offset < n; offset++)
+                output.writeLong(array[offset]);
+        }
+    }
+
+    static long[] readLongsLoop(Input input, int length) {
+        long[] array = new long[length];
+        if (input.optional(length << 3) == length << 3) {
+            byte[] buffer = input.buffer;
+            int p = input.position;
+            for (int i = 0; i < length; i++, p += 8) {
+                array[i] = buffer[p] & 0xFF
+                        | (buffer[p + 1] & 0xFF) << 8
+                        | (buffer[p + 2] & 0xFF) << 16
+                        | (long) (buffer[p + 3] & 0xFF) << 24
+                        | (long) (buffer[p + 4] & 0xFF) << 32
+                        | (long) (buffer[p + 5] & 0xFF) << 40
+                        | (long) (buffer[p + 6] & 0xFF) << 48
+                        | (long) buffer[p + 7] << 56;
+            }
+            input.position = p;
+        } else {
+            for (int i = 0; i < length; i++)
+                array[i] = input.readLong();
+        }
+        return array;
+    }
+
+    static double[] readDoublesLoop(Input input, int length) {
+        double[] array = new double[length];
+        if (input.optional(length << 3) == length << 3) {
+            byte[] buffer = input.buffer;
+            int p = input.position;
+            for (int i = 0; i < length; i++, p += 8) {
+                array[i] = Double.longBitsToDouble(buffer[p] & 0xFF
+                        | (buffer[p + 1] & 0xFF) << 8
+                        | (buffer[p + 2] & 0xFF) << 16
+                        | (long) (buffer[p + 3] & 0xFF) << 24
+                        | (long) (buffer[p + 4] & 0xFF) << 32
+                        | (long) (buffer[p + 5] & 0xFF) << 40
+                        | (long) (buffer[p + 6] & 0xFF) << 48
+                        | (long) buffer[p + 7] << 56);
+            }
+            input.position = p;
+        } else {
+            for (int i = 0; i < length; i++)
+                array[i] = input.readDouble();
+        }
+        return array;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(InputOutputBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
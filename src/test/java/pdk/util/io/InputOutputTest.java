@@ -1,10 +1,12 @@
 package pdk.util.io;
 
 import org.junit.jupiter.api.Test;
+import pdk.util.exception.PDKRuntimeException;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -1038,4 +1040,165 @@ class InputOutputTest {
         assertEquals(4, input.readLong());
         assertEquals(2, input.readInt());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testVByteInts() {
+        Random random = new Random(11);
+        int[] values = new int[1003];
+        for (int i = 0; i < values.length; i++)
+            values[i] = random.nextInt() >> random.nextInt(32);
+        values[0] = Integer.MIN_VALUE;
+        values[1] = Integer.MAX_VALUE;
+
+        for (boolean optimizePositive : new boolean[]{true, false}) {
+            Output output = new Output(32, -1);
+            output.writeVByteInts(values, 0, values.length, optimizePositive);
+            output.writeInt(123);
+            byte[] bytes = output.toBytes();
+
+            Input input = new Input(bytes);
+            assertArrayEquals(values, input.readVByteInts(values.length, optimizePositive));
+            assertEquals(123, input.readInt());
+
+            // small buffers
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            output = new Output(stream, 20);
+            output.writeVByteInts(values, 0, values.length, optimizePositive);
+            output.writeInt(123);
+            output.flush();
+            assertArrayEquals(bytes, stream.toByteArray());
+
+            input = new Input(new ByteArrayInputStream(bytes), 20);
+            int[] read = new int[values.length + 2];
+            input.readVByteInts(read, 2, values.length, optimizePositive);
+            assertArrayEquals(values, Arrays.copyOfRange(read, 2, read.length));
+            assertEquals(123, input.readInt());
+        }
+
+        Output output = new Output(64);
+        output.writeVByteInts(new int[]{1, 300, 70000, -1}, 0, 4, true);
+        // one control byte, 1 + 2 + 3 + 4 data bytes
+        assertEquals(11, output.position());
+        assertArrayEquals(new int[]{1, 300, 70000, -1}, new Input(output.toBytes()).readVByteInts(4, true));
+    }
+
+    @Test
+    void testVByteLongs() {
+        Random random = new Random(13);
+        long[] values = new long[777];
+        for (int i = 0; i < values.length; i++)
+            values[i] = random.nextLong() >> random.nextInt(64);
+        values[0] = Long.MIN_VALUE;
+        values[1] = Long.MAX_VALUE;
+
+        for (boolean optimizePositive : new boolean[]{true, false}) {
+            Output output = new Output(32, -1);
+            output.writeVByteLongs(values, 0, values.length, optimizePositive);
+            output.writeLong(-9);
+            byte[] bytes = output.toBytes();
+
+            Input input = new Input(bytes);
+            assertArrayEquals(values, input.readVByteLongs(values.length, optimizePositive));
+            assertEquals(-9, input.readLong());
+
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            output = new Output(stream, 40);
+            output.writeVByteLongs(values, 0, values.length, optimizePositive);
+            output.writeLong(-9);
+            output.flush();
+            assertArrayEquals(bytes, stream.toByteArray());
+
+            input = new Input(new ByteArrayInputStream(bytes), 40);
+            assertArrayEquals(values, input.readVByteLongs(values.length, optimizePositive));
+            assertEquals(-9, input.readLong());
+        }
+
+        Output output = new Output(64);
+        output.writeVByteLongs(new long[]{-1, 1}, 0, 2, false);
+        // one control byte, zigzag 1 and 2 take one byte each
+        assertEquals(3, output.position());
+    }
+
+    @Test
+    void testDeltaCodecs() {
+        Random random = new Random(19);
+        long[] longs = new long[500];
+        int[] ints = new int[500];
+        double[] doubles = new double[500];
+        longs[0] = -100;
+        ints[0] = 1000;
+        doubles[0] = 200.0;
+        for (int i = 1; i < longs.length; i++) {
+            longs[i] = longs[i - 1] + random.nextInt(200);
+            ints[i] = ints[i - 1] + random.nextInt(3) - 1;
+            doubles[i] = doubles[i - 1] + random.nextDouble();
+        }
+
+        Output output = new Output(64, -1);
+        output.writeSortedLongs(longs, 0, longs.length);
+        int longLength = output.position();
+        output.writeDeltaInts(ints, 0, ints.length);
+        int intLength = output.position() - longLength;
+        output.writeDeltaDoubles(doubles, 0, doubles.length, 1E5);
+        int doubleLength = output.position() - intLength - longLength;
+        output.writeInt(7);
+
+        assertTrue(longLength < longs.length * 3);
+        assertEquals(ints.length + 1, intLength);
+        assertTrue(doubleLength < doubles.length * 4);
+
+        Input input = new Input(output.toBytes());
+        assertArrayEquals(longs, input.readSortedLongs(longs.length));
+        int[] readInts = new int[ints.length + 1];
+        input.readDeltaInts(readInts, 1, ints.length);
+        assertArrayEquals(ints, Arrays.copyOfRange(readInts, 1, readInts.length));
+        assertArrayEquals(doubles, input.readDeltaDoubles(doubles.length, 1E5), 1E-5);
+        assertEquals(7, input.readInt());
+
+        // unsorted values are still read back
+        long[] unsorted = {5, 3, Long.MIN_VALUE, Long.MAX_VALUE, 0};
+        output.reset();
+        output.writeSortedLongs(unsorted, 0, unsorted.length);
+        assertArrayEquals(unsorted, new Input(output.toBytes()).readSortedLongs(unsorted.length));
+    }
+
+    @Test
+    void testStringDictionary() {
+        String[] accessions = {"P12345", "Q9Y6K9", "蛋白质", "", null};
+        Output output = new Output(16, -1);
+        output.setStringDictionary(true);
+        for (int i = 0; i < 100; i++)
+            output.writeString(accessions[i % accessions.length]);
+        output.writeAscii("P12345");
+        int size = output.position();
+
+        Output plain = new Output(16, -1);
+        for (int i = 0; i < 100; i++)
+            plain.writeString(accessions[i % accessions.length]);
+        assertTrue(size < plain.position() / 3);
+
+        Input input = new Input(output.toBytes());
+        input.setStringDictionary(true);
+        String first = null;
+        for (int i = 0; i < 100; i++) {
+            String value = input.readString();
+            assertEquals(accessions[i % accessions.length], value);
+            if (i == 0) first = value;
+            else if (i % accessions.length == 0) assertSame(first, value);
+        }
+        assertEquals("P12345", input.readStringBuilder().toString());
+        assertTrue(input.end());
+
+        // the dictionary is cleared by reset
+        output.reset();
+        output.writeString("P12345");
+        input.setBuffer(output.toBytes());
+        assertEquals("P12345", input.readString());
+
+        // a reference beyond the dictionary is corrupt data
+        output.reset();
+        output.writeVarInt(5, true);
+        input.setBuffer(output.toBytes());
+        assertThrows(PDKRuntimeException.class, input::readString);
+    }
+}
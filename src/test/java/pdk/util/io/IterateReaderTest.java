@@ -0,0 +1,86 @@
+package pdk.util.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 17 Oct 2026, 3:20 PM
+ */
+class IterateReaderTest {
+
+    private static class CountReader implements IterateReader<Integer> {
+        private final int count;
+        private int next;
+        private boolean closed;
+
+        CountReader(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < count;
+        }
+
+        @Override
+        public Integer next() {
+            return next++;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @Test
+    void stream() {
+        CountReader reader = new CountReader(1000);
+        try (Stream<Integer> stream = reader.stream()) {
+            assertFalse(stream.isParallel());
+            assertEquals(IntStream.range(0, 1000).boxed().toList(), stream.toList());
+        }
+        assertTrue(reader.closed);
+
+        // null records are allowed unless the reader says otherwise
+        Spliterator<Integer> spliterator = new CountReader(10).stream().spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+        assertFalse(spliterator.hasCharacteristics(Spliterator.NONNULL));
+    }
+
+    @Test
+    void parallelStream() {
+        CountReader reader = new CountReader(10_000);
+        try (Stream<Integer> stream = reader.parallelStream()) {
+            assertTrue(stream.isParallel());
+            List<Integer> squares = stream.map(i -> i * i).toList();
+            assertEquals(IntStream.range(0, 10_000).map(i -> i * i).boxed().toList(), squares);
+        }
+        assertTrue(reader.closed);
+
+        try (Stream<Integer> stream = new CountReader(10_000).stream(7, true)) {
+            assertEquals(49_995_000L, stream.mapToLong(Integer::longValue).sum());
+        }
+    }
+
+    @Test
+    void split() {
+        BatchSpliterator<Integer> spliterator = new BatchSpliterator<>(new CountReader(10), 4, Spliterator.ORDERED);
+        assertEquals(Long.MAX_VALUE, spliterator.estimateSize());
+        assertEquals(4, spliterator.trySplit().estimateSize());
+        assertEquals(4, spliterator.trySplit().estimateSize());
+        Spliterator<Integer> last = spliterator.trySplit();
+        assertEquals(2, last.estimateSize());
+        assertTrue(last.hasCharacteristics(Spliterator.SIZED));
+        assertNull(spliterator.trySplit());
+        assertFalse(spliterator.tryAdvance(i -> fail("no element left")));
+    }
+}
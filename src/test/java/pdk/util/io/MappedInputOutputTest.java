@@ -0,0 +1,160 @@
+package pdk.util.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 10:21 AM
+ */
+class MappedInputOutputTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        Path file = dir.resolve("data.bin");
+        Random random = new Random(7);
+        double[] doubles = random.doubles(10_000).toArray();
+        long[] longs = random.longs(3_000).toArray();
+        int[] ints = random.ints(5_000).toArray();
+
+        try (MappedOutput output = new MappedOutput(file, 64, 1024)) {
+            output.writeInt(42);
+            output.writeString("spectrum");
+            output.writeVarInt(300, true);
+            output.writeDoubles(doubles, 0, doubles.length);
+            output.writeLongs(longs, 0, longs.length);
+            output.writeString("中文");
+            output.writeInts(ints, 0, ints.length);
+            output.writeDouble(3.5);
+            assertEquals(output.total(), output.length());
+        }
+
+        long expected = 4 + 8 + 2 + doubles.length * 8L + longs.length * 8L + 7 + ints.length * 4L + 8;
+        assertEquals(expected, Files.size(file));
+
+        try (MappedInput input = new MappedInput(file, 64)) {
+            assertEquals(expected, input.size());
+            assertEquals(42, input.readInt());
+            assertEquals("spectrum", input.readString());
+            assertEquals(300, input.readVarInt(true));
+            assertArrayEquals(doubles, input.readDoubles(doubles.length));
+            assertArrayEquals(longs, input.readLongs(longs.length));
+            assertEquals("中文", input.readString());
+            assertArrayEquals(ints, input.readInts(ints.length));
+            assertEquals(3.5, input.readDouble());
+            assertEquals(expected, input.filePosition());
+            assertTrue(input.end());
+        }
+    }
+
+    @Test
+    void testSeek() throws IOException {
+        Path file = dir.resolve("seek.bin");
+        try (MappedOutput output = new MappedOutput(file)) {
+            output.writeLong(0);
+            for (int i = 0; i < 100; i++)
+                output.writeInt(i);
+            long end = output.filePosition();
+            output.seek(0);
+            output.writeLong(end);
+        }
+
+        try (MappedInput input = new MappedInput(file, 16)) {
+            assertEquals(408, input.readLong());
+            input.seek(8 + 4 * 50);
+            assertEquals(50, input.readInt());
+            assertEquals(8 + 4 * 51, input.total());
+            input.skip(4L * 47);
+            assertEquals(98, input.readInt());
+            input.seek(8);
+            assertArrayEquals(new int[]{0, 1, 2}, input.readInts(3));
+            input.seek(8 + 4 * 99);
+            assertEquals(99, input.readInt());
+            assertThrows(BufferUnderflowException.class, input::readInt);
+        }
+    }
+
+    @Test
+    void testReadByteArrayWrittenByOutput() throws IOException {
+        Output output = new Output(1024);
+        output.writeVarLong(1L << 40, true);
+        output.writeFloats(new float[]{1.5f, -2.5f}, 0, 2);
+        output.writeAscii("abc");
+        Path file = dir.resolve("heap.bin");
+        Files.write(file, output.toBytes());
+
+        try (MappedInput input = new MappedInput(file)) {
+            assertEquals(1L << 40, input.readVarLong(true));
+            assertArrayEquals(new float[]{1.5f, -2.5f}, input.readFloats(2));
+            assertEquals("abc", input.readString());
+        }
+    }
+
+    @Test
+    void testResetStringDictionary() throws IOException {
+        Output output = new Output(1024);
+        output.setStringDictionary(true);
+        output.writeString("a");
+        output.writeString("b");
+        output.writeString("b");
+        Path file = dir.resolve("strings.bin");
+        Files.write(file, output.toBytes());
+
+        try (MappedInput input = new MappedInput(file)) {
+            input.setStringDictionary(true);
+            assertEquals("a", input.readString());
+            input.reset();
+            assertEquals("a", input.readString());
+            assertEquals("b", input.readString());
+            // the reference to the second string of the dictionary
+            assertEquals("b", input.readString());
+        }
+    }
+
+    @Test
+    void testCanonicalNaN() throws IOException {
+        Path file = dir.resolve("nan.bin");
+        float[] floats = {1, Float.intBitsToFloat(0x7fc00001), 2};
+        double[] doubles = {Double.longBitsToDouble(0xfff0000000000001L), 3};
+        try (MappedOutput output = new MappedOutput(file)) {
+            output.writeFloats(floats, 0, floats.length);
+            output.writeDoubles(doubles, 0, doubles.length);
+        }
+        try (MappedInput input = new MappedInput(file)) {
+            assertEquals(Float.floatToIntBits(1), input.readInt());
+            assertEquals(Float.floatToIntBits(Float.NaN), input.readInt());
+            assertEquals(Float.floatToIntBits(2), input.readInt());
+            assertEquals(Double.doubleToLongBits(Double.NaN), input.readLong());
+            assertEquals(Double.doubleToLongBits(3), input.readLong());
+        }
+    }
+
+    @Test
+    void testReset() throws IOException {
+        Path file = dir.resolve("reset.bin");
+        try (MappedOutput output = new MappedOutput(file, 16, 64)) {
+            output.writeString("discarded string");
+            output.writeLong(1);
+            output.reset();
+            assertEquals(0, output.total());
+            output.writeInt(7);
+            output.writeString("abc");
+        }
+        assertEquals(4 + 3, Files.size(file));
+        try (MappedInput input = new MappedInput(file)) {
+            assertEquals(7, input.readInt());
+            assertEquals("abc", input.readString());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package pdk.util.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 3:40 PM
+ */
+class NumpressTest {
+
+    @Test
+    void testLinear() {
+        Random random = new Random(23);
+        double[] mz = new double[1000];
+        mz[0] = 300;
+        for (int i = 1; i < mz.length; i++)
+            mz[i] = mz[i - 1] + random.nextDouble() * 2;
+
+        double fixedPoint = Numpress.optimalLinearFixedPoint(mz, 0, mz.length);
+        Output output = new Output(64, -1);
+        int length = Numpress.encodeLinear(mz, 0, mz.length, fixedPoint, output);
+        assertEquals(output.position(), length);
+        assertTrue(length < mz.length * 8);
+
+        double[] decoded = new double[mz.length + 1];
+        assertEquals(mz.length, Numpress.decodeLinear(new Input(output.toBytes()), length, decoded, 1));
+        for (int i = 0; i < mz.length; i++)
+            assertEquals(mz[i], decoded[i + 1], 1 / fixedPoint);
+
+        // transcode to doubles without an intermediate array
+        Output doubles = new Output(64, -1);
+        assertEquals(mz.length, Numpress.decodeLinear(new Input(output.toBytes()), length, doubles));
+        Output encoded = new Output(64, -1);
+        Numpress.encodeLinear(new Input(doubles.toBytes()), mz.length, fixedPoint, encoded);
+        assertArrayEquals(output.toBytes(), encoded.toBytes());
+    }
+
+    @Test
+    void testLinearBytes() {
+        Output output = new Output(64);
+        // residuals 0 and -1
+        Numpress.encodeLinear(new double[]{1, 2, 3, 3}, 0, 4, 1, output);
+        byte[] bytes = output.toBytes();
+        assertEquals(18, bytes.length);
+        // big endian fixed point
+        assertEquals(0x3F, bytes[0]);
+        assertEquals((byte) 0xF0, bytes[1]);
+        // little endian first values
+        assertEquals(1, bytes[8]);
+        assertEquals(2, bytes[12]);
+        // 0 is the single half byte 8, -1 is F followed by F
+        assertEquals((byte) 0x8F, bytes[16]);
+        assertEquals((byte) 0xF0, bytes[17]);
+
+        double[] decoded = new double[4];
+        assertEquals(4, Numpress.decodeLinear(new Input(bytes), bytes.length, decoded, 0));
+        assertArrayEquals(new double[]{1, 2, 3, 3}, decoded);
+
+        assertEquals(0, Numpress.decodeLinear(new Input(new byte[0]), 0, decoded, 0));
+    }
+
+    @Test
+    void testSlof() {
+        double[] intensities = {0, 1, 10.5, 1000, 123456.7};
+        double fixedPoint = Numpress.optimalSlofFixedPoint(intensities, 0, intensities.length);
+        Output output = new Output(64);
+        assertEquals(8 + 2 * intensities.length,
+                Numpress.encodeSlof(intensities, 0, intensities.length, fixedPoint, output));
+
+        double[] decoded = new double[intensities.length];
+        assertEquals(intensities.length,
+                Numpress.decodeSlof(new Input(output.toBytes()), output.position(), decoded, 0));
+        for (int i = 0; i < intensities.length; i++)
+            assertEquals(intensities[i], decoded[i], intensities[i] * 5E-4 + 1E-4);
+    }
+
+    @Test
+    void testPic() {
+        Output output = new Output(64);
+        assertEquals(1, Numpress.encodePic(new double[]{0}, 0, 1, output));
+        assertEquals((byte) 0x80, output.toBytes()[0]);
+
+        output.reset();
+        assertEquals(2, Numpress.encodePic(new double[]{1, 2}, 0, 2, output));
+        assertArrayEquals(new byte[]{0x71, 0x72}, output.toBytes());
+
+        double[] counts = {0, 3, 17, 255, 4096, 1E6, Integer.MAX_VALUE - 1, 2.4};
+        output.reset();
+        int length = Numpress.encodePic(counts, 0, counts.length, output);
+        double[] decoded = new double[counts.length];
+        assertEquals(counts.length, Numpress.decodePic(new Input(output.toBytes()), length, decoded, 0));
+        assertArrayEquals(new double[]{0, 3, 17, 255, 4096, 1E6, Integer.MAX_VALUE - 1, 2}, decoded);
+
+        assertThrows(IllegalArgumentException.class, () -> Numpress.encodePic(new double[]{-1}, 0, 1, output));
+    }
+}
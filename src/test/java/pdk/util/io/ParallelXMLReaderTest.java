@@ -0,0 +1,122 @@
+package pdk.util.io;
+
+import org.junit.jupiter.api.Test;
+import pdk.util.exception.PDKRuntimeException;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 17 Oct 2026, 9:40 AM
+ */
+class ParallelXMLReaderTest {
+
+    private record Spectrum(int index, String id, int peaks) {}
+
+    private static Spectrum parse(XMLStreamReader reader) throws XMLStreamException {
+        int index = Integer.parseInt(reader.getAttributeValue(null, "index"));
+        String id = reader.getAttributeValue(null, "id");
+        int peaks = 0;
+        while (!(reader.next() == XMLStreamReader.END_ELEMENT && reader.getLocalName().equals("spectrum"))) {
+            if (reader.isStartElement() && reader.getLocalName().equals("peak")) peaks++;
+        }
+        return new Spectrum(index, id, peaks);
+    }
+
+    private static byte[] mzML(int count) {
+        StringBuilder builder = new StringBuilder("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <mzML xmlns="http://psi.hupo.org/ms/mzml">
+                  <run id="run">
+                    <spectrumList count="%d">
+                """.formatted(count));
+        for (int i = 0; i < count; i++) {
+            if (i % 10 == 9) {
+                builder.append("      <spectrum index=\"").append(i).append("\" id=\"a>b ").append(i).append("\"/>\n");
+                continue;
+            }
+            builder.append("      <spectrum index=\"").append(i).append("\" id=\"scan=").append(i).append("\">\n");
+            for (int j = 0; j < i % 4; j++)
+                builder.append("        <peak mz=\"").append(j).append("\"/>\n");
+            builder.append("      </spectrum >\n");
+        }
+        builder.append("""
+                    </spectrumList>
+                  </run>
+                </mzML>
+                """);
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testOrder() throws IOException {
+        byte[] data = mzML(1000);
+        List<Spectrum> spectra = new ArrayList<>();
+        try (ParallelXMLReader<Spectrum> reader = new ParallelXMLReader<>(new ByteArrayInputStream(data), "spectrum",
+                ParallelXMLReaderTest::parse, ForkJoinPool.commonPool(), 3, 200)) {
+            while (reader.hasNext())
+                spectra.add(reader.next());
+        }
+        assertEquals(1000, spectra.size());
+        for (int i = 0; i < spectra.size(); i++) {
+            Spectrum spectrum = spectra.get(i);
+            assertEquals(i, spectrum.index());
+            if (i % 10 == 9) {
+                assertEquals("a>b " + i, spectrum.id());
+                assertEquals(0, spectrum.peaks());
+            } else {
+                assertEquals("scan=" + i, spectrum.id());
+                assertEquals(i % 4, spectrum.peaks());
+            }
+        }
+    }
+
+    @Test
+    void testMarkup() throws IOException {
+        byte[] data = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <spectrumList>
+                  <!-- <spectrum index="-1" id="commented out"> -->
+                  <?pi <spectrum index="-2"> ?>
+                  <spectrum index="0" id="a">
+                    <!-- </spectrum> -->
+                    <peak mz="1"/>
+                    <note><![CDATA[</spectrum> <spectrum index="-3">]]></note>
+                    <?pi </spectrum> ?>
+                  </spectrum>
+                  <spectrum index="1" id="é"/>
+                </spectrumList>
+                """.getBytes(StandardCharsets.UTF_8);
+        List<Spectrum> spectra = new ArrayList<>();
+        try (ParallelXMLReader<Spectrum> reader = new ParallelXMLReader<>(new ByteArrayInputStream(data), "spectrum",
+                ParallelXMLReaderTest::parse, ForkJoinPool.commonPool(), 2, 1)) {
+            while (reader.hasNext())
+                spectra.add(reader.next());
+        }
+        assertEquals(List.of(new Spectrum(0, "a", 1), new Spectrum(1, "é", 0)), spectra);
+    }
+
+    @Test
+    void testError() throws IOException {
+        byte[] data = mzML(50);
+        try (ParallelXMLReader<Spectrum> reader = new ParallelXMLReader<>(new ByteArrayInputStream(data), "spectrum",
+                r -> {
+                    if (r.getAttributeValue(null, "index").equals("20")) throw new XMLStreamException("bad spectrum");
+                    return parse(r);
+                }, ForkJoinPool.commonPool(), 4, 1)) {
+            for (int i = 0; i < 20; i++)
+                assertEquals(i, reader.next().index());
+            assertThrows(PDKRuntimeException.class, reader::next);
+        }
+    }
+}
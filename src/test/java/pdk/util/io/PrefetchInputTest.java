@@ -0,0 +1,72 @@
+package pdk.util.io;
+
+import org.junit.jupiter.api.Test;
+import pdk.util.exception.PDKRuntimeException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 6:55 PM
+ */
+class PrefetchInputTest {
+
+    /**
+     * Returns at most 7 bytes per read, as a slow network stream.
+     */
+    private static InputStream trickle(byte[] bytes) {
+        return new ByteArrayInputStream(bytes) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 7));
+            }
+        };
+    }
+
+    @Test
+    void testRead() {
+        Random random = new Random(37);
+        long[] longs = random.longs(3000).toArray();
+        Output output = new Output(1024, -1);
+        for (int i = 0; i < 500; i++)
+            output.writeString("spectrum " + i);
+        output.writeLongs(longs, 0, longs.length);
+        output.writeVarInt(-3, false);
+        byte[] bytes = output.toBytes();
+
+        try (PrefetchInput input = new PrefetchInput(trickle(bytes), 64, 2)) {
+            for (int i = 0; i < 500; i++)
+                assertEquals("spectrum " + i, input.readString());
+            assertArrayEquals(longs, input.readLongs(longs.length));
+            assertEquals(bytes.length - 1, input.total());
+            assertEquals(-3, input.readVarInt(false));
+            assertEquals(bytes.length, input.total());
+            assertTrue(input.end());
+            assertThrows(BufferUnderflowException.class, input::readByte);
+        }
+    }
+
+    @Test
+    void testError() {
+        InputStream failing = new InputStream() {
+            int count;
+
+            @Override
+            public int read() throws IOException {
+                if (count++ >= 100) throw new IOException("connection reset");
+                return 1;
+            }
+        };
+        try (PrefetchInput input = new PrefetchInput(failing, 16, 1)) {
+            input.readBytes(96);
+            PDKRuntimeException ex = assertThrows(PDKRuntimeException.class, () -> input.readBytes(16));
+            assertEquals("connection reset", ex.getCause().getMessage());
+        }
+    }
+}
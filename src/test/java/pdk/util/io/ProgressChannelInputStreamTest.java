@@ -0,0 +1,88 @@
+package pdk.util.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 17 Oct 2026, 2:45 PM
+ */
+class ProgressChannelInputStreamTest {
+
+    @TempDir
+    Path dir;
+
+    private Path createFile(int size) throws IOException {
+        byte[] data = new byte[size];
+        new Random(42).nextBytes(data);
+        Path file = dir.resolve("data.bin");
+        Files.write(file, data);
+        return file;
+    }
+
+    @Test
+    void read() throws IOException {
+        Path file = createFile(100_000);
+        byte[] expected = Files.readAllBytes(file);
+        List<Long> positions = new ArrayList<>();
+        try (ProgressChannelInputStream in = new ProgressChannelInputStream(
+                FileChannel.open(file), true, 1000)) {
+            in.setListener(10_000, Long.MAX_VALUE / 2, s -> positions.add(s.getSampledPosition()));
+            assertEquals(100_000, in.getLength());
+            byte[] actual = new byte[expected.length];
+            int offset = 0;
+            actual[offset++] = (byte) in.read();
+            // small reads through the buffer, large reads to the array
+            int n;
+            while ((n = in.read(actual, offset, Math.min(offset % 3 == 0 ? 5000 : 17, actual.length - offset))) > 0)
+                offset += n;
+            assertEquals(expected.length, offset);
+            assertArrayEquals(expected, actual);
+            assertEquals(-1, in.read());
+            assertEquals(100_000, in.getPosition());
+            assertEquals(1.0, in.getFraction());
+            assertEquals(0, in.getEtaMillis());
+        }
+        assertTrue(positions.size() >= 5, "samples: " + positions.size());
+        assertEquals(100_000L, (long) positions.getLast());
+        for (int i = 1; i < positions.size(); i++)
+            assertTrue(positions.get(i) >= positions.get(i - 1));
+    }
+
+    @Test
+    void skip() throws IOException {
+        Path file = createFile(10_000);
+        byte[] expected = Files.readAllBytes(file);
+        try (InputStream in = new ProgressChannelInputStream(file)) {
+            assertEquals(expected[0] & 0xFF, in.read());
+            assertEquals(4999, in.skip(4999));
+            assertEquals(expected[5000] & 0xFF, in.read());
+            assertEquals(4999, in.available());
+            assertEquals(4999, in.skip(1_000_000));
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    void throughput() throws IOException {
+        Path file = createFile(1 << 20);
+        try (ProgressChannelInputStream in = new ProgressChannelInputStream(file.toFile())) {
+            in.setListener(1 << 16, 1000, s -> {});
+            in.readAllBytes();
+            assertTrue(in.getBytesPerSecond() > 0);
+            assertEquals(1 << 20, in.getSampledPosition());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package pdk.util.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 8:55 PM
+ */
+class RecordFileTest {
+
+    private record Spectrum(String title, double[] mz) {}
+
+    private static final Serializer<Spectrum> SERIALIZER = new Serializer<>() {
+        @Override
+        public void write(Output output, Spectrum value) {
+            output.writeString(value.title());
+            output.writeVarInt(value.mz().length, true);
+            output.writeDoubles(value.mz(), 0, value.mz().length);
+        }
+
+        @Override
+        public Spectrum read(Input input) {
+            String title = input.readString();
+            return new Spectrum(title, input.readDoubles(input.readVarInt(true)));
+        }
+    };
+
+    @TempDir
+    Path dir;
+
+    private static Spectrum[] spectra(int count) {
+        Random random = new Random(11);
+        Spectrum[] spectra = new Spectrum[count];
+        for (int i = 0; i < count; i++)
+            spectra[i] = new Spectrum("scan=" + i, random.doubles(random.nextInt(200)).toArray());
+        return spectra;
+    }
+
+    private static void assertSpectrum(Spectrum expected, Spectrum actual) {
+        assertEquals(expected.title(), actual.title());
+        assertArrayEquals(expected.mz(), actual.mz());
+    }
+
+    @Test
+    void testIndex() throws IOException {
+        Path file = dir.resolve("spectra.rec");
+        Spectrum[] spectra = spectra(500);
+        try (RecordFileWriter writer = new RecordFileWriter(file, 256)) {
+            for (int i = 0; i < spectra.length; i++)
+                assertEquals(i, writer.append(spectra[i], SERIALIZER));
+            assertThrows(IllegalStateException.class, () -> writer.beginRecord(1));
+        }
+
+        try (RecordFileReader reader = new RecordFileReader(file, 64)) {
+            assertEquals(spectra.length, reader.size());
+            assertFalse(reader.hasIds());
+            for (int i : new int[]{499, 0, 250, 17, 250})
+                assertSpectrum(spectra[i], reader.read(i, SERIALIZER));
+            Output output = new Output(1024, -1);
+            SERIALIZER.write(output, spectra[3]);
+            assertEquals(output.total(), reader.recordLength(3));
+
+            List<Spectrum> range = reader.readRange(100, 300, SERIALIZER);
+            assertEquals(200, range.size());
+            for (int i = 0; i < range.size(); i++)
+                assertSpectrum(spectra[100 + i], range.get(i));
+            assertTrue(reader.readRange(5, 5, SERIALIZER).isEmpty());
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.read(500, SERIALIZER));
+            assertThrows(IllegalStateException.class, () -> reader.indexOf(1));
+        }
+    }
+
+    @Test
+    void testIds() throws IOException {
+        Path file = dir.resolve("spectra.rec");
+        Spectrum[] spectra = spectra(100);
+        try (RecordFileWriter writer = new RecordFileWriter(file)) {
+            for (int i = 0; i < spectra.length; i++)
+                writer.append(1_000_000_000_000L + i * 7L, spectra[i], SERIALIZER);
+            // a record written directly to the Output
+            writer.beginRecord(-5);
+            writer.getOutput().writeString("raw");
+        }
+
+        try (RecordFileReader reader = new RecordFileReader(file)) {
+            assertEquals(101, reader.size());
+            assertTrue(reader.hasIds());
+            assertSpectrum(spectra[42], reader.readById(1_000_000_000_000L + 42 * 7L, SERIALIZER));
+            assertNull(reader.readById(1, SERIALIZER));
+            assertEquals(100, reader.indexOf(-5));
+            assertEquals(-5, reader.id(100));
+            assertEquals("raw", reader.seek(100).readString());
+        }
+
+        Files.write(file, new byte[20]);
+        assertThrows(RuntimeException.class, () -> new RecordFileReader(file));
+    }
+}
@@ -0,0 +1,141 @@
+package pdk.util.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 11:30 AM
+ */
+class SegmentOutputTest {
+
+    @TempDir
+    Path dir;
+
+    private static void write(Output output, double[] doubles, long[] longs) {
+        output.writeInt(7);
+        output.writeString("peptide");
+        output.writeDoubles(doubles, 0, doubles.length);
+        output.writeVarLong(-5, false);
+        output.writeLongs(longs, 0, longs.length);
+        output.writeString("end");
+    }
+
+    private static void verify(Input input, double[] doubles, long[] longs) {
+        assertEquals(7, input.readInt());
+        assertEquals("peptide", input.readString());
+        assertArrayEquals(doubles, input.readDoubles(doubles.length));
+        assertEquals(-5, input.readVarLong(false));
+        assertArrayEquals(longs, input.readLongs(longs.length));
+        assertEquals("end", input.readString());
+    }
+
+    @Test
+    void testChunks() {
+        Random random = new Random(3);
+        double[] doubles = random.doubles(1000).toArray();
+        long[] longs = random.longs(333).toArray();
+
+        Output expected = new Output(1024, -1);
+        write(expected, doubles, longs);
+
+        try (Arena arena = Arena.ofConfined()) {
+            SegmentOutput output = new SegmentOutput(arena, 100, 16);
+            write(output, doubles, longs);
+            assertEquals(expected.total(), output.size());
+            assertTrue(output.segments().size() > 1);
+            assertArrayEquals(expected.toBytes(), output.toBytes());
+            verify(new MappedInput(output.toSegment()), doubles, longs);
+
+            output.reset();
+            output.writeInt(1);
+            assertEquals(4, output.size());
+            assertEquals(1, new Input(output.toBytes()).readInt());
+        }
+    }
+
+    @Test
+    void testWriteTo() throws IOException {
+        Random random = new Random(5);
+        double[] doubles = random.doubles(5000).toArray();
+        long[] longs = random.longs(100).toArray();
+
+        Path file = dir.resolve("segments.bin");
+        try (SegmentOutput output = new SegmentOutput();
+             FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            write(output, doubles, longs);
+            assertEquals(output.size(), output.writeTo(channel));
+        }
+        verify(new Input(Files.readAllBytes(file)), doubles, longs);
+    }
+
+    @Test
+    void testSegmentInput() {
+        Random random = new Random(9);
+        double[] doubles = random.doubles(2000).toArray();
+        long[] longs = random.longs(500).toArray();
+
+        SegmentOutput output = new SegmentOutput(100, 16);
+        write(output, doubles, longs);
+        long size = output.total();
+        assertTrue(output.segments().size() > 1);
+
+        SegmentInput input = new SegmentInput(output.segments(), 32);
+        assertEquals(size, input.size());
+        verify(input, doubles, longs);
+        assertEquals(size, input.total());
+        assertTrue(input.end());
+
+        // the doubles start after the int and the ascii string
+        input.seek(4 + 7 + 8 * 123);
+        assertEquals(doubles[123], input.readDouble());
+        assertEquals(doubles[124], input.readDouble());
+        input.reset();
+        verify(input, doubles, longs);
+        assertThrows(IllegalArgumentException.class, () -> input.seek(size + 1));
+    }
+
+    @Test
+    void testResetStringDictionary() {
+        SegmentOutput output = new SegmentOutput(100, 16);
+        output.setStringDictionary(true);
+        output.writeString("a");
+        output.writeString("b");
+        output.writeString("b");
+
+        SegmentInput input = new SegmentInput(output.segments(), 32);
+        input.setStringDictionary(true);
+        assertEquals("a", input.readString());
+        input.reset();
+        assertEquals("a", input.readString());
+        assertEquals("b", input.readString());
+        assertEquals("b", input.readString());
+    }
+
+    @Test
+    void testCanonicalNaN() {
+        float[] floats = {1, Float.intBitsToFloat(0x7fc00001), 2};
+        double[] doubles = {Double.longBitsToDouble(0xfff0000000000001L), 3};
+        SegmentOutput output = new SegmentOutput(100, 16);
+        output.writeFloats(floats, 0, floats.length);
+        output.writeDoubles(doubles, 0, doubles.length);
+
+        SegmentInput input = new SegmentInput(output.segments(), 32);
+        assertEquals(Float.floatToIntBits(1), input.readInt());
+        assertEquals(Float.floatToIntBits(Float.NaN), input.readInt());
+        assertEquals(Float.floatToIntBits(2), input.readInt());
+        assertEquals(Double.doubleToLongBits(Double.NaN), input.readLong());
+        assertEquals(Double.doubleToLongBits(3), input.readLong());
+    }
+}
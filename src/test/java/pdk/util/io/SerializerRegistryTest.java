@@ -0,0 +1,135 @@
+package pdk.util.io;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.junit.jupiter.api.Test;
+import pdk.util.SerializationUtils;
+import pdk.util.data.Point;
+import pdk.util.data.Point2D;
+import pdk.util.data.WeightPoint2D;
+import pdk.util.tuple.Tuple;
+import pdk.util.tuple.Tuple0;
+import pdk.util.tuple.Tuple3;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Jiawei Mao
+ * @version 1.0.0
+ * @since 16 Oct 2026, 11:55 PM
+ */
+class SerializerRegistryTest {
+
+    record Peak(double mz, float intensity, int charge, boolean isotope, char label) implements Serializable {}
+
+    record Spectrum(String title, long id, double[] mz, List<Peak> peaks, Tuple3<String, Integer, Point2D> meta)
+            implements Serializable {}
+
+    @Test
+    void testCopy() {
+        SerializerRegistry registry = SerializerRegistry.getDefault();
+        ArrayList<Peak> peaks = new ArrayList<>(List.of(new Peak(100.5, 3.5f, 2, true, 'b'), new Peak(200.25, 1, -1, false, 'y')));
+        Spectrum spectrum = new Spectrum("scan=1", 1L << 40, new double[]{1.5, 2.5}, peaks,
+                Tuple.of("meta", 7, Point.create(1, 2)));
+
+        Spectrum copy = registry.copy(spectrum);
+        assertNotSame(spectrum, copy);
+        assertEquals(spectrum.title(), copy.title());
+        assertEquals(spectrum.id(), copy.id());
+        assertArrayEquals(spectrum.mz(), copy.mz());
+        assertEquals(peaks, copy.peaks());
+        assertEquals(spectrum.meta(), copy.meta());
+
+        assertNull(registry.copy(null));
+        assertSame(Tuple0.instance(), registry.copy(Tuple0.instance()));
+        assertArrayEquals(new String[]{"a", null}, registry.copy(new String[]{"a", null}));
+        assertArrayEquals(new Peak[]{peaks.get(0)}, registry.copy(new Peak[]{peaks.get(0)}));
+        assertEquals(IntArrayList.wrap(new int[]{1, 2, 3}), registry.copy(IntArrayList.wrap(new int[]{1, 2, 3})));
+        HashMap<String, Object> map = new HashMap<>();
+        map.put("a", 1L);
+        map.put("b", null);
+        assertEquals(map, registry.copy(map));
+
+        WeightPoint2D point = registry.copy(new WeightPoint2D(1, 2, 0.5));
+        assertEquals(0.5, point.getWeight());
+        assertEquals(2, point.getY());
+
+        assertFalse(registry.supports(Object.class));
+        assertThrows(IllegalArgumentException.class, () -> registry.copy(new Object()));
+        assertThrows(IllegalArgumentException.class, () -> registry.copy(List.of(new Object())));
+    }
+
+    @Test
+    void testRegister() {
+        SerializerRegistry registry = new SerializerRegistry();
+        record Mass(double value) {}
+        Serializer<StringBuilder> serializer = new Serializer<>() {
+            @Override
+            public void write(Output output, StringBuilder value) {
+                output.writeString(value.toString());
+            }
+
+            @Override
+            public StringBuilder read(Input input) {
+                return new StringBuilder(input.readString());
+            }
+        };
+        int id = registry.register(StringBuilder.class, serializer);
+        assertSame(serializer, registry.getSerializer(StringBuilder.class));
+        assertThrows(IllegalArgumentException.class, () -> registry.register(StringBuilder.class, serializer));
+        assertEquals("abc", registry.copy(new StringBuilder("abc")).toString());
+
+        Output output = new Output(64, -1);
+        registry.writeObject(output, new StringBuilder("x"));
+        assertEquals(id, new Input(output.toBytes()).readVarInt(true));
+        Serializer<Mass> massSerializer = registry.getSerializer(Mass.class);
+        assertEquals(new Mass(3), massSerializer.read(write(massSerializer, new Mass(3))));
+    }
+
+    private static <T> Input write(Serializer<T> serializer, T value) {
+        Output output = new Output(64, -1);
+        serializer.write(output, value);
+        return new Input(output.toBytes());
+    }
+
+    @Test
+    void testRound() {
+        Peak peak = new Peak(1, 2, 3, false, 'c');
+        assertEquals(peak, SerializationUtils.round(peak));
+        // not supported by the registry, falls back to Java serialization
+        ArrayList<Object> list = new ArrayList<>(List.of(new Date(5)));
+        assertEquals(list, SerializationUtils.round(list));
+    }
+
+    @Test
+    void testRoundCyclic() {
+        ArrayList<Object> list = new ArrayList<>();
+        list.add("a");
+        list.add(list);
+        assertFalse(SerializerRegistry.getDefault().isCopyable(list));
+        ArrayList<Object> copy = SerializationUtils.round(list);
+        assertEquals("a", copy.get(0));
+        assertSame(copy, copy.get(1));
+    }
+
+    @Test
+    void testRoundShared() {
+        double[] mz = {1.5, 2.5};
+        ArrayList<Object> list = new ArrayList<>(List.of(mz, mz, "s", "s"));
+        assertFalse(SerializerRegistry.getDefault().isCopyable(list));
+        ArrayList<Object> copy = SerializationUtils.round(list);
+        assertNotSame(mz, copy.get(0));
+        assertSame(copy.get(0), copy.get(1));
+        assertArrayEquals(mz, (double[]) copy.get(0));
+
+        // strings and boxed values may be shared
+        assertTrue(SerializerRegistry.getDefault().isCopyable(new ArrayList<>(List.of("s", "s", 1, 1))));
+        Peak peak = new Peak(1, 2, 3, false, 'c');
+        assertFalse(SerializerRegistry.getDefault().isCopyable(new Object[]{peak, peak}));
+    }
+}
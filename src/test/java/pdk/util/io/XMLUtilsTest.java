@@ -1,14 +1,22 @@
 package pdk.util.io;
 
 import org.junit.jupiter.api.Test;
+import pdk.util.exception.PDKRuntimeException;
 
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * @author Jiawei Mao
@@ -43,4 +51,121 @@ class XMLUtilsTest {
         }
         reader.close();
     }
-}
\ No newline at end of file
+
+    private static final String ZLIB_INTENSITY = "eJxjYGBIKEhb7cAABMeqwXSC5v71ILphyvUNINrBznsTWJxp+XEQ/WBb/H4wv0dqJ1hdz9O9YP4h3R1g+sxbMK1QJ3QYrD+J6SVYn1MamP+gK/AZ2L7lPWBzFmx2Bqs/MP/kSbD8BddDYP1yn/eBzVfduMsBAAI3Mrc=";
+
+    private static XMLStreamReader binaryReader(String base64) throws XMLStreamException {
+        String text = "<binaryDataArray><binary>" + base64 + "</binary><next/></binaryDataArray>";
+        XMLStreamReader reader = XMLUtils.createReader(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+        assertTrue(XMLUtils.toStartElement(reader, "binary"));
+        return reader;
+    }
+
+    @Test
+    void readBinaryZlib() throws XMLStreamException, DataFormatException {
+        Inflater inflater = new Inflater();
+        inflater.setInput(Base64.getDecoder().decode(ZLIB_INTENSITY));
+        byte[] bytes = new byte[1 << 12];
+        int length = inflater.inflate(bytes);
+        inflater.end();
+        double[] expected = new double[length / 8];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(expected);
+
+        XMLStreamReader reader = binaryReader(ZLIB_INTENSITY);
+        double[] values = new double[expected.length + 1];
+        XMLUtils.readBinary(reader, true, values, 1, expected.length);
+        assertTrue(XMLUtils.isEndElement(reader, "binary"));
+        for (int i = 0; i < expected.length; i++)
+            assertEquals(expected[i], values[i + 1]);
+
+        reader = binaryReader(ZLIB_INTENSITY);
+        XMLStreamReader r = reader;
+        assertThrows(BufferUnderflowException.class,
+                () -> XMLUtils.readBinary(r, true, new double[expected.length + 1], 0, expected.length + 1));
+    }
+
+    @Test
+    void readBinaryChunks() throws XMLStreamException {
+        float[] floats = new float[1001];
+        for (int i = 0; i < floats.length; i++)
+            floats[i] = i * 0.37f;
+        ByteBuffer buffer = ByteBuffer.allocate(floats.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(floats);
+        // line breaks and characters split over several chunks of text
+        String base64 = Base64.getMimeEncoder().encodeToString(buffer.array());
+
+        BinaryDataInput input = new BinaryDataInput(7, 16);
+        for (String text : new String[]{base64, base64.replace("=", "")}) {
+            XMLStreamReader reader = binaryReader(text);
+            input.setReader(reader, false);
+            assertArrayEquals(floats, input.readFloats(floats.length));
+            input.finish();
+            assertTrue(XMLUtils.isEndElement(reader, "binary"));
+            reader.next();
+            assertTrue(XMLUtils.isStartElement(reader, "next"));
+        }
+
+        double[] doubles = new double[500];
+        for (int i = 0; i < doubles.length; i++)
+            doubles[i] = Math.sqrt(i);
+        buffer = ByteBuffer.allocate(doubles.length * 8).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asDoubleBuffer().put(doubles);
+        Deflater deflater = new Deflater();
+        deflater.setInput(buffer.array());
+        deflater.finish();
+        byte[] compressed = new byte[doubles.length * 8 + 64];
+        int length = deflater.deflate(compressed);
+        deflater.end();
+        byte[] data = Arrays.copyOf(compressed, length);
+
+        XMLStreamReader reader = binaryReader(Base64.getEncoder().encodeToString(data));
+        input.setReader(reader, true);
+        double[] values = new double[doubles.length];
+        input.readDoubles(values, 0, 100);
+        // the rest of the element is skipped
+        input.finish();
+        assertTrue(XMLUtils.isEndElement(reader, "binary"));
+        assertArrayEquals(Arrays.copyOf(doubles, 100), Arrays.copyOf(values, 100));
+        input.close();
+
+        assertThrows(PDKRuntimeException.class, () -> {
+            XMLStreamReader bad = binaryReader("AAAA*AAA");
+            XMLUtils.readBinary(bad, false, new float[2], 0, 2);
+        });
+    }
+
+    @Test
+    void attributeIndex() throws XMLStreamException {
+        String text = """
+                <list>
+                  <item id="a" chargeState="2" experimentalMassToCharge="445.120025" rank="1"/>
+                  <item id="b" chargeState="3" experimentalMassToCharge="1e3" rank="2"/>
+                  <item experimentalMassToCharge="0.5" id="c"/>
+                </list>
+                """;
+        XMLStreamReader reader = XMLUtils.createReader(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+        XMLAttributeIndex attrs = new XMLAttributeIndex("chargeState", "experimentalMassToCharge", "rank");
+
+        assertTrue(XMLUtils.toStartElement(reader, "item"));
+        attrs.resolve(reader);
+        assertEquals(2, attrs.requiredInt(reader, 0));
+        assertEquals(445.120025, attrs.requiredDouble(reader, 1));
+        assertEquals(1L, attrs.requiredLong(reader, 2));
+
+        assertTrue(XMLUtils.toStartElement(reader, "item"));
+        attrs.resolve(reader);
+        assertEquals(3, attrs.getInt(reader, 0, -1));
+        assertEquals(1000f, attrs.requiredFloat(reader, 1));
+
+        // other attribute order and missing attributes
+        assertTrue(XMLUtils.toStartElement(reader, "item"));
+        attrs.resolve(reader);
+        assertFalse(attrs.has(0));
+        assertEquals(-1, attrs.getInt(reader, 0, -1));
+        assertEquals(0.5, attrs.getDouble(reader, 1, Double.NaN));
+        assertEquals(0.5, XMLUtils.doubleAttr(reader, "experimentalMassToCharge", Double.NaN));
+        assertEquals(7L, XMLUtils.longAttr(reader, "rank", 7L));
+        assertThrows(XMLStreamException.class, () -> attrs.requiredLong(reader, 2));
+        reader.close();
+    }
+}